@@ -10,4 +10,6 @@ public @interface CacheEvictX {
     String key() default "";   // ใช้เมื่อ allEntries=false
     boolean allEntries() default false;
     boolean beforeInvoke() default false;
+    /** SpEL ของ tag: ลบทุก entry (ทุก cacheName) ที่ลงทะเบียนไว้กับ tag นี้ */
+    String[] tags() default {};
 }
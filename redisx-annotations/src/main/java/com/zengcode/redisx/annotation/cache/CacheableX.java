@@ -13,4 +13,8 @@ public @interface CacheableX {
     String condition() default "";
     /** SpEL: true → ไม่เขียน cache หลังได้ #result */
     String unless() default "";
+    /** SpEL ของ tag (ใช้ #result ได้; ค่าเป็น Collection/array = หลาย tag) → ลบทีหลังด้วย @CacheEvictX(tags) */
+    String[] tags() default {};
+    /** read budget (ms) ของ GET: เกิน → เรียกเมธอดจริงเลย (คำตอบที่มาช้าถูกทิ้ง); -1 = ใช้ redisx.cache.read-timeout-ms, 0 = ไม่จำกัด */
+    long readTimeoutMs() default -1;
 }
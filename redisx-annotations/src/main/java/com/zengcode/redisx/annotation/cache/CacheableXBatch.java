@@ -0,0 +1,20 @@
+package com.zengcode.redisx.annotation.cache;
+
+import java.lang.annotation.*;
+
+/**
+ * cache แบบ batch สำหรับเมธอดรูป {@code Map<Id, V> loadAll(Collection<Id> ids)}
+ * แต่ละ id ถูกเก็บเป็น key ของตัวเอง (รูปแบบเดียวกับ @CacheableX) → อ่านด้วย MGET ครั้งเดียว
+ * แล้วเรียกเมธอดจริงเฉพาะ id ที่ MISS; ผลลัพธ์เรียงตามลำดับ id ที่ส่งเข้ามา
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheableXBatch {
+    String cacheName();
+    /** SpEL ต่อ id: #id = id แต่ละตัว (ใช้ parameter อื่นของเมธอดได้ตามปกติ) */
+    String key() default "#id";
+    long ttlSeconds() default 300;
+    /** SpEL: true → ใช้ cache; false → bypass ทั้งอ่าน/เขียน */
+    String condition() default "";
+}
@@ -7,4 +7,5 @@ import java.lang.annotation.*;
 public @interface MapCacheGet {
     String cacheName();
     String key();        // Expression สำหรับ field
+    long ttlSeconds() default 0;     // TTL ของ field ที่เขียนตอน MISS (0 = default)
 }
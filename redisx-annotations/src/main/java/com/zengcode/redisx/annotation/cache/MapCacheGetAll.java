@@ -0,0 +1,21 @@
+package com.zengcode.redisx.annotation.cache;
+
+import java.lang.annotation.*;
+
+/**
+ * อ่านหลาย field ของ map cache (Redis HASH prefix:cacheName) ในครั้งเดียว
+ * - เมธอดรูป {@code Map<Id, V> loadAll(Collection<Id> ids)}: HMGET ครั้งเดียว แล้วเรียกเมธอดจริงเฉพาะ id ที่ MISS
+ *   เขียนค่าที่โหลดมากลับด้วย HSET ครั้งเดียว; ผลลัพธ์เรียงตามลำดับ id ที่ส่งเข้ามา
+ * - allEntries = true (เมธอดรูป {@code Map<String, V> loadAll()}): ทั้ง hash อ่านด้วย HSCAN แทน HGETALL
+ *   hash ว่าง → เรียกเมธอดจริงแล้วเขียนทั้งก้อนกลับ
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MapCacheGetAll {
+    String cacheName();             // ชื่อ Hash
+    /** SpEL ของ field ต่อ id: #id = id แต่ละตัว (ไม่ใช้เมื่อ allEntries = true) */
+    String key() default "#id";
+    long ttlSeconds() default 0;    // TTL ของ field ที่เขียนตอน MISS (0 = default)
+    boolean allEntries() default false;
+}
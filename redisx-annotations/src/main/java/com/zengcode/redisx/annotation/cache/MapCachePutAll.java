@@ -0,0 +1,17 @@
+package com.zengcode.redisx.annotation.cache;
+
+import java.lang.annotation.*;
+
+/**
+ * เขียนหลาย field ของ map cache (Redis HASH prefix:cacheName) ด้วย HSET ครั้งเดียว
+ * สำหรับเมธอดที่คืน {@code Map<Id, V>}: แต่ละ entry = หนึ่ง field (ทุก field ได้ TTL เท่ากัน)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MapCachePutAll {
+    String cacheName();             // ชื่อ Hash
+    /** SpEL ของ field ต่อ entry: #id = key ของ entry */
+    String key() default "#id";
+    long ttlSeconds() default 0;    // TTL ของ field (0 = default)
+}
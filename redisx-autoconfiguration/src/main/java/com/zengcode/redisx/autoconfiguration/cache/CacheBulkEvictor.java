@@ -0,0 +1,228 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * evict-all ของ cache ที่ไม่ได้เปิด generation: SCAN MATCH prefix:cacheName:* แล้ว UNLINK เป็น batch ละ scan-count
+ * - UNLINK แทน DEL: Redis คืนหน่วยความจำใน background thread ไม่ block event loop กับค่าใหญ่
+ * - Cluster: SCAN ของ connection เดียวเห็นแค่ node เดียว → แตกเป็นหนึ่ง task ต่อ master (virtual thread, connection ของตัวเอง)
+ *   ทำขนานกัน และ UNLINK แยกตาม hash slot (multi-key command ต้องอยู่ slot เดียว)
+ *   prefix ที่มี hash tag (key-layout CACHE_NAME) → SCAN เฉพาะ master ของ slot นั้น
+ * - async (evict-all.async) → คืน {@link Job} ทันที ดูความคืบหน้าได้ที่ {@link #running()} + log ทุก progress-interval-ms
+ */
+public class CacheBulkEvictor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheBulkEvictor.class);
+
+    static final String DELETED = "redisx.cache.evict-all.deleted";
+    static final String TIME = "redisx.cache.evict-all.time";
+    static final String ERROR = "redisx.cache.evict-all.error";
+
+    /** ความคืบหน้าของ evict-all หนึ่งครั้ง (อ่านได้ระหว่างทำงาน) */
+    public static final class Job {
+        private final String cacheName;
+        private final String pattern;
+        private final long startedAtNanos = System.nanoTime();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicInteger nodesDone = new AtomicInteger();
+        private final AtomicLong lastLogNanos = new AtomicLong(startedAtNanos);
+        private final CompletableFuture<Long> completion = new CompletableFuture<>();
+        private volatile int nodes;
+
+        Job(String cacheName, String pattern) {
+            this.cacheName = cacheName;
+            this.pattern = pattern;
+        }
+
+        public String cacheName() { return cacheName; }
+        public String pattern() { return pattern; }
+        public long scanned() { return scanned.get(); }
+        public long deleted() { return deleted.get(); }
+        public int nodes() { return nodes; }
+        public int nodesDone() { return nodesDone.get(); }
+        public long elapsedMs() { return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos); }
+        public boolean isDone() { return completion.isDone(); }
+        /** complete ด้วยจำนวน key ที่ลบ (error → completeExceptionally) */
+        public CompletableFuture<Long> completion() { return completion; }
+
+        @Override
+        public String toString() {
+            return "cacheName=" + cacheName + " nodes=" + nodesDone() + "/" + nodes + " scanned=" + scanned()
+                    + " deleted=" + deleted() + " took=" + elapsedMs() + "ms";
+        }
+    }
+
+    private final StringRedisTemplate srt;
+    private final CacheProps props;
+    private final CacheMetrics metrics;
+    private final boolean cluster;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("redisx-evict-all-", 0).factory());
+    private final Set<Job> running = ConcurrentHashMap.newKeySet();
+
+    public CacheBulkEvictor(StringRedisTemplate srt, CacheProps props, CacheMetrics metrics) {
+        this.srt = srt;
+        this.props = props;
+        this.metrics = metrics;
+        this.cluster = CacheKeys.clusterAware(srt.getConnectionFactory());
+    }
+
+    /** ลบทุก key ที่ขึ้นต้นด้วย prefix แล้วรอจนจบ; คืนจำนวนที่ลบ */
+    public long evict(String cacheName, String prefix) {
+        Job job = new Job(cacheName, prefix + "*");
+        running.add(job);
+        run(job);
+        return job.completion.join();
+    }
+
+    /** เริ่มลบเบื้องหลังแล้วคืนทันที */
+    public Job start(String cacheName, String prefix) {
+        Job job = new Job(cacheName, prefix + "*");
+        running.add(job);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    /** job ที่ยังไม่จบ */
+    public Collection<Job> running() {
+        return List.copyOf(running);
+    }
+
+    private void run(Job job) {
+        try {
+            if (cluster) {
+                runCluster(job);
+            } else {
+                job.nodes = 1;
+                srt.execute((RedisConnection con) -> {
+                    drain(job, con.scan(scanOptions(job)), batch -> unlink(con, batch));
+                    return null;
+                });
+                job.nodesDone.incrementAndGet();
+            }
+            metrics.recordValue(DELETED, job.cacheName, job.deleted());
+            metrics.recordNanos(TIME, job.cacheName, System.nanoTime() - job.startedAtNanos);
+            job.completion.complete(job.deleted());
+        } catch (Throwable t) {
+            metrics.increment(ERROR, job.cacheName);
+            job.completion.completeExceptionally(t);
+        } finally {
+            running.remove(job);
+        }
+    }
+
+    /** หนึ่ง task ต่อ master: SCAN เฉพาะ node นั้น (แต่ละ task ใช้ connection ของตัวเอง) */
+    private void runCluster(Job job) throws Exception {
+        RedisConnectionFactory cf = srt.getRequiredConnectionFactory();
+        List<RedisClusterNode> masters = new ArrayList<>();
+        try (RedisClusterConnection cc = cf.getClusterConnection()) {
+            if (hasHashTag(job.pattern)) {
+                // key-layout CACHE_NAME: ทุก key ของ cache อยู่ slot เดียว → SCAN แค่ master ของ slot นั้น
+                masters.add(cc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(job.pattern)));
+            } else {
+                for (RedisClusterNode n : cc.clusterGetNodes()) {
+                    if (n.isMaster()) masters.add(n);
+                }
+            }
+        }
+        job.nodes = masters.size();
+        List<Future<?>> tasks = new ArrayList<>(masters.size());
+        for (RedisClusterNode node : masters) {
+            tasks.add(executor.submit(() -> {
+                try (RedisClusterConnection cc = cf.getClusterConnection()) {
+                    drain(job, cc.scan(node, scanOptions(job)), batch -> unlinkBySlot(cc, batch));
+                }
+                job.nodesDone.incrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> f : tasks) f.get();
+    }
+
+    private void drain(Job job, Cursor<byte[]> cursor, ToLongFunction<List<byte[]>> unlink) {
+        int batchSize = Math.max(1, props.getScanCount());
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        try (cursor) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                job.scanned.incrementAndGet();
+                if (batch.size() < batchSize) continue;
+                job.deleted.addAndGet(unlink.applyAsLong(batch));
+                batch.clear();
+                logProgress(job);
+            }
+        }
+        if (!batch.isEmpty()) job.deleted.addAndGet(unlink.applyAsLong(batch));
+    }
+
+    private void logProgress(Job job) {
+        long intervalMs = props.getEvictAll().getProgressIntervalMs();
+        if (intervalMs <= 0) return;
+        long now = System.nanoTime();
+        long last = job.lastLogNanos.get();
+        if (now - last >= TimeUnit.MILLISECONDS.toNanos(intervalMs) && job.lastLogNanos.compareAndSet(last, now)) {
+            log.info("[CacheEvictX] EVICT-ALL progress {}", job);
+        }
+    }
+
+    /** มี {...} ที่ไม่ว่าง → slot คำนวณจากส่วนนั้นเท่านั้น */
+    static boolean hasHashTag(String s) {
+        int open = s.indexOf('{');
+        if (open < 0) return false;
+        int close = s.indexOf('}', open + 1);
+        return close > open + 1;
+    }
+
+    private ScanOptions scanOptions(Job job) {
+        return ScanOptions.scanOptions().match(job.pattern).count(props.getScanCount()).build();
+    }
+
+    private static long unlink(RedisConnection con, List<byte[]> batch) {
+        Long n = con.keyCommands().unlink(batch.toArray(new byte[0][]));
+        return n != null ? n : 0L;
+    }
+
+    /** UNLINK หลาย key ต้องอยู่ slot เดียวกัน → แบ่งตาม slot */
+    private static long unlinkBySlot(RedisClusterConnection cc, List<byte[]> batch) {
+        Map<Integer, List<byte[]>> bySlot = new LinkedHashMap<>();
+        for (byte[] k : batch) bySlot.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(k), s -> new ArrayList<>()).add(k);
+        long total = 0L;
+        for (List<byte[]> part : bySlot.values()) {
+            Long n = cc.keyCommands().unlink(part.toArray(new byte[0][]));
+            total += n != null ? n : 0L;
+        }
+        return total;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
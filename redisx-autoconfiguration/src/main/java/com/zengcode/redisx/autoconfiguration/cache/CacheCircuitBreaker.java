@@ -0,0 +1,184 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * circuit breaker รอบคำสั่ง Redis ของ cache (หนึ่งตัวต่อ connection factory)
+ * - CLOSED: นับผลของ window-size คำสั่งล่าสุด; อัตรา error หรืออัตราคำสั่งช้าถึงเกณฑ์ → OPEN
+ * - OPEN: {@link #tryAcquire()} = false → aspect ข้าม Redis ทันที (อ่าน = MISS, เขียน = ข้าม) ไม่ต้องรอ timeout ของ client
+ * - ครบ open-ms → HALF_OPEN: ปล่อยคำสั่งทดลอง half-open-calls ครั้ง; ผ่านครบ → CLOSED, พลาด/ช้า → OPEN อีกรอบ
+ * caller ที่ได้ permit ต้องรายงานผลด้วย {@link #onSuccess(long)} / {@link #onError(long)} เสมอ
+ * metric: state เป็น gauge (0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN) + นับทุก transition + คำสั่งที่ถูกข้าม
+ * CLOSED (ทางปกติ) บันทึกผลแบบ lock-free ด้วย atomic; lock เฉพาะตอน transition และใน HALF_OPEN
+ */
+public class CacheCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+
+    static final String STATE = "redisx.cache.breaker.state";
+    static final String OPENED = "redisx.cache.breaker.opened";
+    static final String HALF_OPENED = "redisx.cache.breaker.half-opened";
+    static final String CLOSED = "redisx.cache.breaker.closed";
+    static final String REJECTED = "redisx.cache.breaker.rejected";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final CacheProps.CircuitBreaker cfg;
+    private final CacheMetrics metrics;
+    private final long slowNanos;
+
+    private final int windowSize;
+    private volatile Window window;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private long halfOpenedAtNanos;
+    private int probesIssued, probesPassed;
+
+    public CacheCircuitBreaker(String name, CacheProps.CircuitBreaker cfg, CacheMetrics metrics) {
+        this.name = name;
+        this.cfg = cfg;
+        this.metrics = metrics;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(cfg.getSlowCallMs());
+        this.windowSize = Math.max(1, cfg.getWindowSize());
+        this.window = new Window(windowSize);
+        metrics.gauge(STATE, name, () -> state.ordinal());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /** true = เรียก Redis ได้ (caller ต้องรายงานผล); false = OPEN → ข้าม Redis */
+    public boolean tryAcquire() {
+        if (!cfg.isEnabled() || state == State.CLOSED) return true;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long openNanos = TimeUnit.MILLISECONDS.toNanos(cfg.getOpenMs());
+            if (state == State.OPEN && now - openedAtNanos >= openNanos) {
+                probesIssued = 0;
+                probesPassed = 0;
+                halfOpenedAtNanos = now;
+                transition(State.HALF_OPEN);
+            } else if (state == State.HALF_OPEN && now - halfOpenedAtNanos >= openNanos) {
+                // probe ที่ไม่เคยรายงานผล (เช่น Mono ถูก cancel) → ไม่ค้าง HALF_OPEN ตลอดไป
+                probesIssued = probesPassed;
+                halfOpenedAtNanos = now;
+            }
+            if (state == State.HALF_OPEN && probesIssued < Math.max(1, cfg.getHalfOpenCalls())) {
+                probesIssued++;
+                return true;
+            }
+            if (state == State.CLOSED) return true;
+        }
+        metrics.increment(REJECTED, name);
+        return false;
+    }
+
+    /** CLOSED อยู่หรือไม่ (สำหรับงานเสริมที่ไม่ควรกิน permit ของ HALF_OPEN เช่น lease) */
+    public boolean isClosed() {
+        return !cfg.isEnabled() || state == State.CLOSED;
+    }
+
+    /** คำสั่งสำเร็จ; startedAtNanos = System.nanoTime() ก่อนเรียก (ช้าเกิน slow-call-ms นับเป็นคำสั่งช้า) */
+    public void onSuccess(long startedAtNanos) {
+        record(false, System.nanoTime() - startedAtNanos >= slowNanos);
+    }
+
+    /** คำสั่งล้ม (exception จาก Redis / client timeout) */
+    public void onError(long startedAtNanos) {
+        record(true, System.nanoTime() - startedAtNanos >= slowNanos);
+    }
+
+    private void record(boolean error, boolean isSlow) {
+        if (!cfg.isEnabled()) return;
+        State s = state;
+        if (s == State.CLOSED) {
+            Window w = window;
+            int size = w.record(error, isSlow);
+            if (size >= Math.max(1, cfg.getMinimumCalls())
+                    && (w.failures.get() * 100 >= cfg.getFailureRateThreshold() * size
+                    || w.slows.get() * 100 >= cfg.getSlowCallRateThreshold() * size)) {
+                synchronized (this) {
+                    // thread อื่นอาจ OPEN ไปก่อนแล้ว → ไม่ OPEN ซ้ำ
+                    if (state == State.CLOSED && window == w) open(w, size);
+                }
+            }
+            return;
+        }
+        if (s == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state != State.HALF_OPEN) return;
+                if (error || isSlow) {
+                    open(null, 0);
+                } else if (++probesPassed >= Math.max(1, cfg.getHalfOpenCalls())) {
+                    window = new Window(windowSize);
+                    transition(State.CLOSED);
+                }
+            }
+        }
+        // OPEN: ผลของคำสั่งที่เริ่มไว้ก่อน OPEN → ไม่มีผลกับ state
+    }
+
+    /** เรียกภายใต้ lock ของ this; w = window ที่ถึงเกณฑ์ (null = probe ของ HALF_OPEN ล้ม) */
+    private void open(Window w, int size) {
+        if (w == null) {
+            log.warn("[CacheBreaker] {} probe failed → OPEN for {}ms", name, cfg.getOpenMs());
+        } else {
+            log.warn("[CacheBreaker] {} CLOSED → OPEN for {}ms (failures={} slow={} calls={})",
+                    name, cfg.getOpenMs(), w.failures.get(), w.slows.get(), size);
+        }
+        window = new Window(windowSize);
+        openedAtNanos = System.nanoTime();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        metrics.increment(switch (to) {
+            case OPEN -> OPENED;
+            case HALF_OPEN -> HALF_OPENED;
+            case CLOSED -> CLOSED;
+        }, name);
+        if (to != State.OPEN) log.info("[CacheBreaker] {} {} → {}", name, from, to);
+    }
+
+    /**
+     * ผลของ window-size คำสั่งล่าสุดแบบวงกลม (lock-free): ช่องที่ calls ชี้ถูกสลับค่าด้วย getAndSet → ปรับตัวนับตามส่วนต่าง
+     * reset = สร้าง Window ใหม่ → ผลที่มาช้าจากก่อน transition ตกลง window เก่า ไม่ทำตัวนับของ window ใหม่เพี้ยน
+     */
+    private static final class Window {
+        private static final int FAILED = 1, SLOW = 2;
+
+        final AtomicIntegerArray outcomes;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger slows = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        /** บันทึกผลแล้วคืนจำนวนคำสั่งใน window */
+        int record(boolean error, boolean isSlow) {
+            long n = calls.getAndIncrement();
+            int bits = (error ? FAILED : 0) | (isSlow ? SLOW : 0);
+            int prev = outcomes.getAndSet((int) (n % outcomes.length()), bits);
+            if ((bits & FAILED) != (prev & FAILED)) failures.addAndGet(error ? 1 : -1);
+            if ((bits & SLOW) != (prev & SLOW)) slows.addAndGet(isSlow ? 1 : -1);
+            return (int) Math.min(n + 1, outcomes.length());
+        }
+    }
+}
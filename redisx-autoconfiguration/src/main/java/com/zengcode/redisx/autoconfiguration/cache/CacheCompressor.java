@@ -0,0 +1,75 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * บีบอัด payload ของ cache ด้วย JDK Deflater (raw deflate, ไม่มี zlib header)
+ * รูปแบบ: [varint ความยาวก่อนบีบ][deflate stream] → ตอนอ่านจอง buffer ได้พอดีครั้งเดียว
+ */
+final class CacheCompressor {
+
+    private CacheCompressor() {
+    }
+
+    /** @return payload ที่บีบแล้ว หรือ null ถ้าบีบแล้วไม่เล็กลง (เก็บแบบเดิมดีกว่า) */
+    static byte[] compress(byte[] raw, int level) {
+        Deflater d = new Deflater(level, true);
+        try {
+            d.setInput(raw);
+            d.finish();
+            byte[] out = new byte[raw.length];
+            int p = putVar(out, raw.length);
+            while (!d.finished()) {
+                if (p >= out.length) return null; // ใหญ่กว่าหรือเท่าของเดิม
+                p += d.deflate(out, p, out.length - p);
+            }
+            return Arrays.copyOf(out, p);
+        } finally {
+            d.end();
+        }
+    }
+
+    static byte[] decompress(byte[] in, int offset, int length) throws IOException {
+        int p = offset;
+        int rawLen = 0, shift = 0;
+        byte b;
+        do {
+            if (p >= offset + length || shift > 28) throw new IOException("corrupt compressed header");
+            b = in[p++];
+            rawLen |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        Inflater inf = new Inflater(true);
+        try {
+            inf.setInput(in, p, offset + length - p);
+            byte[] out = new byte[rawLen];
+            int n = 0;
+            while (n < rawLen) {
+                int r = inf.inflate(out, n, rawLen - n);
+                if (r == 0 && (inf.finished() || inf.needsInput() || inf.needsDictionary())) break;
+                n += r;
+            }
+            if (n != rawLen) throw new IOException("corrupt compressed payload (" + n + "/" + rawLen + " bytes)");
+            return out;
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt compressed payload", e);
+        } finally {
+            inf.end();
+        }
+    }
+
+    private static int putVar(byte[] out, int v) {
+        int p = 0;
+        while ((v & ~0x7F) != 0) {
+            out[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[p++] = (byte) v;
+        return p;
+    }
+}
@@ -0,0 +1,194 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * รูปแบบ byte[] ที่ @CacheableX เก็บใน Redis
+ * <pre>
+ * [header 1 byte][meta (ถ้ามี): varint softAtMs, deltaMs, expireAtMs][payload ของ codec]
+ * header: bit 0-3 = codec id, bit 4 = มี meta, bit 7 = payload ถูกบีบอัด
+ * ค่า null = byte เดียว 0x00
+ * </pre>
+ * ค่ารุ่นเก่ายังอ่านได้: JSON ล้วน (byte แรกเป็นตัวเริ่มของ JSON) และ text envelope "\u0001{softAt},{delta},{expireAt}|{json}"
+ * codec id ห้ามเป็น 0x09/0x0A/0x0D (whitespace ที่ JSON ขึ้นต้นได้) และ 0/1 (null / text envelope)
+ */
+final class CacheEnvelope {
+
+    static final int FLAG_META = 0x10;
+    static final int FLAG_COMPRESSED = 0x80;
+
+    private static final byte NULL = 0x00;
+    private static final byte LEGACY_TEXT = 0x01;
+    private static final byte[] NULL_BYTES = {NULL};
+    private static final byte[] LEGACY_NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    /** codec ที่เขียน payload (ค่ารุ่นเก่า = JSON) */
+    final int codecId;
+    final boolean isNull;
+    final boolean compressed;
+    /** payload = bytes[offset, offset + length) */
+    final byte[] bytes;
+    final int offset;
+    final int length;
+    /** เวลา (epoch ms) ที่ค่าเริ่ม stale, 0 = ไม่มี soft-TTL */
+    final long softAtMs;
+    /** เวลาที่ใช้คำนวณค่านี้ (ms) = ต้นทุน recompute สำหรับ XFetch */
+    final long deltaMs;
+    /** เวลา (epoch ms) ที่ค่าหมดอายุตาม TTL (ก่อนเผื่อ stale), 0 = ไม่ทราบ */
+    final long expireAtMs;
+
+    private CacheEnvelope(int codecId, boolean isNull, boolean compressed, byte[] bytes, int offset, int length,
+                          long softAtMs, long deltaMs, long expireAtMs) {
+        this.codecId = codecId;
+        this.isNull = isNull;
+        this.compressed = compressed;
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.softAtMs = softAtMs;
+        this.deltaMs = deltaMs;
+        this.expireAtMs = expireAtMs;
+    }
+
+    static boolean isValidCodecId(int id) {
+        return id >= 2 && id <= 15 && id != 0x09 && id != 0x0A && id != 0x0D;
+    }
+
+    boolean isStale(long nowMs) {
+        return softAtMs > 0 && nowMs >= softAtMs;
+    }
+
+    /**
+     * XFetch (Vattani et al.): recompute ก่อนหมดอายุด้วยความน่าจะเป็นที่สูงขึ้นเมื่อใกล้หมดอายุ
+     * now - delta * beta * ln(U(0,1]) >= expiry  — ค่าที่คำนวณนานจะเริ่ม refresh เร็วกว่า
+     * expiry = soft-TTL ถ้ามี ไม่งั้นใช้ TTL
+     */
+    boolean shouldRecomputeEarly(long nowMs, double beta) {
+        long expiry = softAtMs > 0 ? softAtMs : expireAtMs;
+        if (beta <= 0 || deltaMs <= 0 || expiry <= 0) return false;
+        double u = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0,1]
+        return nowMs - deltaMs * beta * Math.log(u) >= expiry;
+    }
+
+    static byte[] encodeNull() {
+        return NULL_BYTES;
+    }
+
+    /** meta ถูกเขียนเฉพาะเมื่อมีค่า (softAt/delta/expireAt &gt; 0 อย่างน้อยหนึ่งตัว) */
+    static byte[] encode(int codecId, boolean compressed, byte[] payload, long softAtMs, long deltaMs, long expireAtMs) {
+        boolean meta = softAtMs > 0 || deltaMs > 0 || expireAtMs > 0;
+        int header = codecId | (meta ? FLAG_META : 0) | (compressed ? FLAG_COMPRESSED : 0);
+        int metaLen = meta ? varLen(softAtMs) + varLen(deltaMs) + varLen(expireAtMs) : 0;
+        byte[] out = new byte[1 + metaLen + payload.length];
+        out[0] = (byte) header;
+        int p = 1;
+        if (meta) {
+            p = putVar(out, p, softAtMs);
+            p = putVar(out, p, deltaMs);
+            p = putVar(out, p, expireAtMs);
+        }
+        System.arraycopy(payload, 0, out, p, payload.length);
+        return out;
+    }
+
+    /** header เสีย → คืน envelope ที่ถือเป็น JSON ล้วน ให้ขั้น decode ตัดสินต่อ (fail → proceed จริง) */
+    static CacheEnvelope parse(byte[] raw) {
+        if (raw.length == 0) return legacyJson(raw, 0, 0, 0L, 0L, 0L);
+        int b0 = raw[0] & 0xFF;
+        if (b0 == NULL && raw.length == 1) {
+            return new CacheEnvelope(0, true, false, raw, 0, 0, 0L, 0L, 0L);
+        }
+        if (b0 == LEGACY_TEXT) return parseLegacyText(raw);
+        if (isJsonStart(b0)) return legacyJson(raw, 0, raw.length, 0L, 0L, 0L);
+
+        int codecId = b0 & 0x0F;
+        boolean compressed = (b0 & FLAG_COMPRESSED) != 0;
+        int p = 1;
+        long softAt = 0, delta = 0, expireAt = 0;
+        if ((b0 & FLAG_META) != 0) {
+            long[] cursor = {p};
+            softAt = getVar(raw, cursor);
+            delta = getVar(raw, cursor);
+            expireAt = getVar(raw, cursor);
+            p = (int) cursor[0];
+            if (p > raw.length) return legacyJson(raw, 0, raw.length, 0L, 0L, 0L);
+        }
+        return new CacheEnvelope(codecId, false, compressed, raw, p, raw.length - p, softAt, delta, expireAt);
+    }
+
+    /** "\u0001{softAt},{delta},{expireAt}|{json}" (field ท้าย ๆ ไม่มีก็ได้) */
+    private static CacheEnvelope parseLegacyText(byte[] raw) {
+        int bar = indexOf(raw, (byte) '|', 1);
+        if (bar < 0) return legacyJson(raw, 0, raw.length, 0L, 0L, 0L);
+        long[] f = new long[3];
+        int from = 1;
+        for (int i = 0; i < f.length && from < bar; i++) {
+            int end = indexOf(raw, (byte) ',', from);
+            if (end < 0 || end > bar) end = bar;
+            long v = 0;
+            for (int k = from; k < end; k++) {
+                int d = raw[k] - '0';
+                if (d < 0 || d > 9) return legacyJson(raw, 0, raw.length, 0L, 0L, 0L);
+                v = v * 10 + d;
+            }
+            f[i] = v;
+            from = end + 1;
+        }
+        return legacyJson(raw, bar + 1, raw.length - bar - 1, f[0], f[1], f[2]);
+    }
+
+    private static CacheEnvelope legacyJson(byte[] raw, int offset, int length, long softAt, long delta, long expireAt) {
+        boolean isNull = length == LEGACY_NULL.length && regionEquals(raw, offset, LEGACY_NULL);
+        return new CacheEnvelope(JacksonCodec.JSON, isNull, false, raw, offset, length, softAt, delta, expireAt);
+    }
+
+    private static boolean isJsonStart(int b) {
+        return b == '{' || b == '[' || b == '"' || b == '-' || (b >= '0' && b <= '9')
+                || b == 't' || b == 'f' || b == 'n' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static int indexOf(byte[] a, byte b, int from) {
+        for (int i = from; i < a.length; i++) if (a[i] == b) return i;
+        return -1;
+    }
+
+    private static boolean regionEquals(byte[] a, int offset, byte[] b) {
+        for (int i = 0; i < b.length; i++) if (a[offset + i] != b[i]) return false;
+        return true;
+    }
+
+    private static int varLen(long v) {
+        int n = 1;
+        while ((v >>>= 7) != 0) n++;
+        return n;
+    }
+
+    private static int putVar(byte[] out, int p, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[p++] = (byte) v;
+        return p;
+    }
+
+    /** cursor[0] = ตำแหน่งอ่าน (เกินความยาว = ข้อมูลเสีย) */
+    private static long getVar(byte[] in, long[] cursor) {
+        long v = 0;
+        int shift = 0;
+        int p = (int) cursor[0];
+        while (p < in.length) {
+            byte b = in[p++];
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                cursor[0] = p;
+                return v;
+            }
+            shift += 7;
+            if (shift > 63) break;
+        }
+        cursor[0] = in.length + 1;
+        return 0L;
+    }
+}
@@ -7,27 +7,49 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
 
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
 
 @Aspect
 public class CacheEvictXAspect {
 
     private static final Logger log = LoggerFactory.getLogger(CacheEvictXAspect.class);
+    static final String EVICT = "redisx.cache.evict";
+    static final String EVICT_ALL = "redisx.cache.evict-all";
+    static final String EVICT_TAG = "redisx.cache.evict-tag";
 
     private final StringRedisTemplate srt;
     private final CacheProps props;
+    private final NearCache near;
+    private final SpelRegistry spel;
+    private final CacheWriteBehind writeBehind;
+    private final CacheKeys keys;
+    private final CacheTagIndex tagIndex;
+    private final CacheBulkEvictor bulk;
+    private final CacheMetrics metrics;
+    private final HotKeyCache hotKeys;
+    private final CacheReplicas replicas;
 
-    public CacheEvictXAspect(StringRedisTemplate srt, CacheProps props) {
+    public CacheEvictXAspect(StringRedisTemplate srt, CacheProps props, NearCache near, SpelRegistry spel,
+                             CacheWriteBehind writeBehind, CacheKeys keys, CacheTagIndex tagIndex,
+                             CacheBulkEvictor bulk, CacheMetrics metrics, HotKeyCache hotKeys,
+                             CacheReplicas replicas) {
         this.srt = srt;
         this.props = props;
+        this.near = near;
+        this.spel = spel;
+        this.writeBehind = writeBehind;
+        this.keys = keys;
+        this.tagIndex = tagIndex;
+        this.bulk = bulk;
+        this.metrics = metrics;
+        this.hotKeys = hotKeys;
+        this.replicas = replicas;
     }
 
     @Around("@annotation(ann)")
@@ -43,8 +65,8 @@ public class CacheEvictXAspect {
             return pjp.proceed();
         }
 
-        // ชื่อ prefix กลุ่ม
-        String groupPrefix = props.getPrefix() + ":" + ann.cacheName() + ":";
+        // ชื่อ prefix กลุ่ม (ทุก generation)
+        String groupPrefix = keys.basePrefix(ann.cacheName());
 
         if (ann.beforeInvoke()) {
             // ลบก่อน
@@ -59,64 +81,124 @@ public class CacheEvictXAspect {
     }
 
     private void evict(CacheEvictX ann, Method method, Object[] args, String groupPrefix) {
+        if (ann.tags().length > 0) evictTags(ann, method, args);
         try {
-            if (ann.allEntries()) {
-                // ลบทั้งกลุ่มด้วย SCAN
-                String pattern = groupPrefix + "*";
-                long total = scanAndDelete(pattern, props.getScanCount());
-                log.info("[CacheEvictX] EVICT-ALL cacheName={} deleted={} pattern={}",
-                        ann.cacheName(), total, pattern);
-            } else {
+            if (ann.allEntries() && keys.isVersioned(ann.cacheName())) {
+                // generation namespace: INCR ครั้งเดียว key เดิมทั้งหมดไม่ถูกอ่านอีก (หมดอายุเอง / sweeper เก็บ)
+                writeBehind.discardPrefix(groupPrefix);
+                long gen = keys.bumpGeneration(ann.cacheName());
+                near.invalidateRegion(ann.cacheName());
+                hotKeys.invalidateRegion(ann.cacheName());
+                metrics.increment(EVICT_ALL, ann.cacheName());
+                log.info("[CacheEvictX] EVICT-ALL cacheName={} generation={}", ann.cacheName(), gen);
+            } else if (ann.allEntries()) {
+                // ลบทั้งกลุ่มด้วย SCAN + UNLINK (cluster: ทุก master ขนานกัน)
+                String cacheName = ann.cacheName();
+                writeBehind.discardPrefix(groupPrefix);
+                // L1 ของ node นี้ล้างทันที ไม่ต้องรอ invalidation จาก server
+                near.invalidateRegion(cacheName);
+                hotKeys.invalidateRegion(cacheName);
+                metrics.increment(EVICT_ALL, cacheName);
+                evictByScan(cacheName, groupPrefix);
+                // replica ของ key ในกลุ่ม: หนึ่ง SCAN ต่อ replica (แต่ละตัวอยู่ใต้ hash tag เดียว = master เดียว)
+                if (replicas.spec(cacheName) != null) {
+                    for (String p : replicas.replicaPrefixes(groupPrefix)) {
+                        writeBehind.discardPrefix(p);
+                        evictByScan(cacheName, p);
+                    }
+                }
+                // ช่วงย้าย key-layout: key ตาม layout เดิมอยู่ใต้ prefix อื่น → ลบด้วย
+                String legacyPrefix = keys.legacyBasePrefix(cacheName);
+                if (legacyPrefix != null) evictByScan(cacheName, legacyPrefix);
+            } else if (!ann.key().isBlank() || ann.tags().length == 0) {
                 // ลบรายคีย์
                 String eval;
+                String routing;
                 try {
-                    eval = Spel.evalStr(ann.key(), method, args);
+                    SpelRegistry.MethodSpel ms = spel.forMethod(method);
+                    eval = ms.evalStr(ann.key(), args);
+                    String routingExpr = keys.routingExpression(ann.cacheName());
+                    routing = routingExpr == null ? null : ms.evalStr(routingExpr, args);
                 } catch (Exception e) {
                     log.warn("[CacheEvictX] key SpEL eval error → skip evict, expr='{}'", ann.key(), e);
                     return;
                 }
-                String key = groupPrefix + eval;
+                String key = keys.key(ann.cacheName(), routing, eval);
+                writeBehind.discard(key);
                 Boolean ok = srt.delete(key);
-                log.info("[CacheEvictX] EVICT-ONE key={} ok={}", key, ok);
+                near.invalidate(key);
+                hotKeys.invalidate(ann.cacheName(), key);
+                // node ไหนก็อาจกระจาย key นี้ไว้ → ลบทุก replica เสมอเมื่อ cache นี้เปิด replica
+                if (replicas.spec(ann.cacheName()) != null) deleteReplicas(key);
+                String legacy = keys.legacyKey(ann.cacheName(), routing, eval);
+                if (legacy != null) srt.delete(legacy);
+                metrics.increment(EVICT, ann.cacheName());
+                log.debug("[CacheEvictX] EVICT-ONE key={} ok={}", key, ok);
             }
         } catch (Exception e) {
+            metrics.increment(CacheableXAspect.ERROR, ann.cacheName());
             log.warn("[CacheEvictX] evict error (ignored) cacheName={} allEntries={}",
                     ann.cacheName(), ann.allEntries(), e);
         }
     }
 
-    /**
-     * ลบด้วย SCAN (ปลอดภัยกว่า KEYS), ลบเป็น batch ผ่าน srt.delete(Collection)
-     * @return จำนวนคีย์ที่ลบได้
-     */
-    private long scanAndDelete(String matchPattern, int scanCount) {
-        List<String> batch = new ArrayList<>(scanCount);
-        AtomicLong total = new AtomicLong(0L);
-
-        srt.execute((RedisConnection con) -> {
-            var opts = ScanOptions.scanOptions().match(matchPattern).count(scanCount).build();
-            try (var cur = con.scan(opts)) {
-                while (cur.hasNext()) {
-                    String key = new String(cur.next(), StandardCharsets.UTF_8);
-                    batch.add(key);
-                    if (batch.size() >= scanCount) {
-                        total.addAndGet(deleteBatch(batch));
-                        batch.clear();
-                    }
-                }
-            }
-            return null;
-        });
+    private void deleteReplicas(String key) {
+        List<String> copies = replicas.replicaKeys(key);
+        copies.forEach(writeBehind::discard);
+        srt.delete(copies);
+    }
 
-        if (!batch.isEmpty()) {
-            total.addAndGet(deleteBatch(batch));
-            batch.clear();
+    /** SCAN + UNLINK ทุก key ใต้ prefix (รอจนจบ หรือเริ่ม job เบื้องหลังตาม evict-all.async) */
+    private void evictByScan(String cacheName, String prefix) {
+        if (props.getEvictAll().resolve(cacheName).isAsync()) {
+            CacheBulkEvictor.Job job = bulk.start(cacheName, prefix);
+            job.completion().whenComplete((total, e) -> {
+                // ค่าที่ถูกอ่านเข้า L1 ระหว่างลบอาจถูก UNLINK ไปแล้ว → ล้างอีกรอบตอนจบ
+                near.invalidateRegion(cacheName);
+                hotKeys.invalidateRegion(cacheName);
+                if (e != null) log.warn("[CacheEvictX] EVICT-ALL (async) error {}", job, e);
+                else log.info("[CacheEvictX] EVICT-ALL (async) done {}", job);
+            });
+            log.info("[CacheEvictX] EVICT-ALL (async) started cacheName={} pattern={}", cacheName, job.pattern());
+        } else {
+            long total = bulk.evict(cacheName, prefix);
+            log.info("[CacheEvictX] EVICT-ALL cacheName={} deleted={} pattern={}", cacheName, total, prefix + "*");
         }
-        return total.get();
     }
 
-    private long deleteBatch(List<String> keys) {
-        Long removed = srt.delete(keys);
-        return removed != null ? removed : 0L;
+    /** ลบทุก key ที่ลงทะเบียนกับ tag (ข้าม cacheName) เป็น batch ละ scanCount; error ของ tag หนึ่งไม่กระทบ tag อื่น */
+    private void evictTags(CacheEvictX ann, Method method, Object[] args) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String expr : ann.tags()) {
+            try {
+                CacheTagIndex.flatten(spel.forMethod(method).eval(expr, args, null), tags);
+            } catch (Exception e) {
+                log.warn("[CacheEvictX] tag SpEL eval error → skip tag, expr='{}'", expr, e);
+            }
+        }
+        for (String tag : tags) {
+            try {
+                long total = tagIndex.evict(ann.cacheName(), tag, props.getScanCount(), batch -> {
+                    List<String> copies = new ArrayList<>();
+                    for (String k : batch) {
+                        writeBehind.discard(k);
+                        near.invalidate(k);
+                        copies.addAll(replicas.replicaKeys(k));
+                    }
+                    // key ของ tag ข้าม cacheName ได้ → ลบ replica ของทุก key (count ใช้ร่วมกันทุก cache)
+                    if (!copies.isEmpty()) {
+                        copies.forEach(writeBehind::discard);
+                        srt.delete(copies);
+                    }
+                });
+                // key ของ tag ข้าม cacheName ได้ → ล้างสำเนา hot key ทั้งหมด (มีแค่ไม่กี่ตัว อ่านกลับจาก Redis ได้ทันที)
+                if (total > 0) hotKeys.invalidateAll();
+                metrics.increment(EVICT_TAG, ann.cacheName());
+                log.info("[CacheEvictX] EVICT-TAG tag={} deleted={}", tag, total);
+            } catch (Exception e) {
+                metrics.increment(CacheableXAspect.ERROR, ann.cacheName());
+                log.warn("[CacheEvictX] tag evict error (ignored) tag={}", tag, e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * สร้าง key ของ @CacheableX / @CacheableXBatch / @CacheEvictX จากที่เดียว
+ * - ปกติ: prefix:cacheName:key
+ * - cache ที่เปิด generation: prefix:cacheName:v{gen}:key โดย gen อยู่ใน Redis ที่ prefix:__gen:cacheName
+ *   evict-all = INCR gen → key ของ generation เก่าไม่ถูกอ่านอีก (ปล่อยหมดอายุ หรือให้ {@link GenerationSweeper} เก็บ)
+ * - key-layout (hash tag สำหรับ Cluster): CACHE_NAME → prefix:{cacheName}:[v{gen}:]key,
+ *   ROUTING → prefix:cacheName:[v{gen}:]{routing}:key (routing = ค่าของ SpEL ที่ผู้เรียก eval มาให้)
+ *   ระหว่างย้าย layout (migrate-from) {@link #legacyKey} ให้ key ตาม layout เดิมสำหรับ dual-read / evict
+ * gen ถูก cache ใน JVM ตาม local-ttl-ms: ครบอายุแล้วยังใช้ค่าเดิมต่อ + อ่านใหม่เบื้องหลัง (มีแค่ครั้งแรกที่ GET แบบรอ)
+ * Redis ล่ม → ใช้ gen ล่าสุดที่รู้ (หรือ 0) ต่อไป (fail-open)
+ * prefix ที่ไม่มี routing ถูก render ครั้งเดียวต่อ (cacheName, gen) → key บน hot path = concat ครั้งเดียว
+ */
+public class CacheKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheKeys.class);
+
+    static final String GENERATION_BUMP = "redisx.cache.generation.bump";
+    /** MISS ใน layout ใหม่แต่เจอใน layout เดิม (ช่วง migrate-from) */
+    static final String LEGACY_HIT = "redisx.cache.layout.legacy-hit";
+
+    private record Gen(long value, long fetchedAtNanos) {}
+
+    /** prefix ที่ render แล้วของ generation หนึ่ง (gen = -1 → cache ไม่ได้เปิด generation) */
+    private record Rendered(long gen, String prefix) {}
+
+    private final StringRedisTemplate srt;
+    private final CacheProps props;
+    private final CacheMetrics metrics;
+    private final Map<String, Gen> generations = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, Rendered> prefixes = new ConcurrentHashMap<>();
+
+    public CacheKeys(StringRedisTemplate srt, CacheProps props, CacheMetrics metrics) {
+        this.srt = srt;
+        this.props = props;
+        this.metrics = metrics;
+    }
+
+    /** key เต็มของ entry หนึ่งใน cache */
+    public String key(String cacheName, String key) {
+        return prefix(cacheName, null) + key;
+    }
+
+    /**
+     * key เต็มของ entry หนึ่งใน cache (routing = ค่าของ routing expression, null = ไม่ใช้)
+     * key = ค่าที่ได้จาก SpEL: Long/Integer ถูกต่อท้าย prefix ตรง ๆ ไม่ต้องแปลงเป็น String ก่อน
+     */
+    public String key(String cacheName, String routing, Object key) {
+        String prefix = prefix(cacheName, routing);
+        if (key instanceof Long l) return prefix + l.longValue();
+        if (key instanceof Integer i) return prefix + i.intValue();
+        return prefix + key;
+    }
+
+    /** prefix ของ entry ใน generation ปัจจุบัน (ลงท้ายด้วย ':') */
+    public String prefix(String cacheName) {
+        return prefix(cacheName, null);
+    }
+
+    public String prefix(String cacheName, String routing) {
+        CacheProps.HashTag tag = layout(cacheName).getHashTag();
+        if (tag == CacheProps.HashTag.ROUTING && routing != null) return render(cacheName, tag, routing);
+        long gen = isVersioned(cacheName) ? generation(cacheName) : -1L;
+        Rendered r = prefixes.get(cacheName);
+        if (r == null || r.gen != gen) {
+            r = new Rendered(gen, render(cacheName, tag, null, gen));
+            prefixes.put(cacheName, r);
+        }
+        return r.prefix;
+    }
+
+    /** prefix ของทุก entry ใน cache ไม่ว่า generation/routing ไหน: prefix:cacheName: หรือ prefix:{cacheName}: */
+    public String basePrefix(String cacheName) {
+        return basePrefix(cacheName, layout(cacheName).getHashTag());
+    }
+
+    /** SpEL ของ routing segment ที่ cache นี้ต้องการ (layout ปัจจุบันหรือ layout เดิม), null = ไม่ใช้ */
+    public String routingExpression(String cacheName) {
+        CacheProps.KeyLayoutSpec l = layout(cacheName);
+        boolean needed = l.getHashTag() == CacheProps.HashTag.ROUTING || l.getMigrateFrom() == CacheProps.HashTag.ROUTING;
+        return needed && l.getRouting() != null && !l.getRouting().isBlank() ? l.getRouting() : null;
+    }
+
+    /** อยู่ในช่วงย้าย layout ไหม (MISS แล้วต้องอ่าน layout เดิมอีกรอบ) */
+    public boolean isMigrating(String cacheName) {
+        CacheProps.KeyLayoutSpec l = layout(cacheName);
+        return l.getMigrateFrom() != null && l.getMigrateFrom() != l.getHashTag();
+    }
+
+    /** key เดียวกันใน layout เดิม (ช่วง migrate-from); null = ไม่ได้ย้าย หรือ layout เดิมให้ key เดียวกัน */
+    public String legacyKey(String cacheName, String routing, String key) {
+        CacheProps.KeyLayoutSpec l = layout(cacheName);
+        if (l.getMigrateFrom() == null || l.getMigrateFrom() == l.getHashTag()) return null;
+        String legacy = render(cacheName, l.getMigrateFrom(), routing) + key;
+        return legacy.equals(key(cacheName, routing, key)) ? null : legacy;
+    }
+
+    /** base prefix ของ layout เดิม (ช่วง migrate-from) ถ้าต่างจากปัจจุบัน; null = ไม่มี */
+    public String legacyBasePrefix(String cacheName) {
+        CacheProps.KeyLayoutSpec l = layout(cacheName);
+        if (l.getMigrateFrom() == null) return null;
+        String legacy = basePrefix(cacheName, l.getMigrateFrom());
+        return legacy.equals(basePrefix(cacheName)) ? null : legacy;
+    }
+
+    private CacheProps.KeyLayoutSpec layout(String cacheName) {
+        return props.getKeyLayout().resolve(cacheName);
+    }
+
+    private String basePrefix(String cacheName, CacheProps.HashTag tag) {
+        return tag == CacheProps.HashTag.CACHE_NAME
+                ? props.getPrefix() + ":{" + cacheName + "}:"
+                : props.getPrefix() + ":" + cacheName + ":";
+    }
+
+    private String render(String cacheName, CacheProps.HashTag tag, String routing) {
+        return render(cacheName, tag, routing, isVersioned(cacheName) ? generation(cacheName) : -1L);
+    }
+
+    private String render(String cacheName, CacheProps.HashTag tag, String routing, long generation) {
+        String base = basePrefix(cacheName, tag);
+        String gen = generation >= 0 ? "v" + generation + ":" : "";
+        String route = (tag == CacheProps.HashTag.ROUTING && routing != null) ? "{" + routing + "}:" : "";
+        return base + gen + route;
+    }
+
+    public boolean isVersioned(String cacheName) {
+        return props.getGeneration().resolve(cacheName).isEnabled();
+    }
+
+    /** generation ปัจจุบันของ cache (0 = ยังไม่เคย evict-all) */
+    public long generation(String cacheName) {
+        Gen g = generations.get(cacheName);
+        if (g == null) return fetch(cacheName, 0L);
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(props.getGeneration().getLocalTtlMs());
+        if (System.nanoTime() - g.fetchedAtNanos > ttlNanos && refreshing.add(cacheName)) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    fetch(cacheName, g.value);
+                } finally {
+                    refreshing.remove(cacheName);
+                }
+            });
+        }
+        return g.value;
+    }
+
+    /** evict-all ของ cache แบบ versioned: INCR ครั้งเดียว; คืน generation ใหม่ */
+    public long bumpGeneration(String cacheName) {
+        Long next = srt.opsForValue().increment(generationKey(cacheName));
+        long gen = next != null ? next : 0L;
+        generations.put(cacheName, new Gen(gen, System.nanoTime()));
+        metrics.increment(GENERATION_BUMP, cacheName);
+        return gen;
+    }
+
+    /** cache แบบ versioned ที่รู้จัก: ประกาศใน config + ที่ node นี้เคยอ่าน generation */
+    public Set<String> versionedCaches() {
+        Set<String> out = new TreeSet<>(generations.keySet());
+        props.getGeneration().getCaches().forEach((name, spec) -> {
+            if (spec.isEnabled()) out.add(name);
+        });
+        out.removeIf(name -> !isVersioned(name));
+        return out;
+    }
+
+    /** connection factory เป็น Redis Cluster ไหม (multi-key command / pipeline ต้องแยกตาม slot) */
+    static boolean clusterAware(RedisConnectionFactory cf) {
+        return cf instanceof LettuceConnectionFactory lcf && lcf.isClusterAware();
+    }
+
+    String generationKey(String cacheName) {
+        return props.getPrefix() + ":__gen:" + cacheName;
+    }
+
+    private long fetch(String cacheName, long fallback) {
+        long gen = fallback;
+        try {
+            String v = srt.opsForValue().get(generationKey(cacheName));
+            gen = v != null ? Long.parseLong(v) : 0L;
+        } catch (Exception e) {
+            log.warn("[CacheableX] generation read error → keep gen={} cacheName={}", fallback, cacheName, e);
+        }
+        long value = gen;
+        // ไม่ถอยกลับไป gen ที่เก่ากว่าที่ node นี้ INCR เองไปแล้ว
+        generations.merge(cacheName, new Gen(value, System.nanoTime()),
+                (old, neu) -> neu.value >= old.value ? neu : new Gen(old.value, neu.fetchedAtNanos));
+        return generations.get(cacheName).value;
+    }
+}
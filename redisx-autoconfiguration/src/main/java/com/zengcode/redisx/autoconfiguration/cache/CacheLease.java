@@ -0,0 +1,50 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * lease อายุสั้นใน Redis สำหรับ single-flight ข้าม node
+ * ทั้ง fleet จะมี node เดียวที่ได้ lease ของ key และเป็นคนโหลดจริง (SET NX PX)
+ * ปล่อย lease ด้วย compare-and-delete เพื่อไม่ลบ lease ของ node อื่นที่ได้ไปหลังจาก lease เราหมดอายุ
+ */
+public class CacheLease {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate srt;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong seq = new AtomicLong();
+
+    public CacheLease(StringRedisTemplate srt) {
+        this.srt = srt;
+    }
+
+    /** @return token ถ้าได้ lease, null ถ้า node อื่นถืออยู่ (Redis error → throw) */
+    public String tryAcquire(String key, long leaseMs) {
+        String token = nodeId + ":" + seq.incrementAndGet();
+        Boolean ok = srt.opsForValue().setIfAbsent(leaseKey(key), token, Duration.ofMillis(leaseMs));
+        return Boolean.TRUE.equals(ok) ? token : null;
+    }
+
+    /** ยังมี node ไหนถือ lease ของ key นี้อยู่ไหม */
+    public boolean isHeld(String key) {
+        return Boolean.TRUE.equals(srt.hasKey(leaseKey(key)));
+    }
+
+    public void release(String key, String token) {
+        srt.execute(RELEASE, List.of(leaseKey(key)), token);
+    }
+
+    static String leaseKey(String key) {
+        return key + ":__lease";
+    }
+}
@@ -0,0 +1,28 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * จุดเก็บ metric ของ aspect ฝั่ง cache (นับครั้ง + จับเวลา ราย cacheName)
+ * implementation default คือ {@link SimpleCacheMetrics} (in-memory)
+ * ถ้าต้องการส่งออกระบบอื่นให้ประกาศ bean ของตัวเองแทน
+ */
+public interface CacheMetrics {
+
+    /** เพิ่มตัวนับ 1 ครั้ง */
+    void increment(String name, String cacheName);
+
+    /** บันทึกระยะเวลา (nanoseconds) */
+    void recordNanos(String name, String cacheName, long nanos);
+
+    /** บันทึกค่าแบบ distribution เช่นขนาด byte (default: ไม่เก็บ) */
+    default void recordValue(String name, String cacheName, long value) {
+    }
+
+    /**
+     * ลงทะเบียน gauge: ค่าถูกอ่านจาก supplier ตอนดู/scrape (เช่น state, ขนาด queue) (default: ไม่เก็บ)
+     * เรียกครั้งเดียวต่อ (name, cacheName); เรียกซ้ำ = ใช้ตัวเดิม
+     */
+    default void gauge(String name, String cacheName, Supplier<Number> value) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * แปลงผลลัพธ์ ↔ byte[] ที่เก็บใน Redis (codec ต่อ cacheName + บีบอัด + envelope + TTL jitter/SWR)
+ * ใช้ร่วมกันระหว่าง @CacheableX และ @CacheableXBatch เพื่อให้ค่าที่เขียนจากทางไหนก็อ่านข้ามกันได้
+ */
+final class CachePayloads {
+
+    static final String COMPRESS_RAW_BYTES = "redisx.cache.compression.raw-bytes";
+    static final String COMPRESS_STORED_BYTES = "redisx.cache.compression.stored-bytes";
+    static final String COMPRESS_TIME = "redisx.cache.compression.compress-time";
+    static final String DECOMPRESS_TIME = "redisx.cache.compression.decompress-time";
+    static final String COMPRESS_SKIPPED = "redisx.cache.compression.skipped";
+
+    /** ค่าที่พร้อม SET + TTL (วินาที) ที่ใช้จริง */
+    record Encoded(byte[] payload, long ttlSeconds) {}
+
+    private final CacheProps props;
+    private final CodecRegistry codecs;
+    private final CacheMetrics metrics;
+
+    CachePayloads(CacheProps props, CodecRegistry codecs, CacheMetrics metrics) {
+        this.props = props;
+        this.codecs = codecs;
+        this.metrics = metrics;
+    }
+
+    /**
+     * result == null → null marker (หรือ null ถ้าไม่ได้เปิด cache-null = ไม่ต้องเขียน)
+     * TTL ถูก jitter ตาม expiry.jitter-ratio และห่อ envelope (soft-TTL/delta) เมื่อเปิด SWR หรือ XFetch
+     */
+    Encoded encode(String cacheName, Object result, long ttl, long deltaMs) throws IOException {
+        if (result == null) {
+            return props.isCacheNull() ? new Encoded(CacheEnvelope.encodeNull(), props.getNullTtlSeconds()) : null;
+        }
+        CacheProps.ExpirySpec expiry = props.getExpiry().resolve(cacheName);
+        CacheProps.SwrSpec swr = props.getSwr().resolve(cacheName);
+        RedisXCodec codec = codecs.forCache(cacheName);
+        long baseTtl = CacheTtl.jitter(ttl, expiry.getJitterRatio());
+        long softAt = 0L, expireAt = 0L;
+        long useTtl = baseTtl;
+        if (swr.isEnabled() || expiry.getXfetchBeta() > 0) {
+            long now = System.currentTimeMillis();
+            long ttlMs = TimeUnit.SECONDS.toMillis(baseTtl);
+            softAt = swr.isEnabled() ? now + (long) (ttlMs * swr.getSoftTtlRatio()) : 0L;
+            expireAt = now + ttlMs;
+            if (swr.isEnabled()) useTtl = baseTtl + Math.max(0, swr.getStaleSeconds());
+        } else {
+            deltaMs = 0L; // ไม่มีใครใช้ → ไม่ต้องเขียน meta
+        }
+        byte[] body = codec.encode(result);
+        byte[] packed = compressIfLarge(cacheName, body);
+        return new Encoded(CacheEnvelope.encode(codec.id(), packed != body, packed, softAt, deltaMs, expireAt), useTtl);
+    }
+
+    /** แปลง payload ด้วย codec ตาม header (ไม่รองรับ null marker: caller เช็ค env.isNull ก่อน) */
+    Object decode(CacheEnvelope env, String cacheName, JavaType type) throws IOException {
+        RedisXCodec codec = codec(env);
+        if (!env.compressed) return codec.decode(env.bytes, env.offset, env.length, type);
+        long t0 = System.nanoTime();
+        byte[] plain = CacheCompressor.decompress(env.bytes, env.offset, env.length);
+        metrics.recordNanos(DECOMPRESS_TIME, cacheName, System.nanoTime() - t0);
+        return codec.decode(plain, 0, plain.length, type);
+    }
+
+    RedisXCodec codec(CacheEnvelope env) throws IOException {
+        RedisXCodec codec = codecs.byId(env.codecId);
+        if (codec == null) throw new IOException("no codec registered for id " + env.codecId);
+        return codec;
+    }
+
+    /** บีบอัดเมื่อเปิดไว้และใหญ่ถึง threshold; คืน body เดิมถ้าไม่บีบ/บีบแล้วไม่เล็กลง */
+    private byte[] compressIfLarge(String cacheName, byte[] body) {
+        CacheProps.CompressionSpec spec = props.getCompression().resolve(cacheName);
+        if (!spec.isEnabled() || body.length < spec.getThresholdBytes()) return body;
+        long t0 = System.nanoTime();
+        byte[] packed = CacheCompressor.compress(body, spec.getLevel());
+        metrics.recordNanos(COMPRESS_TIME, cacheName, System.nanoTime() - t0);
+        if (packed == null) {
+            metrics.increment(COMPRESS_SKIPPED, cacheName);
+            return body;
+        }
+        metrics.recordValue(COMPRESS_RAW_BYTES, cacheName, body.length);
+        metrics.recordValue(COMPRESS_STORED_BYTES, cacheName, packed.length);
+        return packed;
+    }
+}
@@ -2,6 +2,11 @@ package com.zengcode.redisx.autoconfiguration.cache;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "redisx.cache")
 public class CacheProps {
 
@@ -23,6 +28,57 @@ public class CacheProps {
     /** จำนวน entry ต่อรอบของ SCAN (ใช้ตอน evict-all) */
     private int scanCount = 1000;
 
+    /** read budget (ms) ของ GET ใน @CacheableX ที่ไม่ได้กำหนด readTimeoutMs: เกิน → MISS แล้วเรียกเมธอดจริง, 0 = ไม่จำกัด */
+    private long readTimeoutMs = 0;
+
+    /** L1 near-cache (in-process) ที่อยู่หน้า Redis สำหรับ @CacheableX */
+    private Near near = new Near();
+
+    /** รวม cache-miss ของ key เดียวกัน (ต่อ JVM และข้าม node) */
+    private SingleFlightProps singleFlight = new SingleFlightProps();
+
+    /** stale-while-revalidate: soft-TTL/hard-TTL + refresh เบื้องหลัง */
+    private Swr swr = new Swr();
+
+    /** TTL jitter + XFetch (recompute ก่อนหมดอายุแบบสุ่ม) */
+    private Expiry expiry = new Expiry();
+
+    /** codec (format ของ byte[] ใน Redis) ของ @CacheableX */
+    private Codec codec = new Codec();
+
+    /** บีบอัดค่าที่ใหญ่เกิน threshold */
+    private Compression compression = new Compression();
+
+    /** เขียนค่าลง Redis แบบ write-behind (queue + background writer) แทน SETEX บน request path */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /** generation ต่อ cacheName ใน key → evict-all = INCR ครั้งเดียว (แทน SCAN ทั้ง keyspace) */
+    private Generation generation = new Generation();
+
+    /** @CacheEvictX(allEntries) แบบ SCAN + UNLINK (cache ที่ไม่ได้เปิด generation) */
+    private EvictAll evictAll = new EvictAll();
+
+    /** รูปแบบ key ต่อ cacheName: ใส่ hash tag {...} ให้ entry ที่เกี่ยวข้องกันอยู่ slot เดียวกันบน Redis Cluster */
+    private KeyLayout keyLayout = new KeyLayout();
+
+    /** @MapCache* (Redis HASH ต่อ cacheName) */
+    private MapCache map = new MapCache();
+
+    /** circuit breaker รอบคำสั่ง Redis ของ cache: error/ช้าเกินเกณฑ์ → ข้าม Redis ไปเลยชั่วคราว */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /** การส่ง metric ออก Micrometer (ใช้เมื่อมี MeterRegistry ใน context) */
+    private Metrics metrics = new Metrics();
+
+    /** ตรวจจับ hot key ของ @CacheableX แล้วเก็บสำเนาอายุสั้นใน process (ลดโหลดของ shard ที่ key นั้นอยู่) */
+    private HotKeys hotKeys = new HotKeys();
+
+    /** เขียนค่าของ hot key ซ้ำเป็นหลาย replica คนละ slot → การอ่านกระจายไปหลาย master ของ Cluster */
+    private Replicas replicas = new Replicas();
+
+    /** บันทึก key ที่ถูกอ่านบ่อย (สุ่มตัวอย่าง) แล้วโหลดเข้า L1 ตอน start ก่อนรับ traffic */
+    private WarmUp warmUp = new WarmUp();
+
     public String getPrefix() {
         return prefix;
     }
@@ -70,4 +126,1349 @@ public class CacheProps {
     public void setScanCount(int scanCount) {
         this.scanCount = scanCount;
     }
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(long readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public Near getNear() {
+        return near;
+    }
+
+    public void setNear(Near near) {
+        this.near = near;
+    }
+
+    public SingleFlightProps getSingleFlight() {
+        return singleFlight;
+    }
+
+    public void setSingleFlight(SingleFlightProps singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public Swr getSwr() {
+        return swr;
+    }
+
+    public void setSwr(Swr swr) {
+        this.swr = swr;
+    }
+
+    public Expiry getExpiry() {
+        return expiry;
+    }
+
+    public void setExpiry(Expiry expiry) {
+        this.expiry = expiry;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(Codec codec) {
+        this.codec = codec;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public void setWriteBehind(WriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public Generation getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Generation generation) {
+        this.generation = generation;
+    }
+
+    public EvictAll getEvictAll() {
+        return evictAll;
+    }
+
+    public void setEvictAll(EvictAll evictAll) {
+        this.evictAll = evictAll;
+    }
+
+    public KeyLayout getKeyLayout() {
+        return keyLayout;
+    }
+
+    public void setKeyLayout(KeyLayout keyLayout) {
+        this.keyLayout = keyLayout;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public void setHotKeys(HotKeys hotKeys) {
+        this.hotKeys = hotKeys;
+    }
+
+    public Replicas getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Replicas replicas) {
+        this.replicas = replicas;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public MapCache getMap() {
+        return map;
+    }
+
+    public void setMap(MapCache map) {
+        this.map = map;
+    }
+
+    /** โหมดของ Redis client-side caching (CLIENT TRACKING) ที่ใช้ invalidate L1 */
+    public enum TrackingMode {
+        /** BCAST + PREFIX: รับ invalidation ของทุก key ที่ขึ้นต้นด้วย prefix */
+        BCAST,
+        /** OPTIN: server track เฉพาะ key ที่อ่านผ่าน connection ของ tracker */
+        OPTIN
+    }
+
+    /** ค่าตั้งของ L1 ต่อ cacheName */
+    public static class NearSpec {
+
+        /** เปิดใช้ L1 สำหรับ cache นี้ */
+        private boolean enabled = true;
+
+        /** จำนวน entry สูงสุดใน L1 */
+        private int maxEntries = 10_000;
+
+        /** น้ำหนักรวมสูงสุดของ payload (byte โดยประมาณ), 0 = ไม่จำกัด */
+        private long maxWeightBytes = 64L * 1024 * 1024;
+
+        /** TTL ฝั่ง local (วินาที), 0 = ใช้ TTL เดียวกับ Redis */
+        private long ttlSeconds = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxWeightBytes() {
+            return maxWeightBytes;
+        }
+
+        public void setMaxWeightBytes(long maxWeightBytes) {
+            this.maxWeightBytes = maxWeightBytes;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+
+    /**
+     * ค่าตั้ง L1 ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * เช่น redisx.cache.near.caches.[demo:user].max-entries=500 (ไฟล์ .properties ต้อง escape เป็น [demo\:user])
+     * หมายเหตุ: L1 คืน object ตัวเดียวกันให้ทุก caller → ค่าที่ cache ควรเป็น immutable
+     */
+    public static class Near extends NearSpec {
+
+        /** โหมด CLIENT TRACKING ที่ใช้ invalidate L1 */
+        private TrackingMode trackingMode = TrackingMode.BCAST;
+
+        /** override ราย cacheName (มี entry = เปิด L1 ให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, NearSpec> caches = new LinkedHashMap<>();
+
+        public Near() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public NearSpec resolve(String cacheName) {
+            NearSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        /** มี cache ไหนเปิด L1 อยู่บ้างไหม (ใช้ตัดสินใจเปิด tracking connection) */
+        public boolean isAnyEnabled() {
+            return isEnabled() || caches.values().stream().anyMatch(NearSpec::isEnabled);
+        }
+
+        public TrackingMode getTrackingMode() {
+            return trackingMode;
+        }
+
+        public void setTrackingMode(TrackingMode trackingMode) {
+            this.trackingMode = trackingMode;
+        }
+
+        public Map<String, NearSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, NearSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ค่าตั้ง single-flight (กัน cache stampede) */
+    public static class SingleFlightProps {
+
+        /** รวมการโหลดของ key เดียวกันใน JVM เดียว */
+        private boolean enabled = true;
+
+        /** follower รอ leader นานสุด (ms), 0 = รอจนเสร็จ */
+        private long waitTimeoutMs = 0;
+
+        /** ใช้ lease ใน Redis เพื่อให้ทั้ง fleet มี node เดียวที่โหลดจริง */
+        private boolean distributed = false;
+
+        /** อายุ lease (ms) ควรมากกว่าเวลาโหลดปกติ */
+        private long leaseMs = 10_000;
+
+        /** node ที่ไม่ได้ lease จะ poll Redis ทุก ๆ กี่ ms */
+        private long pollIntervalMs = 50;
+
+        /** node ที่ไม่ได้ lease รอได้นานสุด (ms) ก่อนโหลดเอง */
+        private long maxWaitMs = 3_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWaitTimeoutMs() {
+            return waitTimeoutMs;
+        }
+
+        public void setWaitTimeoutMs(long waitTimeoutMs) {
+            this.waitTimeoutMs = waitTimeoutMs;
+        }
+
+        public boolean isDistributed() {
+            return distributed;
+        }
+
+        public void setDistributed(boolean distributed) {
+            this.distributed = distributed;
+        }
+
+        public long getLeaseMs() {
+            return leaseMs;
+        }
+
+        public void setLeaseMs(long leaseMs) {
+            this.leaseMs = leaseMs;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+
+    /**
+     * ค่าตั้ง stale-while-revalidate ต่อ cacheName
+     * soft-TTL = ttlSeconds * softTtlRatio (หลังจากนี้ค่าถือว่า stale → คืนค่าเดิมทันที + refresh เบื้องหลัง)
+     * hard-TTL = ttlSeconds + staleSeconds (TTL จริงใน Redis)
+     */
+    public static class SwrSpec {
+
+        /** เปิดใช้ SWR สำหรับ cache นี้ */
+        private boolean enabled = true;
+
+        /** สัดส่วนของ ttlSeconds ที่ค่ายังสด (0 < ratio <= 1), &lt; 1 = refresh-ahead ก่อนหมดอายุ */
+        private double softTtlRatio = 1.0;
+
+        /** เวลา (วินาที) ที่ยอมเสิร์ฟค่า stale ต่อหลัง ttlSeconds */
+        private long staleSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSoftTtlRatio() {
+            return softTtlRatio;
+        }
+
+        public void setSoftTtlRatio(double softTtlRatio) {
+            this.softTtlRatio = softTtlRatio;
+        }
+
+        public long getStaleSeconds() {
+            return staleSeconds;
+        }
+
+        public void setStaleSeconds(long staleSeconds) {
+            this.staleSeconds = staleSeconds;
+        }
+    }
+
+    /**
+     * ค่าตั้ง SWR ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * เช่น redisx.cache.swr.caches.[demo:user].stale-seconds=120
+     */
+    public static class Swr extends SwrSpec {
+
+        /** จำนวน refresh เบื้องหลังพร้อมกันสูงสุด (ทั้ง JVM) */
+        private int maxConcurrentRefreshes = 32;
+
+        /** override ราย cacheName (มี entry = เปิด SWR ให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, SwrSpec> caches = new LinkedHashMap<>();
+
+        public Swr() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public SwrSpec resolve(String cacheName) {
+            SwrSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public int getMaxConcurrentRefreshes() {
+            return maxConcurrentRefreshes;
+        }
+
+        public void setMaxConcurrentRefreshes(int maxConcurrentRefreshes) {
+            this.maxConcurrentRefreshes = maxConcurrentRefreshes;
+        }
+
+        public Map<String, SwrSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, SwrSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ค่าตั้งการกระจายเวลาหมดอายุต่อ cacheName (ค่า 0 = ปิด) */
+    public static class ExpirySpec {
+
+        /** สุ่มลด TTL ไม่เกินสัดส่วนนี้ (0..1) เช่น 0.1 = TTL จริงอยู่ใน [90%, 100%] */
+        private double jitterRatio = 0;
+
+        /** XFetch beta: &gt; 0 = refresh เบื้องหลังก่อนหมดอายุแบบสุ่ม (1.0 = ค่ามาตรฐาน, มากขึ้น = เร็วขึ้น) */
+        private double xfetchBeta = 0;
+
+        public double getJitterRatio() {
+            return jitterRatio;
+        }
+
+        public void setJitterRatio(double jitterRatio) {
+            this.jitterRatio = jitterRatio;
+        }
+
+        public double getXfetchBeta() {
+            return xfetchBeta;
+        }
+
+        public void setXfetchBeta(double xfetchBeta) {
+            this.xfetchBeta = xfetchBeta;
+        }
+    }
+
+    /**
+     * ค่าตั้ง expiry ระดับ global + override ราย cacheName
+     * เช่น redisx.cache.expiry.caches.[demo:user].xfetch-beta=1.0
+     */
+    public static class Expiry extends ExpirySpec {
+
+        /** override ราย cacheName */
+        private Map<String, ExpirySpec> caches = new LinkedHashMap<>();
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public ExpirySpec resolve(String cacheName) {
+            ExpirySpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public Map<String, ExpirySpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, ExpirySpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /**
+     * เลือก codec ตามชื่อ: json (default), smile, cbor, compact หรือชื่อของ RedisXCodec bean ที่ประกาศเอง
+     * เช่น redisx.cache.codec.caches.[demo:user]=smile
+     */
+    public static class Codec {
+
+        /** codec ที่ใช้เขียนเมื่อ cacheName ไม่ได้ระบุ */
+        private String defaultCodec = "json";
+
+        /** cacheName → ชื่อ codec */
+        private Map<String, String> caches = new LinkedHashMap<>();
+
+        public String getDefaultCodec() {
+            return defaultCodec;
+        }
+
+        public void setDefaultCodec(String defaultCodec) {
+            this.defaultCodec = defaultCodec;
+        }
+
+        public Map<String, String> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, String> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ค่าตั้งการบีบอัดต่อ cacheName */
+    public static class CompressionSpec {
+
+        /** เปิดบีบอัดสำหรับ cache นี้ */
+        private boolean enabled = true;
+
+        /** บีบเมื่อ payload (หลัง codec) มีขนาดตั้งแต่กี่ byte */
+        private int thresholdBytes = 16 * 1024;
+
+        /** ระดับของ Deflater 1 (เร็วสุด) ถึง 9 (เล็กสุด) */
+        private int level = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThresholdBytes() {
+            return thresholdBytes;
+        }
+
+        public void setThresholdBytes(int thresholdBytes) {
+            this.thresholdBytes = thresholdBytes;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public void setLevel(int level) {
+            this.level = level;
+        }
+    }
+
+    /**
+     * ค่าตั้งการบีบอัดระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * เช่น redisx.cache.compression.caches.[demo:report].threshold-bytes=8192
+     */
+    public static class Compression extends CompressionSpec {
+
+        /** override ราย cacheName (มี entry = เปิดบีบอัดให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, CompressionSpec> caches = new LinkedHashMap<>();
+
+        public Compression() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public CompressionSpec resolve(String cacheName) {
+            CompressionSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public Map<String, CompressionSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, CompressionSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** เมื่อ queue ของ write-behind เต็ม */
+    public enum OverflowPolicy {
+        /** ทิ้งการเขียนนั้น (ค่าจะถูกโหลดใหม่ใน MISS รอบหน้า) */
+        DROP,
+        /** รอที่ว่างนานสุด block-timeout-ms แล้วค่อยทิ้ง */
+        BLOCK
+    }
+
+    /** เปิด write-behind ต่อ cacheName */
+    public static class WriteBehindSpec {
+
+        /** เขียนค่าของ cache นี้ผ่าน queue */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * ค่าตั้ง write-behind ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + เปิดราย cacheName
+     * เช่น redisx.cache.write-behind.caches.[demo:user].enabled=true
+     * ขนาด queue / batch / รอบ flush ใช้ร่วมกันทุก cache (มี writer thread เดียว)
+     */
+    public static class WriteBehind extends WriteBehindSpec {
+
+        /** จำนวนการเขียนที่รอได้ใน queue */
+        private int queueCapacity = 10_000;
+
+        /** จำนวน SET สูงสุดต่อ pipeline */
+        private int batchSize = 256;
+
+        /** รอรวม batch นานสุด (ms) นับจากรายการแรก */
+        private long flushIntervalMs = 20;
+
+        /** queue เต็มแล้วทำอย่างไร */
+        private OverflowPolicy overflow = OverflowPolicy.DROP;
+
+        /** BLOCK: รอที่ว่างใน queue นานสุด (ms) */
+        private long blockTimeoutMs = 50;
+
+        /** override ราย cacheName (มี entry = เปิด write-behind ให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, WriteBehindSpec> caches = new LinkedHashMap<>();
+
+        public WriteBehind() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public WriteBehindSpec resolve(String cacheName) {
+            WriteBehindSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        /** มี cache ไหนเปิด write-behind อยู่บ้างไหม (ใช้ตัดสินใจเปิด writer thread) */
+        public boolean isAnyEnabled() {
+            return isEnabled() || caches.values().stream().anyMatch(WriteBehindSpec::isEnabled);
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public OverflowPolicy getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(OverflowPolicy overflow) {
+            this.overflow = overflow;
+        }
+
+        public long getBlockTimeoutMs() {
+            return blockTimeoutMs;
+        }
+
+        public void setBlockTimeoutMs(long blockTimeoutMs) {
+            this.blockTimeoutMs = blockTimeoutMs;
+        }
+
+        public Map<String, WriteBehindSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, WriteBehindSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** เปิด generation namespace ต่อ cacheName */
+    public static class GenerationSpec {
+
+        /** key ของ cache นี้มี generation ฝังอยู่ (prefix:cacheName:v{gen}:key) */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * ค่าตั้ง generation namespace ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + เปิดราย cacheName
+     * เช่น redisx.cache.generation.caches.[demo:user].enabled=true
+     * เปิด/ปิดให้ cache ที่มีข้อมูลอยู่แล้ว = key เปลี่ยนรูป → ค่าเดิมกลายเป็น orphan (หมดอายุตาม TTL)
+     */
+    public static class Generation extends GenerationSpec {
+
+        /** อายุของ generation ที่ cache ไว้ใน JVM (ms): node อื่นเห็น evict-all ช้าสุดเท่านี้ */
+        private long localTtlMs = 1_000;
+
+        /** เก็บกวาด key ของ generation เก่าเบื้องหลัง */
+        private Sweeper sweeper = new Sweeper();
+
+        /** override ราย cacheName (มี entry = เปิดให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, GenerationSpec> caches = new LinkedHashMap<>();
+
+        public Generation() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public GenerationSpec resolve(String cacheName) {
+            GenerationSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public long getLocalTtlMs() {
+            return localTtlMs;
+        }
+
+        public void setLocalTtlMs(long localTtlMs) {
+            this.localTtlMs = localTtlMs;
+        }
+
+        public Sweeper getSweeper() {
+            return sweeper;
+        }
+
+        public void setSweeper(Sweeper sweeper) {
+            this.sweeper = sweeper;
+        }
+
+        public Map<String, GenerationSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, GenerationSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** sweeper: SCAN หา key ของ generation เก่าแล้ว UNLINK แบบจำกัดอัตรา (ไม่เปิด = รอหมดอายุตาม TTL) */
+    public static class Sweeper {
+
+        private boolean enabled = false;
+
+        /** เริ่มรอบใหม่ทุก ๆ กี่วินาที (หลังรอบก่อนจบ) */
+        private long intervalSeconds = 300;
+
+        /** COUNT ของ SCAN ต่อรอบ */
+        private int scanCount = 1000;
+
+        /** ลบได้ไม่เกินกี่ key ต่อวินาที */
+        private int maxDeletesPerSecond = 2_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalSeconds() {
+            return intervalSeconds;
+        }
+
+        public void setIntervalSeconds(long intervalSeconds) {
+            this.intervalSeconds = intervalSeconds;
+        }
+
+        public int getScanCount() {
+            return scanCount;
+        }
+
+        public void setScanCount(int scanCount) {
+            this.scanCount = scanCount;
+        }
+
+        public int getMaxDeletesPerSecond() {
+            return maxDeletesPerSecond;
+        }
+
+        public void setMaxDeletesPerSecond(int maxDeletesPerSecond) {
+            this.maxDeletesPerSecond = maxDeletesPerSecond;
+        }
+    }
+
+    /** evict-all ต่อ cacheName */
+    public static class EvictAllSpec {
+
+        /** true = เมธอดคืนทันที แล้ว SCAN/UNLINK บน virtual thread (ดูความคืบหน้าที่ CacheBulkEvictor#running) */
+        private boolean async = false;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+    }
+
+    /**
+     * ค่าตั้ง evict-all ระดับ global + override ราย cacheName
+     * เช่น redisx.cache.evict-all.caches.[demo:user].async=true
+     * ขนาด batch ของ UNLINK = scan-count
+     */
+    public static class EvictAll extends EvictAllSpec {
+
+        /** log ความคืบหน้าของ job ที่ยังไม่จบทุก ๆ กี่ ms (0 = ไม่ log) */
+        private long progressIntervalMs = 5_000;
+
+        /** override ราย cacheName */
+        private Map<String, EvictAllSpec> caches = new LinkedHashMap<>();
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public EvictAllSpec resolve(String cacheName) {
+            EvictAllSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public long getProgressIntervalMs() {
+            return progressIntervalMs;
+        }
+
+        public void setProgressIntervalMs(long progressIntervalMs) {
+            this.progressIntervalMs = progressIntervalMs;
+        }
+
+        public Map<String, EvictAllSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, EvictAllSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ส่วนของ key ที่ถูกห่อด้วย {} (Redis Cluster คำนวณ slot จากส่วนนี้เท่านั้น) */
+    public enum HashTag {
+        /** prefix:cacheName:key (ไม่มี hash tag, key กระจายทุก slot) */
+        NONE,
+        /** prefix:{cacheName}:key → ทั้ง cache อยู่ slot เดียว (ระวัง hot slot กับ cache ใหญ่) */
+        CACHE_NAME,
+        /** prefix:cacheName:{routing}:key → entry ที่ routing เท่ากันอยู่ slot เดียว (routing = SpEL จาก args) */
+        ROUTING
+    }
+
+    /** layout ของ key ต่อ cacheName */
+    public static class KeyLayoutSpec {
+
+        private HashTag hashTag = HashTag.NONE;
+
+        /** SpEL ของ routing segment (ใช้เมื่อ hashTag หรือ migrateFrom = ROUTING) เช่น "#tenantId" */
+        private String routing = "";
+
+        /**
+         * layout เดิมระหว่างย้าย (null = ไม่ได้ย้าย): MISS ใน layout ใหม่ → อ่าน key ตาม layout เดิมอีกครั้ง,
+         * evict ลบทั้งสอง layout; เขียนลง layout ใหม่เท่านั้น → เปิดไว้อย่างน้อยเท่า TTL ที่ยาวที่สุดแล้วค่อยเอาออก
+         */
+        private HashTag migrateFrom;
+
+        public HashTag getHashTag() {
+            return hashTag;
+        }
+
+        public void setHashTag(HashTag hashTag) {
+            this.hashTag = hashTag;
+        }
+
+        public String getRouting() {
+            return routing;
+        }
+
+        public void setRouting(String routing) {
+            this.routing = routing;
+        }
+
+        public HashTag getMigrateFrom() {
+            return migrateFrom;
+        }
+
+        public void setMigrateFrom(HashTag migrateFrom) {
+            this.migrateFrom = migrateFrom;
+        }
+    }
+
+    /**
+     * layout ระดับ global + override ราย cacheName
+     * เช่น redisx.cache.key-layout.caches.[demo:user].hash-tag=CACHE_NAME
+     * ใช้กับ @CacheableX / @CacheableXBatch / @CacheEvictX (ผ่าน CacheKeys)
+     */
+    public static class KeyLayout extends KeyLayoutSpec {
+
+        /** override ราย cacheName */
+        private Map<String, KeyLayoutSpec> caches = new LinkedHashMap<>();
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public KeyLayoutSpec resolve(String cacheName) {
+            KeyLayoutSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        public Map<String, KeyLayoutSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, KeyLayoutSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** วิธีทำ TTL ราย field ของ @MapCache* */
+    public enum FieldTtlMode {
+        /** ดู redis_version ครั้งแรกที่ใช้: 7.4+ → NATIVE, ต่ำกว่า → COMPANION */
+        AUTO,
+        /** HPEXPIRE (Redis 7.4+): server ลบ field ที่หมดอายุเอง */
+        NATIVE,
+        /** เก็บเวลาหมดอายุเป็น field เงาใน hash เดียวกัน → อ่านเจอว่าหมดอายุแล้วค่อยลบ (lazy) */
+        COMPANION
+    }
+
+    /** ค่าตั้งของ @MapCachePut / @MapCacheGet / @MapCacheEvict */
+    public static class MapCache {
+
+        private FieldTtlMode fieldTtl = FieldTtlMode.AUTO;
+
+        public FieldTtlMode getFieldTtl() {
+            return fieldTtl;
+        }
+
+        public void setFieldTtl(FieldTtlMode fieldTtl) {
+            this.fieldTtl = fieldTtl;
+        }
+    }
+
+    /** circuit breaker ต่อ connection factory (นับจาก N คำสั่งล่าสุด) */
+    public static class CircuitBreaker {
+
+        /** เปิดใช้ breaker */
+        private boolean enabled = true;
+
+        /** จำนวนคำสั่งล่าสุดที่ใช้คิดอัตรา error/ช้า */
+        private int windowSize = 100;
+
+        /** ต้องมีคำสั่งใน window อย่างน้อยเท่านี้ก่อนจะตัดสินว่า OPEN */
+        private int minimumCalls = 20;
+
+        /** % ของคำสั่งที่ error ใน window ที่ทำให้ OPEN */
+        private int failureRateThreshold = 50;
+
+        /** คำสั่งที่ใช้เวลาเกินนี้ (ms) นับเป็นคำสั่งช้า */
+        private long slowCallMs = 500;
+
+        /** % ของคำสั่งช้าใน window ที่ทำให้ OPEN */
+        private int slowCallRateThreshold = 80;
+
+        /** อยู่ใน OPEN (ข้าม Redis) นานเท่านี้ (ms) ก่อนลอง HALF_OPEN */
+        private long openMs = 5_000;
+
+        /** จำนวนคำสั่งทดลองใน HALF_OPEN: ผ่านครบ → CLOSED, พลาดหรือช้าแม้ครั้งเดียว → OPEN */
+        private int halfOpenCalls = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getOpenMs() {
+            return openMs;
+        }
+
+        public void setOpenMs(long openMs) {
+            this.openMs = openMs;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    /** metric ของ cache ผ่าน Micrometer (tag cache=cacheName) */
+    public static class Metrics {
+
+        /** ส่ง percentile histogram ของ timer/ขนาดค่า (ใช้คำนวณ p99 ข้าม instance ฝั่ง Prometheus ได้) */
+        private boolean histogram = true;
+
+        public boolean isHistogram() {
+            return histogram;
+        }
+
+        public void setHistogram(boolean histogram) {
+            this.histogram = histogram;
+        }
+    }
+
+    /** ค่าตั้ง hot key ต่อ cacheName */
+    public static class HotKeySpec {
+
+        /** เปิดตรวจจับ hot key ของ cache นี้ */
+        private boolean enabled = true;
+
+        /** อัตรา (ครั้ง/วินาที ต่อ JVM) ที่ถือว่า key ร้อน → promote เป็นสำเนาใน process */
+        private double ratePerSecond = 500;
+
+        /** อายุของสำเนาใน process (ms): ค่าใน Redis ที่เปลี่ยนจาก node อื่นจะเห็นช้าได้ไม่เกินนี้ */
+        private long localTtlMs = 1_000;
+
+        /** จำนวน key ที่ติดตามต่อ cacheName (top-K ของแต่ละ window) */
+        private int topK = 32;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public long getLocalTtlMs() {
+            return localTtlMs;
+        }
+
+        public void setLocalTtlMs(long localTtlMs) {
+            this.localTtlMs = localTtlMs;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+    }
+
+    /**
+     * ค่าตั้ง hot key ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * นับด้วย count-min sketch ต่อ cacheName ทีละ window; sketch ใช้หน่วยความจำคงที่ width × depth ไม่ขึ้นกับจำนวน key
+     * เช่น redisx.cache.hot-keys.caches.[demo:user].rate-per-second=200
+     */
+    public static class HotKeys extends HotKeySpec {
+
+        /** ความยาวของ window ที่ใช้คิดอัตรา (ms) */
+        private long windowMs = 1_000;
+
+        /** จำนวนช่องต่อแถวของ sketch (มากขึ้น = ประเมินเกินน้อยลง) */
+        private int sketchWidth = 2048;
+
+        /** จำนวนแถว (hash function) ของ sketch */
+        private int sketchDepth = 4;
+
+        /** override ราย cacheName (มี entry = เปิดให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, HotKeySpec> caches = new LinkedHashMap<>();
+
+        public HotKeys() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public HotKeySpec resolve(String cacheName) {
+            HotKeySpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        /** มี cache ไหนเปิดอยู่บ้างไหม */
+        public boolean isAnyEnabled() {
+            return isEnabled() || caches.values().stream().anyMatch(HotKeySpec::isEnabled);
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        public int getSketchDepth() {
+            return sketchDepth;
+        }
+
+        public void setSketchDepth(int sketchDepth) {
+            this.sketchDepth = sketchDepth;
+        }
+
+        public Map<String, HotKeySpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, HotKeySpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ค่าตั้ง replica ของ hot key ต่อ cacheName */
+    public static class ReplicaSpec {
+
+        /** เปิด replica ของ cache นี้ */
+        private boolean enabled = true;
+
+        /** key ที่กำหนดเองให้กระจายเสมอ (ค่าที่ได้จาก SpEL ของ key เช่น "42") */
+        private List<String> keys = new ArrayList<>();
+
+        /** กระจาย key ที่ตัวตรวจจับ hot key (redisx.cache.hot-keys) promote ไว้ด้วย */
+        private boolean auto = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(List<String> keys) {
+            this.keys = keys;
+        }
+
+        public boolean isAuto() {
+            return auto;
+        }
+
+        public void setAuto(boolean auto) {
+            this.auto = auto;
+        }
+    }
+
+    /**
+     * ค่าตั้ง replica ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * replica ที่ i อยู่ใต้ hash tag ที่ slot ตกในช่วงที่ i ของ 16384 slot (แบ่งเท่า ๆ กัน) → คนละ master เมื่อ slot ถูกแบ่งเท่ากัน
+     * เช่น redisx.cache.replicas.caches.[demo:config].keys=global,flags
+     */
+    public static class Replicas extends ReplicaSpec {
+
+        /** จำนวน replica ต่อ key (ไม่นับ key หลัก) — ใช้ร่วมกันทุก cacheName เพื่อให้ลบตาม tag ได้โดยไม่ต้องรู้ cacheName */
+        private int count = 3;
+
+        /** override ราย cacheName (มี entry = เปิดให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, ReplicaSpec> caches = new LinkedHashMap<>();
+
+        public Replicas() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public ReplicaSpec resolve(String cacheName) {
+            ReplicaSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        /** มี cache ไหนเปิดอยู่บ้างไหม */
+        public boolean isAnyEnabled() {
+            return count > 0 && (isEnabled() || caches.values().stream().anyMatch(ReplicaSpec::isEnabled));
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Map<String, ReplicaSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, ReplicaSpec> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /** ค่าตั้ง warm-up ต่อ cacheName */
+    public static class WarmUpSpec {
+
+        /** บันทึก + อุ่น cache นี้ (ต้องเปิด L1 ของ cache นี้ด้วย ไม่งั้นไม่มีที่ให้โหลดเข้า) */
+        private boolean enabled = true;
+
+        /** ความน่าจะเป็นที่ HIT หนึ่งครั้งถูกบันทึก (0..1) */
+        private double sampleRate = 0.01;
+
+        /** จำนวน key ล่าสุดที่เก็บใน log ต่อ cacheName (= จำนวนสูงสุดที่โหลดตอน start) */
+        private int maxKeys = 1_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+
+    /**
+     * ค่าตั้ง warm-up ระดับ global (ปิดไว้เป็นค่าเริ่มต้น) + override ราย cacheName
+     * log ของ key อยู่ใน Redis (ZSET ต่อ cacheName, score = เวลาที่เห็นล่าสุด) → pod ใหม่อ่าน log ที่ pod เก่าเขียนไว้ได้
+     */
+    public static class WarmUp extends WarmUpSpec {
+
+        /** เวลาสูงสุดของการอุ่นเครื่องตอน start (ms): หมดเวลา → หยุดโหลดแล้วรายงานพร้อม */
+        private long budgetMs = 10_000;
+
+        /** จำนวน key ต่อ MGET */
+        private int batchSize = 100;
+
+        /** จำนวน MGET ต่อ pipeline หนึ่งรอบ (Cluster: ไม่ pipeline, MGET ทีละ batch) */
+        private int pipelineDepth = 8;
+
+        /** ระยะห่างของการเขียน key ที่สุ่มได้ลง Redis (ms) */
+        private long flushIntervalMs = 5_000;
+
+        /** อายุของ log ใน Redis (วินาที) นับจากการเขียนครั้งล่าสุด */
+        private long snapshotTtlSeconds = 86_400;
+
+        /** TTL ของค่าใน L1 ที่โหลดตอน start เมื่อ envelope ไม่มีเวลาหมดอายุ (วินาที; invalidation ยังมาจาก tracking ตามปกติ) */
+        private long localTtlSeconds = 60;
+
+        /** override ราย cacheName (มี entry = เปิดให้ cache นั้น เว้นแต่ enabled=false) */
+        private Map<String, WarmUpSpec> caches = new LinkedHashMap<>();
+
+        public WarmUp() {
+            setEnabled(false);
+        }
+
+        /** ค่าตั้งที่ใช้จริงของ cacheName นี้ */
+        public WarmUpSpec resolve(String cacheName) {
+            WarmUpSpec spec = caches.get(cacheName);
+            return spec != null ? spec : this;
+        }
+
+        /** มี cache ไหนเปิดอยู่บ้างไหม */
+        public boolean isAnyEnabled() {
+            return isEnabled() || caches.values().stream().anyMatch(WarmUpSpec::isEnabled);
+        }
+
+        public long getBudgetMs() {
+            return budgetMs;
+        }
+
+        public void setBudgetMs(long budgetMs) {
+            this.budgetMs = budgetMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getPipelineDepth() {
+            return pipelineDepth;
+        }
+
+        public void setPipelineDepth(int pipelineDepth) {
+            this.pipelineDepth = pipelineDepth;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getSnapshotTtlSeconds() {
+            return snapshotTtlSeconds;
+        }
+
+        public void setSnapshotTtlSeconds(long snapshotTtlSeconds) {
+            this.snapshotTtlSeconds = snapshotTtlSeconds;
+        }
+
+        public long getLocalTtlSeconds() {
+            return localTtlSeconds;
+        }
+
+        public void setLocalTtlSeconds(long localTtlSeconds) {
+            this.localTtlSeconds = localTtlSeconds;
+        }
+
+        public Map<String, WarmUpSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, WarmUpSpec> caches) {
+            this.caches = caches;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * รัน refresh เบื้องหลังของค่า stale (stale-while-revalidate) บน virtual thread
+ * - dedupe ต่อ key: key ที่กำลัง refresh อยู่จะไม่ถูก schedule ซ้ำ
+ * - จำกัดจำนวน refresh พร้อมกันด้วย semaphore; เต็ม → ข้าม (caller ยังได้ค่า stale)
+ */
+public class CacheRefresher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheRefresher.class);
+
+    static final String SCHEDULED = "redisx.cache.swr.refresh";
+    static final String DEDUPED = "redisx.cache.swr.refresh-deduped";
+    static final String REJECTED = "redisx.cache.swr.refresh-rejected";
+    static final String FAILED = "redisx.cache.swr.refresh-error";
+    static final String DURATION = "redisx.cache.swr.refresh-time";
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Throwable;
+    }
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final CacheMetrics metrics;
+
+    public CacheRefresher(CacheProps props, CacheMetrics metrics) {
+        this.permits = new Semaphore(Math.max(1, props.getSwr().getMaxConcurrentRefreshes()));
+        this.metrics = metrics;
+    }
+
+    /** @return true ถ้า schedule สำเร็จ, false ถ้าซ้ำ/เต็ม */
+    public boolean schedule(String cacheName, String key, Task task) {
+        if (!inFlight.add(key)) {
+            metrics.increment(DEDUPED, cacheName);
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            inFlight.remove(key);
+            metrics.increment(REJECTED, cacheName);
+            log.debug("[CacheableX] refresh limit reached → skip, key={}", key);
+            return false;
+        }
+        try {
+            executor.execute(() -> run(cacheName, key, task));
+        } catch (RejectedExecutionException e) { // ระหว่าง shutdown
+            permits.release();
+            inFlight.remove(key);
+            return false;
+        }
+        metrics.increment(SCHEDULED, cacheName);
+        return true;
+    }
+
+    /** จำนวน key ที่กำลัง refresh อยู่ */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void run(String cacheName, String key, Task task) {
+        long t0 = System.nanoTime();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            metrics.increment(FAILED, cacheName);
+            log.warn("[CacheableX] background refresh failed (stale value kept) key={}", key, t);
+        } finally {
+            metrics.recordNanos(DURATION, cacheName, System.nanoTime() - t0);
+            permits.release();
+            inFlight.remove(key);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
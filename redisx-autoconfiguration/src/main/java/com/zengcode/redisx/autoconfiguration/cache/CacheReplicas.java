@@ -0,0 +1,92 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * replica ของ hot key: ค่าเดียวกันถูกเขียนซ้ำใต้ชื่อ prefix:__replica:{tag}:key หลายชื่อ คนละ slot
+ * - tag ของ replica ที่ i ถูกเลือกให้ slot ตกในช่วงที่ i ของ 16384 slot → Cluster ที่แบ่ง slot เท่า ๆ กันได้คนละ master
+ * - ผู้อ่านสุ่มหนึ่งในสำเนาทั้งหมด (key หลัก + replica); replica ว่าง → อ่าน key หลักแล้วเติม replica นั้นด้วย TTL ที่เหลือ
+ * - key ที่กระจาย = key ที่กำหนดใน keys + (auto) key ที่ {@link HotKeyCache} promote อยู่บน node นี้
+ * - evict ลบทุก replica เสมอ (node อื่นอาจกระจาย key นี้ไว้); evict-all ใช้ SCAN ต่อ tag (แต่ละ tag อยู่ master เดียว)
+ * replica ไม่เคยอายุยืนกว่าค่าที่มันคัดลอกมา: เขียนพร้อม key หลักด้วย TTL เดียวกัน หรือเติมด้วย TTL ที่เหลือของ key หลัก
+ */
+public class CacheReplicas {
+
+    /** อ่านได้จาก replica */
+    static final String HIT = "redisx.cache.replica.hit";
+    /** replica ว่าง → อ่าน key หลักแล้วเติม replica */
+    static final String BACKFILL = "redisx.cache.replica.backfill";
+
+    private static final int SLOTS = 16384;
+
+    private final CacheProps.Replicas props;
+    private final String namespace;
+    private final boolean enabled;
+    /** hash tag ของแต่ละ replica (index = replica) */
+    private final String[] tags;
+
+    public CacheReplicas(CacheProps props) {
+        this.props = props.getReplicas();
+        this.namespace = props.getPrefix() + ":__replica:";
+        this.enabled = this.props.isAnyEnabled();
+        this.tags = enabled ? hashTags(this.props.getCount()) : new String[0];
+    }
+
+    /** ค่าตั้งของ cacheName นี้ หรือ null ถ้าไม่ได้เปิด replica */
+    public CacheProps.ReplicaSpec spec(String cacheName) {
+        if (!enabled) return null;
+        CacheProps.ReplicaSpec spec = props.resolve(cacheName);
+        return spec.isEnabled() ? spec : null;
+    }
+
+    /** key นี้ต้องกระจายไหม (hot = region ของ hot key, null = ไม่ได้เปิดตรวจจับ) */
+    public boolean isReplicated(CacheProps.ReplicaSpec spec, String key, HotKeyCache.Region hot) {
+        for (String k : spec.getKeys()) {
+            int at = key.length() - k.length() - 1;
+            if (at >= 0 && key.endsWith(k) && key.charAt(at) == ':') return true;
+        }
+        return spec.isAuto() && hot != null && hot.isPromoted(key);
+    }
+
+    /** สุ่มสำเนาที่จะอ่าน: -1 = key หลัก, 0..count-1 = replica */
+    public int pick() {
+        return ThreadLocalRandom.current().nextInt(tags.length + 1) - 1;
+    }
+
+    public String replicaKey(String key, int replica) {
+        return namespace + "{" + tags[replica] + "}:" + key;
+    }
+
+    /** ชื่อ replica ทั้งหมดของ key (ว่างถ้าไม่ได้เปิด replica ที่ไหนเลย) */
+    public List<String> replicaKeys(String key) {
+        List<String> out = new ArrayList<>(tags.length);
+        for (int i = 0; i < tags.length; i++) out.add(replicaKey(key, i));
+        return out;
+    }
+
+    /** prefix ของ replica ทุกตัวของ key ที่ขึ้นต้นด้วย basePrefix (หนึ่งตัวต่อ replica สำหรับ SCAN) */
+    public List<String> replicaPrefixes(String basePrefix) {
+        return replicaKeys(basePrefix);
+    }
+
+    /** tag ที่เล็กที่สุดในรูป r{n} ที่ slot ตกในช่วงที่ i ของ count ช่วงเท่า ๆ กัน */
+    static String[] hashTags(int count) {
+        String[] out = new String[Math.max(0, count)];
+        for (int i = 0; i < out.length; i++) {
+            int from = (int) ((long) i * SLOTS / out.length);
+            int to = (int) ((long) (i + 1) * SLOTS / out.length);
+            for (int n = 0; ; n++) {
+                int slot = ClusterSlotHashUtil.calculateSlot("r" + n);
+                if (slot >= from && slot < to) {
+                    out[i] = "r" + n;
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,125 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * index ของ tag → key สำหรับ @CacheableX(tags) / @CacheEvictX(tags)
+ * - tag หนึ่งตัว = sorted set prefix:__tag:{tag} (member = key เต็ม, score = เวลาหมดอายุของ entry เป็น epoch ms)
+ * - ตอนเขียน: ZADD + ตัด member ที่หมดอายุแล้ว (ZREMRANGEBYSCORE -inf now) + ยืด TTL ของ set ให้ไม่สั้นกว่า entry
+ *   → set ไม่โตไม่จำกัด และหายเองเมื่อไม่มี entry ที่ยังไม่หมดอายุ
+ * - ตอน evict: ZPOPMIN ทีละ batch แล้ว UNLINK key ชุดนั้น จน set ว่าง
+ * tag เป็น global (ไม่ผูกกับ cacheName) → "tenant:42" ครอบ entry ของหลาย cache ได้
+ */
+public class CacheTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheTagIndex.class);
+
+    static final String REGISTERED = "redisx.cache.tags.registered";
+    static final String EVICTED_KEYS = "redisx.cache.tags.evicted-keys";
+
+    /** KEYS = tag sets, ARGV = member, expireAtMs, nowMs, ttlMs */
+    static final RedisScript<Long> REGISTER = new DefaultRedisScript<>("""
+            for i = 1, #KEYS do
+              redis.call('zadd', KEYS[i], ARGV[2], ARGV[1])
+              redis.call('zremrangebyscore', KEYS[i], '-inf', ARGV[3])
+              if redis.call('pttl', KEYS[i]) < tonumber(ARGV[4]) then redis.call('pexpire', KEYS[i], ARGV[4]) end
+            end
+            return #KEYS""", Long.class);
+
+    private final StringRedisTemplate srt;
+    private final CacheProps props;
+    private final CacheMetrics metrics;
+    private final boolean cluster;
+
+    public CacheTagIndex(StringRedisTemplate srt, CacheProps props, CacheMetrics metrics) {
+        this.srt = srt;
+        this.props = props;
+        this.metrics = metrics;
+        this.cluster = CacheKeys.clusterAware(srt.getConnectionFactory());
+    }
+
+    /** ค่าของ tag expression → ชุด tag (Collection/array = หลาย tag, null/ว่าง = ข้าม) */
+    public static Set<String> flatten(Object value, Set<String> into) {
+        if (value == null) return into;
+        if (value instanceof Collection<?> c) {
+            for (Object o : c) flatten(o, into);
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) flatten(Array.get(value, i), into);
+        } else {
+            String s = String.valueOf(value);
+            if (!s.isBlank()) into.add(s);
+        }
+        return into;
+    }
+
+    /** ลงทะเบียน key กับ tag (ttlSeconds = TTL จริงของ entry ใน Redis) */
+    public void register(String cacheName, String key, Set<String> tags, long ttlSeconds) {
+        if (tags.isEmpty()) return;
+        long ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        long now = System.currentTimeMillis();
+        String[] argv = {key, Long.toString(now + ttlMs), Long.toString(now), Long.toString(ttlMs)};
+        // cluster: set ของแต่ละ tag อยู่คนละ slot → script ทีละ tag
+        if (cluster) {
+            for (String t : tags) srt.execute(REGISTER, List.of(tagKey(t)), (Object[]) argv);
+        } else {
+            srt.execute(REGISTER, tagKeys(tags), (Object[]) argv);
+        }
+        metrics.increment(REGISTERED, cacheName);
+    }
+
+    /** KEYS ของ script ลงทะเบียนแต่ละรอบ (cluster: ทีละ tag) — ใช้ตอน register แบบ non-blocking ใน {@link CacheableXReactive} */
+    List<List<String>> registerBatches(Set<String> tags) {
+        return cluster ? tags.stream().map(t -> List.of(tagKey(t))).toList() : List.of(tagKeys(tags));
+    }
+
+    void registered(String cacheName) {
+        metrics.increment(REGISTERED, cacheName);
+    }
+
+    /**
+     * ลบทุก key ของ tag: ZPOPMIN ทีละ batchSize (ดึงออกจาก index ไปพร้อมกัน) → UNLINK
+     * @param cacheName ใช้เป็นมิติของ metric เท่านั้น (tag ครอบทุก cache)
+     * @param onEvicted เรียกกับ key ทุกชุดที่ลบ (ล้าง L1 / write-behind ของ node นี้)
+     * @return จำนวน key ที่ UNLINK ได้
+     */
+    public long evict(String cacheName, String tag, int batchSize, Consumer<List<String>> onEvicted) {
+        String tagKey = tagKey(tag);
+        long total = 0L;
+        while (true) {
+            Set<ZSetOperations.TypedTuple<String>> popped = srt.opsForZSet().popMin(tagKey, Math.max(1, batchSize));
+            if (popped == null || popped.isEmpty()) break;
+            List<String> keys = new ArrayList<>(popped.size());
+            for (ZSetOperations.TypedTuple<String> t : popped) keys.add(t.getValue());
+            Long n = srt.unlink(keys);
+            total += n != null ? n : 0L;
+            onEvicted.accept(keys);
+            if (popped.size() < batchSize) break;
+        }
+        metrics.recordValue(EVICTED_KEYS, cacheName, total);
+        log.debug("[CacheEvictX] tag={} unlinked={}", tag, total);
+        return total;
+    }
+
+    String tagKey(String tag) {
+        return props.getPrefix() + ":__tag:" + tag;
+    }
+
+    private List<String> tagKeys(Set<String> tags) {
+        List<String> keys = new ArrayList<>(tags.size());
+        for (String t : tags) keys.add(tagKey(t));
+        return keys;
+    }
+}
@@ -0,0 +1,21 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** คำนวณ TTL ที่ใช้จริง (jitter กัน entry ที่เขียนพร้อมกันหมดอายุพร้อมกัน) */
+final class CacheTtl {
+
+    private CacheTtl() {
+    }
+
+    /**
+     * สุ่มลด TTL ลงไม่เกิน ttl * ratio (ไม่เคยยาวกว่าค่าที่ตั้ง) และไม่ต่ำกว่า 1 วินาที
+     * เช่น ttl=300, ratio=0.1 → TTL จริงอยู่ในช่วง [270, 300]
+     */
+    static long jitter(long ttlSeconds, double ratio) {
+        if (ratio <= 0 || ttlSeconds <= 1) return ttlSeconds;
+        long spread = (long) (ttlSeconds * Math.min(ratio, 1.0));
+        if (spread <= 0) return ttlSeconds;
+        return Math.max(1, ttlSeconds - ThreadLocalRandom.current().nextLong(spread + 1));
+    }
+}
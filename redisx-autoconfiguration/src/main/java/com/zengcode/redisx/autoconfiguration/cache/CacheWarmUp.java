@@ -0,0 +1,339 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * warm-up ของ @CacheableX: pod ใหม่ไม่ต้องเริ่มด้วย L1 ว่าง
+ * - บันทึก: HIT (L1 / Redis) ถูกสุ่มตามอัตรา sample-rate เก็บไว้ใน process แล้ว thread เบื้องหลังเขียนลง Redis ทุก flush-interval-ms
+ *   เป็น ZSET ต่อ cacheName (score = เวลาที่เห็นล่าสุด, เก็บแค่ max-keys ตัวล่าสุด) + ชนิดของค่า (JavaType) ต่อ cacheName
+ *   ปิด context → flush รอบสุดท้าย (pod ที่กำลังถูกแทนทิ้ง log ล่าสุดไว้ให้ pod ใหม่)
+ * - ตอน start (หลังสร้าง singleton ครบ, ก่อน web server รับ traffic): PING ให้ connection พร้อม → รอ CLIENT TRACKING
+ *   → อ่าน log แล้ว MGET ทีละ batch (pipeline หลาย batch ต่อ round trip) ใส่ L1 จนครบหรือหมด budget-ms
+ * - ความคืบหน้าอยู่ที่ {@link #progress()} (health indicator redisxWarmUp = OUT_OF_SERVICE ระหว่างอุ่น)
+ * ทุกอย่าง fail-open: Redis ล่ม / log เสีย / decode พัง → ข้ามแล้วรายงานพร้อมตามปกติ
+ */
+public class CacheWarmUp implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmUp.class);
+
+    static final String RECORDED = "redisx.cache.warmup.recorded";
+    static final String LOADED = "redisx.cache.warmup.loaded";
+    static final String TIME = "redisx.cache.warmup.time";
+
+    public enum State {
+        /** ไม่ได้เปิด warm-up */
+        DISABLED,
+        /** รอเริ่ม */
+        PENDING,
+        /** กำลังโหลด */
+        WARMING,
+        /** โหลดครบ */
+        DONE,
+        /** หมด budget ก่อนครบ (ค่าที่เหลือโหลดตอนถูกอ่านตามปกติ) */
+        TIMED_OUT,
+        /** อ่าน log / Redis ไม่ได้ */
+        FAILED
+    }
+
+    /** ความคืบหน้าของ cacheName เดียว */
+    public record CacheProgress(long loaded, long total) {}
+
+    /** ความคืบหน้าของรอบล่าสุด */
+    public record Progress(State state, long loaded, long total, long elapsedMs, long budgetMs,
+                           Map<String, CacheProgress> caches) {}
+
+    private record Plan(String cacheName, NearCache.Region region, JavaType type, List<String> keys,
+                        AtomicLong loaded) {}
+
+    private final StringRedisTemplate srt;
+    private final CacheProps.WarmUp props;
+    private final long nullTtlSeconds;
+    private final String namespace;
+    private final ObjectMapper om;
+    private final CachePayloads payloads;
+    private final NearCache near;
+    private final CacheMetrics metrics;
+    private final boolean cluster;
+    /** OPTIN track เฉพาะ key ที่อ่านผ่าน connection ของ tracker → ค่าจาก MGET ใส่ L1 ไม่ได้ */
+    private final boolean optin;
+    /** อ่านครั้งเดียว: ปิดทั้งหมด → {@link #record} จบที่บรรทัดแรก */
+    private final boolean enabled;
+    /** key ที่สุ่มได้แต่ยังไม่ถูกเขียนลง Redis: cacheName → (key → เวลาที่เห็น) */
+    private final Map<String, Map<String, Long>> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> types = new ConcurrentHashMap<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private volatile State state;
+    private volatile long startedAtNanos;
+    private volatile long elapsedMs;
+    private volatile List<Plan> plans = List.of();
+
+    public CacheWarmUp(StringRedisTemplate srt, CacheProps props, ObjectMapper om, CodecRegistry codecs,
+                       NearCache near, CacheMetrics metrics) {
+        this.srt = srt;
+        this.props = props.getWarmUp();
+        this.nullTtlSeconds = props.getNullTtlSeconds();
+        this.namespace = props.getPrefix() + ":__warmup:";
+        this.om = om;
+        this.payloads = new CachePayloads(props, codecs, metrics);
+        this.near = near;
+        this.metrics = metrics;
+        this.cluster = CacheKeys.clusterAware(srt.getConnectionFactory());
+        this.optin = props.getNear().getTrackingMode() == CacheProps.TrackingMode.OPTIN;
+        this.enabled = props.isEnabled() && this.props.isAnyEnabled();
+        this.state = enabled ? State.PENDING : State.DISABLED;
+        this.flusher = enabled ? Thread.ofPlatform().daemon().name("redisx-warmup-log").start(this::loop) : null;
+    }
+
+    /** สุ่มบันทึก key ที่ HIT (เรียกจาก hot path: ปิดอยู่ / ไม่ถูกสุ่ม = ไม่ allocate) */
+    public void record(String cacheName, String key, JavaType type) {
+        if (!enabled) return;
+        CacheProps.WarmUpSpec spec = props.resolve(cacheName);
+        if (!spec.isEnabled() || ThreadLocalRandom.current().nextDouble() >= spec.getSampleRate()) return;
+        Map<String, Long> keys = pending.get(cacheName);
+        if (keys == null) keys = pending.computeIfAbsent(cacheName, n -> new ConcurrentHashMap<>());
+        if (keys.size() >= spec.getMaxKeys() && !keys.containsKey(key)) return; // รอ flush รอบหน้า
+        keys.put(key, System.currentTimeMillis());
+        if (!types.containsKey(cacheName)) types.put(cacheName, type.toCanonical());
+        metrics.increment(RECORDED, cacheName);
+    }
+
+    /** เขียน key ที่สุ่มได้ลง log ใน Redis (ZADD + ตัดให้เหลือ max-keys ตัวล่าสุด + ต่ออายุ) */
+    public void flush() {
+        Duration ttl = Duration.ofSeconds(Math.max(1, props.getSnapshotTtlSeconds()));
+        for (Map.Entry<String, Map<String, Long>> e : pending.entrySet()) {
+            String cacheName = e.getKey();
+            Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+            for (Iterator<Map.Entry<String, Long>> it = e.getValue().entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Long> k = it.next();
+                batch.add(new DefaultTypedTuple<>(k.getKey(), k.getValue().doubleValue()));
+                it.remove();
+            }
+            if (batch.isEmpty()) continue;
+            try {
+                String logKey = logKey(cacheName);
+                srt.opsForZSet().add(logKey, batch);
+                srt.opsForZSet().removeRange(logKey, 0, -(props.resolve(cacheName).getMaxKeys() + 1L));
+                srt.expire(logKey, ttl);
+                String type = types.get(cacheName);
+                if (type != null) {
+                    srt.opsForHash().put(typesKey(), cacheName, type);
+                    srt.expire(typesKey(), ttl);
+                }
+                log.debug("[WarmUp] FLUSH cacheName={} keys={}", cacheName, batch.size());
+            } catch (Exception ex) {
+                metrics.increment(CacheableXAspect.ERROR, cacheName);
+                log.warn("[WarmUp] log flush error (ignored) cacheName={}", cacheName, ex);
+            }
+        }
+    }
+
+    /** เริ่มอุ่นเครื่องบน thread แยก (startup ไม่ต้องรอ; readiness ดูจาก {@link #progress()}) */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) Thread.ofPlatform().daemon().name("redisx-warmup").start(this::warm);
+    }
+
+    /**
+     * อุ่นเครื่องหนึ่งรอบ (รอจนจบหรือหมด budget): PING → รอ L1 → อ่าน log → MGET ใส่ L1
+     * เรียกซ้ำได้ (เช่นหลัง failover) — ค่าที่อยู่ใน L1 แล้วถูกเขียนทับด้วยค่าปัจจุบันจาก Redis
+     */
+    public Progress warm() {
+        if (!enabled) return progress();
+        long t0 = System.nanoTime();
+        long deadline = t0 + TimeUnit.MILLISECONDS.toNanos(Math.max(0, props.getBudgetMs()));
+        startedAtNanos = t0;
+        elapsedMs = -1;
+        plans = List.of();
+        state = State.WARMING;
+        State end = State.DONE;
+        try {
+            // 1) connection: handshake / topology ของ Cluster เกิดตอนนี้ ไม่ใช่ที่ request แรก
+            srt.execute((RedisCallback<String>) RedisConnection::ping);
+            // 2) L1 ใช้ได้หลัง CLIENT TRACKING ตอบกลับ (async)
+            while (!near.isActive() && System.nanoTime() < deadline) LockSupport.parkNanos(10_000_000L);
+            // 3) log ของทุก cache ที่เปิดไว้ (log ว่าง = ไม่มีอะไรต้องโหลด)
+            plans = plan();
+            // 4) MGET ทีละชุดจนครบ หรือหมด budget (เช็คทุกชุด)
+            int chunk = Math.max(1, props.getBatchSize()) * (cluster ? 1 : Math.max(1, props.getPipelineDepth()));
+            outer:
+            for (Plan p : plans) {
+                for (int from = 0; from < p.keys.size(); from += chunk) {
+                    if (System.nanoTime() >= deadline) {
+                        end = State.TIMED_OUT;
+                        break outer;
+                    }
+                    load(p, p.keys.subList(from, Math.min(p.keys.size(), from + chunk)));
+                }
+            }
+        } catch (Exception e) {
+            end = State.FAILED;
+            log.warn("[WarmUp] warm-up error (ignored) → ready without warm L1", e);
+        }
+        long took = System.nanoTime() - t0;
+        elapsedMs = TimeUnit.NANOSECONDS.toMillis(took);
+        state = end;
+        Progress p = progress();
+        metrics.recordNanos(TIME, CacheWriteBehind.ALL, took);
+        log.info("[WarmUp] {} loaded={}/{} caches={} took={}ms budget={}ms",
+                end, p.loaded(), p.total(), p.caches().size(), p.elapsedMs(), p.budgetMs());
+        return p;
+    }
+
+    public Progress progress() {
+        long loaded = 0, total = 0;
+        Map<String, CacheProgress> caches = new TreeMap<>();
+        for (Plan p : plans) {
+            long l = p.loaded.get();
+            caches.put(p.cacheName, new CacheProgress(l, p.keys.size()));
+            loaded += l;
+            total += p.keys.size();
+        }
+        long elapsed = elapsedMs >= 0 ? elapsedMs
+                : state == State.WARMING ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos) : 0;
+        return new Progress(state, loaded, total, elapsed, props.getBudgetMs(), caches);
+    }
+
+    /** cache ที่จะโหลด: เปิด warm-up + มี L1 + มี log และชนิดของค่า */
+    private List<Plan> plan() {
+        List<Plan> out = new ArrayList<>();
+        if (optin) {
+            log.info("[WarmUp] SKIP (near.tracking-mode=OPTIN: values read by MGET are not tracked)");
+            return out;
+        }
+        Map<Object, Object> known = srt.opsForHash().entries(typesKey());
+        for (Map.Entry<Object, Object> e : known.entrySet()) {
+            String cacheName = (String) e.getKey();
+            CacheProps.WarmUpSpec spec = props.resolve(cacheName);
+            if (!spec.isEnabled()) continue;
+            NearCache.Region region = near.region(cacheName);
+            if (region == null) {
+                log.info("[WarmUp] SKIP cacheName={} (L1 off or tracking not ready)", cacheName);
+                continue;
+            }
+            JavaType type;
+            try {
+                type = om.getTypeFactory().constructFromCanonical((String) e.getValue());
+            } catch (Exception ex) {
+                log.warn("[WarmUp] SKIP cacheName={} unknown type '{}'", cacheName, e.getValue());
+                continue;
+            }
+            Set<String> keys = srt.opsForZSet().reverseRange(logKey(cacheName), 0, spec.getMaxKeys() - 1L);
+            if (keys != null && !keys.isEmpty()) {
+                out.add(new Plan(cacheName, region, type, List.copyOf(keys), new AtomicLong()));
+            }
+        }
+        return out;
+    }
+
+    /** MGET หนึ่งชุด (ไม่ใช่ Cluster: pipeline ทีละ batch-size) แล้วใส่ L1 */
+    private void load(Plan p, List<String> keys) {
+        long[] stamps = new long[keys.size()];
+        for (int i = 0; i < stamps.length; i++) stamps[i] = near.stamp(keys.get(i));
+        List<byte[]> raws = mget(keys);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < raws.size(); i++) {
+            byte[] raw = raws.get(i);
+            if (raw == null) continue;
+            String key = keys.get(i);
+            try {
+                CacheEnvelope env = CacheEnvelope.parse(raw);
+                if (env.isNull) {
+                    p.region.put(key, null, 0, stamps[i], nullTtlSeconds);
+                } else {
+                    if (env.isStale(now)) continue; // ให้ request แรกเจอ stale แล้วสั่ง refresh ตามปกติ
+                    Object value = payloads.decode(env, p.cacheName, p.type);
+                    p.region.put(key, value, raw.length, stamps[i], ttlSeconds(env, now));
+                }
+                p.loaded.incrementAndGet();
+                metrics.increment(LOADED, p.cacheName);
+            } catch (Exception e) {
+                metrics.increment(CacheableXAspect.ERROR, p.cacheName);
+                log.debug("[WarmUp] decode error → skip key={}", key, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<byte[]> mget(List<String> keys) {
+        int batch = Math.max(1, props.getBatchSize());
+        if (cluster) {
+            // cluster connection แยก MGET ตาม slot ให้เอง
+            byte[][] raw = bytes(keys);
+            List<byte[]> got = srt.execute((RedisCallback<List<byte[]>>) con -> con.stringCommands().mGet(raw));
+            return got != null ? got : List.of();
+        }
+        List<Object> replies = srt.executePipelined((RedisCallback<Object>) con -> {
+            for (int from = 0; from < keys.size(); from += batch) {
+                con.stringCommands().mGet(bytes(keys.subList(from, Math.min(keys.size(), from + batch))));
+            }
+            return null;
+        }, null);
+        List<byte[]> out = new ArrayList<>(keys.size());
+        for (Object r : replies) out.addAll((List<byte[]>) r);
+        return out;
+    }
+
+    /** TTL ของค่าใน L1: ไม่เกินเวลาหมดอายุ / soft-TTL ใน envelope (ถ้ามี) ไม่งั้น local-ttl-seconds */
+    private long ttlSeconds(CacheEnvelope env, long now) {
+        long until = env.softAtMs > 0 ? env.softAtMs : env.expireAtMs;
+        if (until <= 0) return props.getLocalTtlSeconds();
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(until - now));
+    }
+
+    private void loop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(100, props.getFlushIntervalMs())));
+            flush();
+        }
+        flush(); // ปิด context: เขียน key ที่เหลือให้ pod ถัดไป
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (flusher == null) return;
+        LockSupport.unpark(flusher);
+        flusher.join(5_000);
+    }
+
+    String logKey(String cacheName) {
+        return namespace + "log:" + cacheName;
+    }
+
+    private String typesKey() {
+        return namespace + "types";
+    }
+
+    private static byte[][] bytes(List<String> keys) {
+        byte[][] out = new byte[keys.size()][];
+        for (int i = 0; i < out.length; i++) out[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+        return out;
+    }
+}
@@ -0,0 +1,33 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * health "redisxWarmUp": OUT_OF_SERVICE ระหว่างอุ่น L1 ตอน start, จบแล้ว (ครบ / หมด budget / error) → UP
+ * ใส่ใน readiness group เพื่อไม่ให้ pod รับ traffic ก่อนอุ่นเสร็จ:
+ * management.endpoint.health.group.readiness.include=readinessState,redisxWarmUp
+ */
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmUp warmUp;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    public Health health() {
+        CacheWarmUp.Progress p = warmUp.progress();
+        Health.Builder b = (p.state() == CacheWarmUp.State.PENDING || p.state() == CacheWarmUp.State.WARMING)
+                ? Health.outOfService()
+                : Health.up();
+        return b.withDetail("state", p.state())
+                .withDetail("loaded", p.loaded())
+                .withDetail("total", p.total())
+                .withDetail("elapsedMs", p.elapsedMs())
+                .withDetail("budgetMs", p.budgetMs())
+                .withDetail("caches", p.caches())
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * write-behind ของ @CacheableX: request path แค่ใส่ค่า (serialize แล้ว) ลง queue ที่มีขนาดจำกัด
+ * writer thread ตัวเดียวรวมเป็น batch (ครบ batchSize หรือครบ flushIntervalMs นับจากรายการแรก) แล้ว SET EX ใน pipeline เดียว
+ * - queue เต็ม: DROP ทิ้งทันที / BLOCK รอได้ไม่เกิน blockTimeoutMs แล้วทิ้ง (ค่าจะถูกโหลดใหม่รอบหน้า)
+ * - flush พัง → log แล้วทิ้ง batch นั้น (fail-open เหมือน SETEX ปกติ)
+ * - evict ของ key ที่ยังค้างใน queue ต้องเรียก {@link #discard} ไม่งั้นค่าเก่าจะถูกเขียนกลับหลัง evict
+ *   (batch ที่กำลัง flush อยู่แล้วดึงคืนไม่ได้ — หน้าต่างนี้เท่ากับเวลาของ pipeline หนึ่งรอบ)
+ */
+public class CacheWriteBehind implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWriteBehind.class);
+
+    static final String ENQUEUED = "redisx.cache.write-behind.enqueued";
+    static final String DROPPED = "redisx.cache.write-behind.dropped";
+    static final String FLUSH_TIME = "redisx.cache.write-behind.flush-time";
+    static final String FLUSH_ERROR = "redisx.cache.write-behind.flush-error";
+    static final String BATCH_SIZE = "redisx.cache.write-behind.batch-size";
+    static final String QUEUE_DEPTH = "redisx.cache.write-behind.queue-depth";
+    /** cacheName ของ metric ที่เป็นของทั้ง queue */
+    static final String ALL = "*";
+
+    private record Entry(String cacheName, String key, byte[] payload, long ttlSeconds) {}
+
+    private final RedisTemplate<String, byte[]> redis;
+    private final CacheProps.WriteBehind props;
+    private final CacheMetrics metrics;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public CacheWriteBehind(RedisTemplate<String, byte[]> redis, CacheProps props, CacheMetrics metrics) {
+        this.redis = redis;
+        this.props = props.getWriteBehind();
+        this.metrics = metrics;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, this.props.getQueueCapacity()));
+        this.writer = this.props.isAnyEnabled()
+                ? Thread.ofPlatform().daemon().name("redisx-write-behind").start(this::loop)
+                : null;
+        if (writer != null) metrics.gauge(QUEUE_DEPTH, ALL, queue::size);
+    }
+
+    /** cache นี้เขียนผ่าน queue ไหม */
+    public boolean isEnabled(String cacheName) {
+        return writer != null && running && props.resolve(cacheName).isEnabled();
+    }
+
+    /** @return false ถ้าถูกทิ้งเพราะ queue เต็ม */
+    public boolean enqueue(String cacheName, String key, byte[] payload, long ttlSeconds) {
+        Entry e = new Entry(cacheName, key, payload, ttlSeconds);
+        boolean ok = queue.offer(e);
+        if (!ok && props.getOverflow() == CacheProps.OverflowPolicy.BLOCK) {
+            try {
+                ok = queue.offer(e, props.getBlockTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!ok) {
+            metrics.increment(DROPPED, cacheName);
+            log.debug("[CacheableX] write-behind queue full → drop key={}", key);
+            return false;
+        }
+        metrics.increment(ENQUEUED, cacheName);
+        int size = queue.size();
+        if (size == 1 || size >= props.getBatchSize()) LockSupport.unpark(writer);
+        return true;
+    }
+
+    /** ทิ้งการเขียนที่ยังค้างของ key นี้ (เรียกตอน evict) */
+    public void discard(String key) {
+        if (writer != null && !queue.isEmpty()) queue.removeIf(e -> e.key.equals(key));
+    }
+
+    /** ทิ้งการเขียนที่ยังค้างของทุก key ที่ขึ้นต้นด้วย prefix (evict-all) */
+    public void discardPrefix(String keyPrefix) {
+        if (writer != null && !queue.isEmpty()) queue.removeIf(e -> e.key.startsWith(keyPrefix));
+    }
+
+    /** จำนวนการเขียนที่รออยู่ใน queue ตอนนี้ */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * รายการอยู่ใน queue จนถึงเวลา flush (evict จึงยัง discard ได้)
+     * queue ว่าง → park จนมีรายการแรก; มีรายการ → รอ flushIntervalMs หรือจนครบ batchSize (enqueue ปลุก) แล้ว drain
+     */
+    private void loop() {
+        int batchSize = Math.max(1, props.getBatchSize());
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(props.getFlushIntervalMs());
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+                continue;
+            }
+            long deadline = System.nanoTime() + intervalNanos;
+            long remain;
+            while (running && queue.size() < batchSize && (remain = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remain);
+            }
+            queue.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        metrics.recordValue(BATCH_SIZE, ALL, batch.size());
+        long t0 = System.nanoTime();
+        try {
+            redis.executePipelined((RedisCallback<Object>) conn -> {
+                for (Entry e : batch) {
+                    conn.stringCommands().set(e.key.getBytes(StandardCharsets.UTF_8), e.payload,
+                            Expiration.seconds(e.ttlSeconds), RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+            log.debug("[CacheableX] write-behind flushed {} keys", batch.size());
+        } catch (Exception ex) {
+            metrics.increment(FLUSH_ERROR, ALL);
+            log.warn("[CacheableX] write-behind flush error, {} writes lost", batch.size(), ex);
+        } finally {
+            metrics.recordNanos(FLUSH_TIME, ALL, System.nanoTime() - t0);
+        }
+    }
+
+    /** หยุด writer แล้ว flush ที่ค้างอยู่ให้หมด (รอไม่เกิน 5 วินาที) */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer == null) return;
+        LockSupport.unpark(writer);
+        writer.join(5_000);
+    }
+}
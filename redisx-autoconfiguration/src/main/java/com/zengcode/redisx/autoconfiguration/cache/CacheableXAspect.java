@@ -9,46 +9,130 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
 
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Aspect สำหรับ @CacheableX
  * 1) ตรวจว่าเปิดระบบ cache อยู่ไหม + ตรวจ condition (ถ้ามี)
  * 2) สร้าง key
- * 3) ลองอ่านจาก Redis (HIT/MISS)
- * 4) ถ้า MISS เรียกเมธอดจริง แล้วพิจารณา unless + cache-null
+ * 3) ลองอ่านจาก L1 (ถ้าเปิด) แล้วค่อย Redis (HIT/MISS)
+ *    HIT ที่เลย soft-TTL (SWR) → คืนค่าเดิมทันที + refresh เบื้องหลัง
+ * 4) ถ้า MISS เรียกเมธอดจริง (single-flight ต่อ key) แล้วพิจารณา unless + cache-null
  * 5) เขียนกลับ Redis พร้อม TTL
+ * ค่าใน Redis เป็น byte[] (header 1 byte + payload ของ RedisXCodec ที่เลือกต่อ cacheName)
+ * เมธอดที่คืน CompletableFuture/CompletionStage/Mono → GET/SET ผ่าน ReactiveRedisTemplate ไม่ block thread ของ caller
+ * และ cache ค่าที่ได้หลัง complete (ไม่ใช่ตัว wrapper) — ส่วนนี้อยู่ใน {@link CacheableXReactive} (ไม่มี reactor-core = ไม่มี bean)
+ * tags (ถ้ามี) → ลงทะเบียน key ใน {@link CacheTagIndex} หลังเขียนสำเร็จ ให้ @CacheEvictX(tags) ลบตาม tag ได้
+ * GET มี read budget (readTimeoutMs / redisx.cache.read-timeout-ms): เกิน → MISS ทันที ไม่รอ timeout ของ client
+ * ทุก GET/SET ผ่าน {@link CacheCircuitBreaker}: OPEN → อ่าน = MISS, เขียน = ข้าม, ไม่ขอ lease (ไม่ต้องรอ timeout ของ client)
+ * hit/miss/veto/error + เวลา GET/โหลด + ขนาดค่า → {@link CacheMetrics} ต่อ cacheName (log ราย request เป็น DEBUG เท่านั้น)
+ * hot key ({@link HotKeyCache}): นับการเข้าถึงต่อ cacheName, key ที่ร้อนเกินเกณฑ์ตอบจากสำเนาอายุสั้นใน process (เฉพาะเมธอด sync)
+ * replica ({@link CacheReplicas}): key ที่กระจายอยู่ถูกเขียนซ้ำหลาย slot และอ่านจากสำเนาที่สุ่มได้ (เฉพาะเมธอด sync)
+ * warm-up ({@link CacheWarmUp}): HIT ถูกสุ่มบันทึกเป็น log ใน Redis ให้ pod ถัดไปโหลดเข้า L1 ตอน start
+ * pointcut เป็น execution(@CacheableX ...) ที่ match จบตอนสร้าง proxy (@annotation(...) ทำให้ Spring ต้อง match ซ้ำ
+ * + bind parameter ลง map ทุก invocation) แล้วอ่าน annotation จาก cache ต่อ Method แทน
  */
 @Aspect
 @Order(Ordered.LOWEST_PRECEDENCE - 10)
 public class CacheableXAspect {
 
     private static final Logger log = LoggerFactory.getLogger(CacheableXAspect.class);
-    private static final String NULL_MARKER = "null"; // marker สำหรับเก็บค่า null ใน cache
+    static final String LEASE_ACQUIRED = "redisx.cache.lease.acquired";
+    static final String LEASE_REMOTE_HIT = "redisx.cache.lease.remote-hit";
+    static final String LEASE_FALLBACK = "redisx.cache.lease.fallback";
+    static final String LEASE_WAIT = "redisx.cache.lease.wait";
+    static final String STALE_HIT = "redisx.cache.swr.stale-hit";
+    static final String XFETCH_EARLY = "redisx.cache.xfetch.early-refresh";
+    static final String READ_BUDGET_READS = "redisx.cache.read-budget.reads";
+    static final String READ_BUDGET_OVERRUN = "redisx.cache.read-budget.overrun";
+    static final String HIT = "redisx.cache.hit";
+    static final String L1_HIT = "redisx.cache.l1.hit";
+    static final String NULL_HIT = "redisx.cache.null-hit";
+    static final String MISS = "redisx.cache.miss";
+    static final String VETO = "redisx.cache.veto";
+    static final String ERROR = "redisx.cache.error";
+    static final String READ_TIME = "redisx.cache.read";
+    static final String LOAD_TIME = "redisx.cache.load";
+    static final String VALUE_SIZE = "redisx.cache.value-size";
 
-    private final StringRedisTemplate redis;
+    private final RedisTemplate<String, byte[]> redis;
+    /** null = ไม่มี reactor-core; ไม่มี reactive template (เช่น Jedis) → isAvailable() = false → เมธอด async ไม่ผ่าน cache */
+    private final CacheableXReactive reactive;
     private final CacheProps props;
     private final ObjectMapper om;
+    private final CachePayloads payloads;
+    private final NearCache near;
+    private final SingleFlight singleFlight;
+    private final CacheLease lease;
+    private final CacheMetrics metrics;
+    private final CacheRefresher refresher;
+    private final CacheWriteBehind writeBehind;
+    private final CacheKeys keys;
+    private final SpelRegistry spel;
+    private final CacheTagIndex tags;
+    private final CacheCircuitBreaker breaker;
+    private final HotKeyCache hotKeys;
+    private final CacheReplicas replicas;
+    private final CacheWarmUp warmUp;
+    /** return type ของแต่ละ method (สร้าง JavaType ครั้งเดียว) */
+    private final Map<Method, JavaType> returnTypes = new ConcurrentHashMap<>();
+    /** @CacheableX ของแต่ละ method (อ่าน reflection ครั้งเดียว) */
+    private final Map<Method, CacheableX> annotations = new ConcurrentHashMap<>();
 
-    public CacheableXAspect(StringRedisTemplate redis, CacheProps props, ObjectMapper om) {
+    /** รูปแบบ return type ของเมธอด */
+    private enum Async { NONE, FUTURE, MONO }
+
+    /** เทียบด้วยชื่อ class → aspect ไม่อ้าง Mono.class ตรง ๆ (โหลดได้แม้ไม่มี reactor-core) */
+    private static final String MONO = "reactor.core.publisher.Mono";
+
+    public CacheableXAspect(RedisTemplate<String, byte[]> redis, CacheableXReactive reactive,
+                            CacheProps props, ObjectMapper om, CodecRegistry codecs, NearCache near,
+                            SingleFlight singleFlight, CacheLease lease, CacheMetrics metrics,
+                            CacheRefresher refresher, CacheWriteBehind writeBehind, CacheKeys keys,
+                            SpelRegistry spel, CacheTagIndex tags, CacheCircuitBreaker breaker,
+                            HotKeyCache hotKeys, CacheReplicas replicas, CacheWarmUp warmUp) {
         this.redis = redis;
+        this.reactive = reactive;
         this.props = props;
         this.om = om;
+        this.payloads = new CachePayloads(props, codecs, metrics);
+        this.near = near;
+        this.singleFlight = singleFlight;
+        this.lease = lease;
+        this.metrics = metrics;
+        this.refresher = refresher;
+        this.writeBehind = writeBehind;
+        this.keys = keys;
+        this.spel = spel;
+        this.tags = tags;
+        this.breaker = breaker;
+        this.hotKeys = hotKeys;
+        this.replicas = replicas;
+        this.warmUp = warmUp;
     }
 
-    @Around("@annotation(ann)")
-    public Object around(ProceedingJoinPoint pjp, CacheableX ann) throws Throwable {
+    @Around("execution(@com.zengcode.redisx.annotation.cache.CacheableX * *(..))")
+    public Object around(ProceedingJoinPoint pjp) throws Throwable {
         long startedAt = System.nanoTime();
 
         MethodSignature sig = (MethodSignature) pjp.getSignature();
         Method method = sig.getMethod();
+        CacheableX ann = annotation(method, pjp.getTarget());
+        if (ann == null) return pjp.proceed(); // match ไม่ได้ (ไม่ควรเกิด) → ทำงานปกติ
         Object[] args = pjp.getArgs();
 
         // 0) ปิดระบบ cache ทั้งหมด → ทำงานจริงแล้วจบ
@@ -70,27 +154,289 @@ public class CacheableXAspect {
         }
         long ttl = resolveTtl(ann);
 
-        // 3) GET from Redis
-        String json = getFromRedisSafe(key, startedAt);
-        if (json != null) {
-            return deserializeOrProceed(json, key, sig, pjp, method, startedAt);
+        Async async = asyncKind(method);
+        if (async != Async.NONE) {
+            if (reactive == null || !reactive.isAvailable()) {
+                return proceedAndDebug(pjp, method, startedAt, "async-without-reactive-template");
+            }
+            return reactive.around(new AsyncInvocation(pjp, ann, method, args, key, ttl), async == Async.FUTURE);
+        }
+
+        // 3) hot key: นับการเข้าถึง; key ที่ถูก promote อยู่ตอบจากสำเนาใน process (ไม่แตะ shard ของ key นั้น)
+        HotKeyCache.Region hot = hotKeys.region(ann.cacheName());
+        if (hot != null) {
+            Object copy = hot.access(key);
+            if (copy != null) {
+                if (log.isDebugEnabled()) log.debug("[CacheableX] HIT-HOT key={}", key);
+                return copy == HotKeyCache.NULL_VALUE ? null : copy;
+            }
+        }
+
+        // 4) L1 (near-cache) → GET from Redis
+        NearCache.Region l1 = near.region(ann.cacheName());
+        if (l1 != null) {
+            Object local = l1.get(key);
+            if (local != null) {
+                metrics.increment(L1_HIT, ann.cacheName());
+                warmUp.record(ann.cacheName(), key, returnType(method));
+                log.debug("[CacheableX] HIT-L1 key={}", key);
+                return local == NearCache.NULL_VALUE ? null : local;
+            }
+        }
+        long stamp = (l1 != null) ? near.stamp(key) : 0L;
+
+        long budgetMs = readBudgetMs(ann);
+        byte[] raw;
+        CacheProps.ReplicaSpec rs = replicas.spec(ann.cacheName());
+        if (rs != null && replicas.isReplicated(rs, key, hot)) {
+            // key ที่กระจายอยู่: อ่านจากสำเนาที่สุ่มได้ (ไม่ใส่ L1 — track ไว้ที่ key หลักเท่านั้น)
+            raw = getReplicatedSafe(ann.cacheName(), key, budgetMs);
+            l1 = null;
         } else {
-            log.debug("[CacheableX] MISS key={}", key);
+            raw = getFromRedisSafe(ann.cacheName(), key, l1, budgetMs);
+        }
+        if (raw == null && keys.isMigrating(ann.cacheName())) {
+            // ช่วงย้าย key-layout: อ่าน key ตาม layout เดิม (ไม่ใส่ L1 — key นั้นไม่ได้ถูก track ไว้)
+            raw = readLegacySafe(ann, method, args, budgetMs);
+            if (raw != null) l1 = null;
         }
+        if (raw != null) {
+            CacheEnvelope env = CacheEnvelope.parse(raw);
+            long now = System.currentTimeMillis();
+            if (env.isStale(now)) {
+                // เลย soft-TTL: คืนค่าเดิมทันที แล้ว reload เบื้องหลัง (ไม่ใส่ L1 เพื่อให้รอบหน้ามาเห็นค่าใหม่)
+                metrics.increment(STALE_HIT, ann.cacheName());
+                scheduleRefresh(pjp, ann, method, args, key, ttl);
+                return deserializeOrProceed(env, ann.cacheName(), key, pjp, method, startedAt, null, 0L, ttl, null);
+            }
+            if (env.shouldRecomputeEarly(now, props.getExpiry().resolve(ann.cacheName()).getXfetchBeta())) {
+                // XFetch: ใกล้หมดอายุ → refresh ล่วงหน้าแบบสุ่ม (ค่าปัจจุบันยังใช้ได้)
+                metrics.increment(XFETCH_EARLY, ann.cacheName());
+                scheduleRefresh(pjp, ann, method, args, key, ttl);
+            }
+            return deserializeOrProceed(env, ann.cacheName(), key, pjp, method, startedAt, l1, stamp, ttl, hot);
+        }
+        metrics.increment(MISS, ann.cacheName());
+        log.debug("[CacheableX] MISS key={}", key);
 
-        // 4) เรียกเมธอดจริง
-        Object result = proceedReal(pjp);
+        // 5) เรียกเมธอดจริง — caller พร้อมกันของ key เดียวกันจะรอผลจาก leader ตัวเดียว
+        return singleFlight.execute(ann.cacheName(), key,
+                () -> loadAndCache(pjp, ann, method, args, key, ttl, startedAt));
+    }
 
-        // 5) unless: ว่าง = false
-        if (evaluateUnlessSafe(ann.unless(), method, args, result)) {
-            log.info("[CacheableX] VETO (unless=true) NOT SET key={}", key);
+    /** MISS path ของ leader: (lease ข้าม node) → เรียกเมธอดจริง → unless → SETEX */
+    private Object loadAndCache(
+            ProceedingJoinPoint pjp,
+            CacheableX ann,
+            Method method,
+            Object[] args,
+            String key,
+            long ttl,
+            long startedAt
+    ) throws Throwable {
+        String token = null;
+        if (props.getSingleFlight().isDistributed() && breaker.isClosed()) {
+            try {
+                token = lease.tryAcquire(key, props.getSingleFlight().getLeaseMs());
+                // ได้ lease หรือไม่ได้ก็ตาม node อื่นอาจเพิ่งเขียนเสร็จ → เช็ค Redis อีกรอบ / รอผลของ node ที่ถือ lease
+                byte[] raw = (token != null) ? getFromRedisSafe(ann.cacheName(), key, null, 0L) : awaitRemoteLoad(ann.cacheName(), key);
+                if (raw != null) {
+                    if (token != null) lease.release(key, token);
+                    return deserializeOrProceed(CacheEnvelope.parse(raw), ann.cacheName(), key, pjp, method, startedAt, null, 0L, ttl, null);
+                }
+                if (token != null) metrics.increment(LEASE_ACQUIRED, ann.cacheName());
+            } catch (Exception e) {
+                log.warn("[CacheableX] lease error → load without lease, key={}", key, e);
+            }
+        }
+
+        try {
+            // 6) เรียกเมธอดจริง (จับเวลาไว้เป็น delta ของ XFetch)
+            long t0 = System.nanoTime();
+            Object result = proceedReal(pjp);
+            long loadNanos = System.nanoTime() - t0;
+            metrics.recordNanos(LOAD_TIME, ann.cacheName(), loadNanos);
+            long deltaMs = TimeUnit.NANOSECONDS.toMillis(loadNanos);
+
+            // 7) unless: ว่าง = false
+            if (evaluateUnlessSafe(ann.unless(), method, args, result)) {
+                metrics.increment(VETO, ann.cacheName());
+                log.debug("[CacheableX] VETO (unless=true) NOT SET key={}", key);
+                return result;
+            }
+
+            // 8) SETEX (รองรับ cache-null) — ถือ lease อยู่ต้องเขียนตรง: node ที่รออยู่จะเช็คค่าใน Redis ทันทีที่ lease หาย
+            writeToRedisSafe(ann.cacheName(), key, result, ttl, deltaMs, startedAt, token == null,
+                    evaluateTagsSafe(ann, method, args, result));
             return result;
+        } finally {
+            if (token != null) releaseLeaseSafe(key, token);
+        }
+    }
+
+    /**
+     * SWR: reload ค่า stale บน virtual thread (dedupe ต่อ key + จำกัดจำนวนพร้อมกันใน CacheRefresher)
+     * ถ้าเปิด distributed single-flight จะขอ lease ก่อน → ทั้ง fleet refresh key นี้แค่ node เดียว
+     * หมายเหตุ: เมธอดจริงถูกเรียกนอก thread ของ request (ThreadLocal เช่น transaction/security context ไม่ตามไป)
+     */
+    private void scheduleRefresh(ProceedingJoinPoint pjp, CacheableX ann, Method method, Object[] args, String key, long ttl) {
+        refresher.schedule(ann.cacheName(), key, () -> {
+            String token = null;
+            if (props.getSingleFlight().isDistributed()) {
+                if (!breaker.isClosed()) return; // เขียนกลับไม่ได้อยู่แล้ว
+                token = lease.tryAcquire(key, props.getSingleFlight().getLeaseMs());
+                if (token == null) {
+                    log.debug("[CacheableX] REFRESH skipped (lease held by other node) key={}", key);
+                    return;
+                }
+            }
+            try {
+                long t0 = System.nanoTime();
+                Object result = awaitIfAsync(proceedReal(pjp));
+                long deltaMs = elapsedMs(t0);
+                if (evaluateUnlessSafe(ann.unless(), method, args, result)) {
+                    log.debug("[CacheableX] REFRESH VETO (unless=true) key={}", key);
+                    return;
+                }
+                writeToRedisSafe(ann.cacheName(), key, result, ttl, deltaMs, t0, true,
+                        evaluateTagsSafe(ann, method, args, result));
+                near.invalidate(key);
+                hotKeys.invalidate(ann.cacheName(), key); // สำเนา hot key ของ node นี้ต้องไม่ค้างค่าก่อน refresh
+            } finally {
+                if (token != null) releaseLeaseSafe(key, token);
+            }
+        });
+    }
+
+    /** pipeline async ของ {@link CacheableXReactive} เรียกกลับมาใช้ SpEL / เมธอดจริง / SWR ของ aspect ผ่าน invocation นี้ */
+    private final class AsyncInvocation implements CacheableXReactive.Invocation {
+        private final ProceedingJoinPoint pjp;
+        private final CacheableX ann;
+        private final Method method;
+        private final Object[] args;
+        private final String key;
+        private final long ttl;
+
+        AsyncInvocation(ProceedingJoinPoint pjp, CacheableX ann, Method method, Object[] args, String key, long ttl) {
+            this.pjp = pjp;
+            this.ann = ann;
+            this.method = method;
+            this.args = args;
+            this.key = key;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public String cacheName() {
+            return ann.cacheName();
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public long ttl() {
+            return ttl;
+        }
+
+        @Override
+        public long readBudgetMs() {
+            return CacheableXAspect.this.readBudgetMs(ann);
+        }
+
+        @Override
+        public JavaType valueType() {
+            return returnType(method).containedType(0);
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return proceedReal(pjp);
+        }
+
+        @Override
+        public boolean unless(Object result) {
+            return evaluateUnlessSafe(ann.unless(), method, args, result);
+        }
+
+        @Override
+        public Set<String> tags(Object result) {
+            return evaluateTagsSafe(ann, method, args, result);
+        }
+
+        @Override
+        public String legacyKey() {
+            return keys.isMigrating(ann.cacheName()) ? legacyKeySafe(ann, method, args) : null;
+        }
+
+        @Override
+        public void refresh() {
+            scheduleRefresh(pjp, ann, method, args, key, ttl);
         }
+    }
+
+    /** refresh เบื้องหลังวิ่งบน virtual thread → รอผลของ future/Mono ตรงนั้นได้ */
+    private Object awaitIfAsync(Object result) {
+        if (result instanceof CompletionStage<?> cs) return cs.toCompletableFuture().join();
+        return reactive != null ? reactive.await(result) : result;
+    }
 
-        // 6) SETEX (รองรับ cache-null)
-        writeToRedisSafe(key, result, ttl, startedAt);
+    private static Async asyncKind(Method m) {
+        Class<?> rt = m.getReturnType();
+        if (rt == CompletableFuture.class || rt == CompletionStage.class) return Async.FUTURE;
+        if (rt.getName().equals(MONO)) return Async.MONO;
+        return Async.NONE;
+    }
+
+    /**
+     * node อื่นถือ lease อยู่ → poll Redis จนกว่าค่าจะถูกเขียน (ทุก GET ผ่าน breaker)
+     * คืน null เมื่อ lease หายไปโดยไม่มีค่า (leader veto/ล้ม), รอเกิน maxWaitMs, GET ล้ม
+     * หรือ breaker ไม่ CLOSED แล้ว (leader เขียนกลับไม่ได้เหมือนกัน ไม่ต้องรอต่อ) → caller โหลดเอง
+     */
+    private byte[] awaitRemoteLoad(String cacheName, String key) {
+        var sf = props.getSingleFlight();
+        long t0 = System.nanoTime();
+        long deadline = t0 + TimeUnit.MILLISECONDS.toNanos(sf.getMaxWaitMs());
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(sf.getPollIntervalMs());
+                if (!breaker.isClosed() || !breaker.tryAcquire()) break;
+                long c0 = System.nanoTime();
+                byte[] raw;
+                try {
+                    raw = redis.opsForValue().get(key);
+                    breaker.onSuccess(c0);
+                } catch (Exception e) {
+                    breaker.onError(c0);
+                    metrics.increment(ERROR, cacheName);
+                    log.warn("[CacheableX] REMOTE-LOAD GET error → load self, key={}", key, e);
+                    break;
+                }
+                if (raw != null) {
+                    metrics.increment(LEASE_REMOTE_HIT, cacheName);
+                    log.debug("[CacheableX] REMOTE-LOAD HIT key={} waited={}ms", key, elapsedMs(t0));
+                    return raw;
+                }
+                if (!lease.isHeld(key)) break;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            metrics.recordNanos(LEASE_WAIT, cacheName, System.nanoTime() - t0);
+        }
+        metrics.increment(LEASE_FALLBACK, cacheName);
+        log.debug("[CacheableX] REMOTE-LOAD gave up after {}ms → load self, key={}", elapsedMs(t0), key);
+        return null;
+    }
 
-        return result;
+    private void releaseLeaseSafe(String key, String token) {
+        try {
+            lease.release(key, token);
+        } catch (Exception e) {
+            log.warn("[CacheableX] lease release error (will expire) key={}", key, e);
+        }
     }
 
     // ───────────────────────────────────────────────────────────────────────────
@@ -101,7 +447,7 @@ public class CacheableXAspect {
     private boolean evaluateConditionSafe(String expr, Method m, Object[] args) {
         if (isBlank(expr)) return true;
         try {
-            return Spel.evalBool(expr, m, args, true);
+            return spel.forMethod(m).evalBool(expr, args, null, true);
         } catch (Exception e) {
             log.debug("[CacheableX] condition eval error → fallback=true, expr='{}'", expr, e);
             return true;
@@ -112,66 +458,203 @@ public class CacheableXAspect {
     private boolean evaluateUnlessSafe(String expr, Method m, Object[] args, Object result) {
         if (isBlank(expr)) return false;
         try {
-            return Spel.evalBoolWithResult(expr, m, args, result, false);
+            return spel.forMethod(m).evalBool(expr, args, result, false);
         } catch (Exception e) {
             log.debug("[CacheableX] unless eval error → fallback=false, expr='{}'", expr, e);
             return false;
         }
     }
 
-    /** สร้าง key; ถ้า eval ผิดพลาด → log แล้วคืน null เพื่อให้ caller proceed ต่อ */
+    /** สร้าง key (รวม routing segment ของ key-layout); ถ้า eval ผิดพลาด → log แล้วคืน null เพื่อให้ caller proceed ต่อ */
     private String buildKeySafe(CacheableX ann, Method m, Object[] args, long startedAt) {
         try {
-            String evaluated = Spel.evalStr(ann.key(), m, args);
-            String key = props.getPrefix() + ":" + ann.cacheName() + ":" + evaluated;
-            return key;
+            SpelRegistry.MethodSpel ms = spel.forMethod(m);
+            // eval แบบคืน Object: #id ที่เป็น Long/String ถูกต่อเข้า key ตรง ๆ ไม่ผ่าน String ชั่วคราว
+            return keys.key(ann.cacheName(), routing(ms, ann.cacheName(), args), ms.eval(ann.key(), args, null));
         } catch (Exception e) {
             log.debug("[CacheableX] key eval error expr='{}'", ann.key(), e);
             return null;
         }
     }
 
+    /** key เดียวกันตาม layout เดิม (ช่วง migrate-from); eval ซ้ำเฉพาะตอน MISS ระหว่างย้าย */
+    private String legacyKeySafe(CacheableX ann, Method m, Object[] args) {
+        try {
+            SpelRegistry.MethodSpel ms = spel.forMethod(m);
+            return keys.legacyKey(ann.cacheName(), routing(ms, ann.cacheName(), args), ms.evalStr(ann.key(), args));
+        } catch (Exception e) {
+            log.debug("[CacheableX] legacy key eval error expr='{}'", ann.key(), e);
+            return null;
+        }
+    }
+
+    private String routing(SpelRegistry.MethodSpel ms, String cacheName, Object[] args) {
+        String expr = keys.routingExpression(cacheName);
+        return expr == null ? null : ms.evalStr(expr, args);
+    }
+
+    private byte[] readLegacySafe(CacheableX ann, Method m, Object[] args, long budgetMs) {
+        String legacy = legacyKeySafe(ann, m, args);
+        if (legacy == null) return null;
+        byte[] raw = getFromRedisSafe(ann.cacheName(), legacy, null, budgetMs);
+        if (raw != null) {
+            metrics.increment(CacheKeys.LEGACY_HIT, ann.cacheName());
+            log.debug("[CacheableX] HIT (legacy layout) key={}", legacy);
+        }
+        return raw;
+    }
+
+    /** tags: ไม่มี expr → ชุดว่าง; eval พัง → ข้าม expr นั้น (entry ยัง cache ได้ แค่ลบตาม tag นั้นไม่ได้) */
+    private Set<String> evaluateTagsSafe(CacheableX ann, Method m, Object[] args, Object result) {
+        if (ann.tags().length == 0) return Set.of();
+        Set<String> out = new LinkedHashSet<>();
+        for (String expr : ann.tags()) {
+            try {
+                CacheTagIndex.flatten(spel.forMethod(m).eval(expr, args, result), out);
+            } catch (Exception e) {
+                log.warn("[CacheableX] tag eval error (skip tag) expr='{}'", expr, e);
+            }
+        }
+        return out;
+    }
+
     /** คืน TTL ที่ใช้จริง: ถ้าใน annotation ไม่กำหนดหรือ <=0 → ใช้ default */
     private long resolveTtl(CacheableX ann) {
         return ann.ttlSeconds() > 0 ? ann.ttlSeconds() : props.getDefaultTtlSeconds();
     }
 
-    /** GET แบบกันพัง: ถ้า Redis ล่ม → log แล้วคืน null (ให้ระบบยังไปต่อได้) */
-    private String getFromRedisSafe(String key, long startedAt) {
+    /** readTimeoutMs ของ annotation (-1 → ค่า global) */
+    private long readBudgetMs(CacheableX ann) {
+        return ann.readTimeoutMs() >= 0 ? ann.readTimeoutMs() : props.getReadTimeoutMs();
+    }
+
+    /**
+     * GET แบบกันพัง: ถ้า Redis ล่ม → log แล้วคืน null (ให้ระบบยังไปต่อได้); breaker OPEN → null ทันที
+     * budgetMs &gt; 0 → GET ผ่าน reactive template + timeout (เกิน = MISS, คำตอบที่มาทีหลังถูกทิ้ง)
+     * ไม่มี reactive template (เช่น Jedis / ไม่มี reactor-core), thread non-blocking หรือ L1 โหมด OPTIN (ต้องอ่านบน connection ที่ถูก track) → ไม่จำกัด
+     */
+    private byte[] getFromRedisSafe(String cacheName, String key, NearCache.Region l1, long budgetMs) {
+        if (!breaker.tryAcquire()) return null;
+        long t0 = System.nanoTime();
         try {
-            return redis.opsForValue().get(key);
+            // L1 เปิดอยู่ → อ่านผ่าน tracker (โหมด OPTIN ต้องอ่านบน connection ที่ถูก track)
+            byte[] raw = (l1 != null)
+                    ? near.readTracked(key, k -> get(cacheName, k, budgetMs))
+                    : get(cacheName, key, budgetMs);
+            metrics.recordNanos(READ_TIME, cacheName, System.nanoTime() - t0);
+            breaker.onSuccess(t0);
+            return raw;
         } catch (Exception e) {
+            breaker.onError(t0);
+            metrics.increment(ERROR, cacheName);
             log.warn("[CacheableX] Redis GET error key={}", key, e);
             return null;
         }
     }
 
-    /** แปลง JSON → object; ถ้าพังให้ proceed จริง (กันเคส schema เปลี่ยน) */
+    /** อ่าน key ที่กระจายอยู่: สุ่มสำเนา (key หลักหรือ replica); replica ว่าง → อ่าน key หลักแล้วเติม replica นั้น */
+    private byte[] getReplicatedSafe(String cacheName, String key, long budgetMs) {
+        int i = replicas.pick();
+        if (i < 0) return getFromRedisSafe(cacheName, key, null, budgetMs);
+        String replica = replicas.replicaKey(key, i);
+        byte[] raw = getFromRedisSafe(cacheName, replica, null, budgetMs);
+        if (raw != null) {
+            metrics.increment(CacheReplicas.HIT, cacheName);
+            return raw;
+        }
+        raw = getFromRedisSafe(cacheName, key, null, budgetMs);
+        if (raw != null) backfillSafe(cacheName, key, replica, raw);
+        return raw;
+    }
+
+    /** เติม replica ด้วย TTL ที่เหลือของ key หลัก (replica ไม่อยู่นานกว่าค่าที่คัดลอกมา) */
+    private void backfillSafe(String cacheName, String key, String replica, byte[] raw) {
+        if (!breaker.tryAcquire()) return;
+        long t0 = System.nanoTime();
+        try {
+            Long ttlMs = redis.getExpire(key, TimeUnit.MILLISECONDS);
+            if (ttlMs != null && ttlMs > 0) {
+                redis.opsForValue().set(replica, raw, Duration.ofMillis(ttlMs));
+                metrics.increment(CacheReplicas.BACKFILL, cacheName);
+            }
+            breaker.onSuccess(t0);
+        } catch (Exception e) {
+            breaker.onError(t0);
+            metrics.increment(ERROR, cacheName);
+            log.warn("[CacheableX] replica backfill error key={}", replica, e);
+        }
+    }
+
+    /** budget ใช้ได้เมื่อ block รอ reactive GET ได้ (ดู {@link CacheableXReactive#canBlock()}) ไม่งั้น GET ปกติ */
+    private byte[] get(String cacheName, String key, long budgetMs) {
+        if (budgetMs <= 0 || reactive == null || !reactive.canBlock()) return redis.opsForValue().get(key);
+        return reactive.get(cacheName, key, budgetMs);
+    }
+
+    /**
+     * แปลง byte[] → object ด้วย codec ตาม header (และใส่ L1 / สำเนา hot key ถ้าเปิด)
+     * ถ้าพังให้ proceed จริง (กันเคส schema เปลี่ยน)
+     */
     private Object deserializeOrProceed(
-            String json,
+            CacheEnvelope env,
+            String cacheName,
             String key,
-            MethodSignature sig,
             ProceedingJoinPoint pjp,
             Method method,
-            long startedAt
+            long startedAt,
+            NearCache.Region l1,
+            long stamp,
+            long ttl,
+            HotKeyCache.Region hot
     ) throws Throwable {
-        if (NULL_MARKER.equals(json)) {
-            long ms = elapsedMs(startedAt);
-            log.info("[CacheableX] HIT-NULL key={} took={}ms", key, ms);
+        if (env.isNull) {
+            metrics.increment(NULL_HIT, cacheName);
+            if (log.isDebugEnabled()) log.debug("[CacheableX] HIT-NULL key={} took={}ms", key, elapsedMs(startedAt));
+            if (l1 != null) l1.put(key, null, 0, stamp, props.getNullTtlSeconds());
+            if (hot != null) hot.offer(key, null);
             return null;
         }
         try {
-            JavaType rt = om.getTypeFactory().constructType(sig.getMethod().getGenericReturnType());
-            Object hit = om.readValue(json, rt);
-            int size = json.getBytes(StandardCharsets.UTF_8).length;
-            log.info("[CacheableX] HIT key={} size={}B", key, size);
+            Object hit = payloads.decode(env, cacheName, returnType(method));
+            int size = env.bytes.length;
+            metrics.increment(HIT, cacheName);
+            warmUp.record(cacheName, key, returnType(method));
+            if (log.isDebugEnabled()) {
+                log.debug("[CacheableX] HIT key={} codec={} size={}B", key, payloads.codec(env).name(), size);
+            }
+            if (l1 != null) l1.put(key, hit, size, stamp, l1TtlSeconds(env, ttl));
+            if (hot != null) hot.offer(key, hit);
             return hit;
         } catch (Exception e) {
+            metrics.increment(ERROR, cacheName);
             log.warn("[CacheableX] deserialization error → proceed real, key={}", key, e);
             return proceedAndDebug(pjp, method, startedAt, "deserialize-error");
         }
     }
 
+    /**
+     * annotation ของ method ที่ถูก intercept (cache ต่อ Method)
+     * JDK proxy: signature เป็น method ของ interface → ถ้าไม่เจอให้หาใน method ของ target class (ไม่ cache
+     * เพราะ interface method เดียวกันอาจมีหลาย implementation)
+     */
+    private CacheableX annotation(Method m, Object target) {
+        CacheableX a = annotations.get(m);
+        if (a != null) return a;
+        a = m.getAnnotation(CacheableX.class);
+        if (a != null) {
+            annotations.putIfAbsent(m, a);
+            return a;
+        }
+        return target == null ? null
+                : AopUtils.getMostSpecificMethod(m, AopUtils.getTargetClass(target)).getAnnotation(CacheableX.class);
+    }
+
+    private JavaType returnType(Method m) {
+        JavaType t = returnTypes.get(m);
+        return t != null ? t : returnTypes.computeIfAbsent(m,
+                k -> om.getTypeFactory().constructType(k.getGenericReturnType()));
+    }
+
     /** เรียกเมธอดจริง พร้อม debug เวลา */
     private Object proceedAndDebug(ProceedingJoinPoint pjp, Method method, long startedAt, String reason) throws Throwable {
         Object out = proceedReal(pjp);
@@ -186,33 +669,69 @@ public class CacheableXAspect {
         return pjp.proceed();
     }
 
-    /** SETEX แบบกันพัง: รองรับ cache-null ตาม config */
-    private void writeToRedisSafe(String key, Object result, long ttl, long startedAt) {
-        try {
-            String payload;
-            long useTtl;
+    /** L1 ต้องหมดอายุไม่เกิน soft-TTL เพื่อให้ read หลังจากนั้นไปเจอ stale ใน Redis แล้วสั่ง refresh */
+    private static long l1TtlSeconds(CacheEnvelope env, long ttl) {
+        if (env.softAtMs <= 0) return ttl;
+        long remainMs = env.softAtMs - System.currentTimeMillis();
+        return Math.max(1, Math.min(ttl, TimeUnit.MILLISECONDS.toSeconds(remainMs)));
+    }
 
-            if (result == null) {
-                if (!props.isCacheNull()) {
-                    log.debug("[CacheableX] SKIP SET (result=null) key={}", key);
+    /**
+     * SETEX แบบกันพัง: รองรับ cache-null ตาม config (encode/TTL ดู {@link CachePayloads#encode})
+     * cache ที่เปิด write-behind (และ allowBehind) → serialize บน thread นี้ (snapshot ค่า ณ ตอนคืน) แล้วเข้า queue แทน
+     * key ถูกลงทะเบียนกับ tag ทันทีแม้ยังอยู่ใน queue → evict ตาม tag ก่อน flush จะทิ้ง write ที่ค้างด้วย
+     * breaker OPEN → ข้ามการเขียนทั้งหมด (รวม write-behind)
+     */
+    private void writeToRedisSafe(String cacheName, String key, Object result, long ttl, long deltaMs, long startedAt,
+                                  boolean allowBehind, Set<String> tagSet) {
+        try {
+            CachePayloads.Encoded enc = payloads.encode(cacheName, result, ttl, deltaMs);
+            if (enc == null) {
+                log.debug("[CacheableX] SKIP SET (result=null) key={}", key);
+                return;
+            }
+            metrics.recordValue(VALUE_SIZE, cacheName, enc.payload().length);
+            if (!breaker.tryAcquire()) {
+                log.debug("[CacheableX] SKIP SET (breaker open) key={}", key);
+                return;
+            }
+            long t0 = System.nanoTime();
+            try {
+                List<String> copies = replicaTargets(cacheName, key);
+                if (allowBehind && writeBehind.isEnabled(cacheName)) {
+                    writeBehind.enqueue(cacheName, key, enc.payload(), enc.ttlSeconds());
+                    for (String r : copies) writeBehind.enqueue(cacheName, r, enc.payload(), enc.ttlSeconds());
+                    tags.register(cacheName, key, tagSet, enc.ttlSeconds());
+                    breaker.onSuccess(t0);
                     return;
                 }
-                payload = NULL_MARKER;
-                useTtl = props.getNullTtlSeconds();
-            } else {
-                payload = om.writeValueAsString(result);
-                useTtl = ttl;
+                Duration expiry = Duration.ofSeconds(enc.ttlSeconds());
+                redis.opsForValue().set(key, enc.payload(), expiry);
+                // replica คนละ slot → SET ทีละตัว (Cluster ไม่รองรับ pipeline ข้าม slot)
+                for (String r : copies) redis.opsForValue().set(r, enc.payload(), expiry);
+                tags.register(cacheName, key, tagSet, enc.ttlSeconds());
+                breaker.onSuccess(t0);
+            } catch (Exception e) {
+                breaker.onError(t0);
+                throw e;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("[CacheableX] SET key={} ttl={}s size={}B took={}ms",
+                        key, enc.ttlSeconds(), enc.payload().length, elapsedMs(startedAt));
             }
-
-            redis.opsForValue().set(key, payload, Duration.ofSeconds(useTtl));
-            int size = payload.getBytes(StandardCharsets.UTF_8).length;
-            long ms = elapsedMs(startedAt);
-            log.info("[CacheableX] SET key={} ttl={}s size={}B took={}ms", key, useTtl, size, ms);
         } catch (Exception e) {
+            metrics.increment(ERROR, cacheName);
             log.warn("[CacheableX] Redis SET error key={}", key, e);
         }
     }
 
+    /** ชื่อ replica ที่ต้องเขียนพร้อม key หลัก (ว่าง = key นี้ไม่ได้กระจาย) */
+    private List<String> replicaTargets(String cacheName, String key) {
+        CacheProps.ReplicaSpec rs = replicas.spec(cacheName);
+        if (rs == null || !replicas.isReplicated(rs, key, hotKeys.region(cacheName))) return List.of();
+        return replicas.replicaKeys(key);
+    }
+
     private static boolean isBlank(String s) {
         return s == null || s.isBlank();
     }
@@ -0,0 +1,368 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zengcode.redisx.annotation.cache.CacheableXBatch;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect สำหรับ @CacheableXBatch (เมธอดรูป Map&lt;Id, V&gt; loadAll(Collection&lt;Id&gt; ids))
+ * 1) สร้าง key ต่อ id (id ซ้ำถูกตัดออก) แล้ว MGET ครั้งเดียว (บน cluster แยก MGET ตาม slot)
+ * 2) เรียกเมธอดจริงด้วย collection ที่มีเฉพาะ id ที่ MISS
+ * 3) เขียนค่าที่โหลดมากลับใน pipeline เดียว (TTL ต่อ key ผ่าน jitter เหมือน @CacheableX)
+ * 4) คืน LinkedHashMap เรียงตามลำดับ id ที่ส่งเข้ามา; id ที่หาไม่เจอ (หรือเป็น cache-null) จะไม่อยู่ใน map
+ * รูปแบบค่าใน Redis เหมือน @CacheableX ทุกอย่าง → key เดียวกันอ่าน/เขียนข้ามสอง annotation ได้
+ * breaker OPEN → MISS ทั้งชุด (เรียกเมธอดจริงด้วย id ทั้งหมด) และไม่เขียนกลับ
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class CacheableXBatchAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheableXBatchAspect.class);
+    static final String BATCH_HIT_KEYS = "redisx.cache.batch.hit-keys";
+    static final String BATCH_MISS_KEYS = "redisx.cache.batch.miss-keys";
+    static final String BATCH_LOAD = "redisx.cache.batch.load";
+
+    /** บน cluster pipeline ข้าม node ไม่ได้ → เขียนต่อ slot ด้วย script เดียว (ARGV = value, ttl สลับกัน) */
+    private static final RedisScript<Long> SET_ALL = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do redis.call('set', KEYS[i], ARGV[2 * i - 1], 'EX', ARGV[2 * i]) end return #KEYS",
+            Long.class);
+
+    private static final Object NULL_HIT = new Object();
+
+    private final RedisTemplate<String, byte[]> redis;
+    private final CacheProps props;
+    private final ObjectMapper om;
+    private final CachePayloads payloads;
+    private final CacheMetrics metrics;
+    private final SpelRegistry spel;
+    private final CacheKeys cacheKeys;
+    private final boolean cluster;
+    private final CacheCircuitBreaker breaker;
+    /** metadata ต่อ method (ตำแหน่ง parameter ของ ids + type ของ value) */
+    private final Map<Method, Shape> shapes = new ConcurrentHashMap<>();
+
+    public CacheableXBatchAspect(RedisTemplate<String, byte[]> redis, CacheProps props, ObjectMapper om,
+                                 CodecRegistry codecs, CacheMetrics metrics, CacheKeys cacheKeys, SpelRegistry spel,
+                                 CacheCircuitBreaker breaker) {
+        this.redis = redis;
+        this.props = props;
+        this.om = om;
+        this.payloads = new CachePayloads(props, codecs, metrics);
+        this.metrics = metrics;
+        this.spel = spel;
+        this.cacheKeys = cacheKeys;
+        this.cluster = CacheKeys.clusterAware(redis.getConnectionFactory());
+        this.breaker = breaker;
+    }
+
+    @Around("@annotation(ann)")
+    public Object around(ProceedingJoinPoint pjp, CacheableXBatch ann) throws Throwable {
+        long startedAt = System.nanoTime();
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Object[] args = pjp.getArgs();
+
+        if (!props.isEnabled()) return pjp.proceed();
+        if (!evaluateConditionSafe(ann.condition(), method, args)) {
+            log.debug("[CacheableXBatch] condition=false → proceed");
+            return pjp.proceed();
+        }
+        Shape shape = shape(method);
+        if (shape == null) {
+            log.warn("[CacheableXBatch] unsupported signature (need Map return + Collection param) → proceed, method={}",
+                    method);
+            return pjp.proceed();
+        }
+        if (!(args[shape.idsIndex] instanceof Collection<?> requested) || requested.isEmpty()) {
+            return pjp.proceed();
+        }
+
+        // 1) id ไม่ซ้ำ (คงลำดับ) + key ต่อ id
+        List<Object> ids = new ArrayList<>(new LinkedHashSet<>(requested));
+        List<String> keys = buildKeysSafe(ann, method, args, ids, false);
+        if (keys == null) return pjp.proceed();
+
+        // 2) MGET
+        byte[][] raws = multiGetSafe(ann.cacheName(), keys);
+        Map<Object, Object> values = new HashMap<>(ids.size() * 2);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object hit = decodeSafe(ann.cacheName(), keys.get(i), raws[i], shape.valueType);
+            if (hit == null) missing.add(i);
+            else values.put(ids.get(i), hit);
+        }
+        if (!missing.isEmpty() && cacheKeys.isMigrating(ann.cacheName())) {
+            missing = readLegacy(ann, method, args, ids, missing, values, shape.valueType);
+        }
+        metrics.recordValue(BATCH_HIT_KEYS, ann.cacheName(), ids.size() - missing.size());
+        metrics.recordValue(BATCH_MISS_KEYS, ann.cacheName(), missing.size());
+
+        // 3) เรียกเมธอดจริงเฉพาะ id ที่ MISS แล้วเขียนกลับ
+        if (!missing.isEmpty()) {
+            List<Object> missingIds = new ArrayList<>(missing.size());
+            for (int i : missing) missingIds.add(ids.get(i));
+            Collection<Object> missingArg = shape.newCollection(missingIds);
+            if (missingArg == null) return pjp.proceed(); // collection แบบที่สร้างใหม่ไม่ได้ → เรียกทั้งก้อน
+            Object[] callArgs = args.clone();
+            callArgs[shape.idsIndex] = missingArg;
+
+            long t0 = System.nanoTime();
+            Map<?, ?> loaded = (Map<?, ?>) pjp.proceed(callArgs);
+            long deltaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+            metrics.recordNanos(BATCH_LOAD, ann.cacheName(), System.nanoTime() - t0);
+
+            Map<String, CachePayloads.Encoded> writes = new LinkedHashMap<>();
+            for (int i : missing) {
+                Object v = (loaded != null) ? loaded.get(ids.get(i)) : null;
+                if (v != null) values.put(ids.get(i), v);
+                encodeSafe(ann.cacheName(), keys.get(i), v, resolveTtl(ann), deltaMs, writes);
+            }
+            writeAllSafe(ann.cacheName(), writes);
+        }
+
+        // 4) merge ตามลำดับเดิม
+        Map<Object, Object> out = new LinkedHashMap<>(ids.size() * 2);
+        for (Object id : ids) {
+            Object v = values.get(id);
+            if (v != null && v != NULL_HIT) out.put(id, v);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("[CacheableXBatch] {} ids={} hit={} miss={} took={}ms", ann.cacheName(), ids.size(),
+                    ids.size() - missing.size(), missing.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+        return out;
+    }
+
+    // ───────────────────────────────────────────────────────────────────────────
+    // Helpers
+    // ───────────────────────────────────────────────────────────────────────────
+
+    /** condition: ถ้า expr ว่าง → true, error → true (fail-open) */
+    private boolean evaluateConditionSafe(String expr, Method m, Object[] args) {
+        if (expr == null || expr.isBlank()) return true;
+        try {
+            return spel.forMethod(m).evalBool(expr, args, null, true);
+        } catch (Exception e) {
+            log.debug("[CacheableXBatch] condition eval error → fallback=true, expr='{}'", expr, e);
+            return true;
+        }
+    }
+
+    /**
+     * key ต่อ id (ผ่าน CacheKeys เหมือน @CacheableX); "#id" (ค่า default) ไม่ต้องผ่าน SpEL; eval พัง → null (proceed ทั้งก้อน)
+     * routing expression ของ key-layout เห็น #id ของแต่ละตัวเหมือน key; legacy = key ตาม layout เดิม (null ถ้าซ้ำกับปัจจุบัน)
+     */
+    private List<String> buildKeysSafe(CacheableXBatch ann, Method m, Object[] args, List<Object> ids, boolean legacy) {
+        String cacheName = ann.cacheName();
+        String routingExpr = cacheKeys.routingExpression(cacheName);
+        String base = (legacy || routingExpr != null) ? null : cacheKeys.prefix(cacheName);
+        boolean plain = "#id".equals(ann.key().trim());
+        try {
+            List<String> keys = new ArrayList<>(ids.size());
+            SpelRegistry.MethodSpel ms = (plain && routingExpr == null) ? null : spel.forMethod(m);
+            for (Object id : ids) {
+                String k = plain ? String.valueOf(id) : ms.evalStr(ann.key(), args, "id", id);
+                if (base != null) {
+                    keys.add(base + k);
+                    continue;
+                }
+                String routing = routingExpr == null ? null : ms.evalStr(routingExpr, args, "id", id);
+                keys.add(legacy ? cacheKeys.legacyKey(cacheName, routing, k) : cacheKeys.key(cacheName, routing, k));
+            }
+            return keys;
+        } catch (Exception e) {
+            log.debug("[CacheableXBatch] key eval error expr='{}'", ann.key(), e);
+            return null;
+        }
+    }
+
+    /** ช่วงย้าย key-layout: MGET key ตาม layout เดิมของ id ที่ MISS; คืน index ที่ยัง MISS */
+    private List<Integer> readLegacy(CacheableXBatch ann, Method m, Object[] args, List<Object> ids,
+                                     List<Integer> missing, Map<Object, Object> values, JavaType type) {
+        List<Object> missIds = new ArrayList<>(missing.size());
+        for (int i : missing) missIds.add(ids.get(i));
+        List<String> legacy = buildKeysSafe(ann, m, args, missIds, true);
+        if (legacy == null) return missing;
+        List<Integer> idx = new ArrayList<>(missing.size());
+        List<String> lookup = new ArrayList<>(missing.size());
+        for (int j = 0; j < legacy.size(); j++) {
+            if (legacy.get(j) == null) continue;
+            idx.add(missing.get(j));
+            lookup.add(legacy.get(j));
+        }
+        if (lookup.isEmpty()) return missing;
+        byte[][] raws = multiGetSafe(ann.cacheName(), lookup);
+        Set<Integer> found = new HashSet<>();
+        for (int j = 0; j < lookup.size(); j++) {
+            Object hit = decodeSafe(ann.cacheName(), lookup.get(j), raws[j], type);
+            if (hit == null) continue;
+            values.put(ids.get(idx.get(j)), hit);
+            found.add(idx.get(j));
+            metrics.increment(CacheKeys.LEGACY_HIT, ann.cacheName());
+        }
+        if (found.isEmpty()) return missing;
+        List<Integer> still = new ArrayList<>(missing.size() - found.size());
+        for (int i : missing) if (!found.contains(i)) still.add(i);
+        return still;
+    }
+
+    /** MGET แบบกันพัง (Redis ล่ม → ถือว่า MISS ทั้งหมด); cluster → MGET แยกตาม slot (แต่ละชุดไปที่ node เดียว) */
+    private byte[][] multiGetSafe(String cacheName, List<String> keys) {
+        byte[][] out = new byte[keys.size()][];
+        if (!breaker.tryAcquire()) return out;
+        long t0 = System.nanoTime();
+        try {
+            if (!cluster) {
+                fill(out, redis.opsForValue().multiGet(keys), null);
+                breaker.onSuccess(t0);
+                return out;
+            }
+            Map<Integer, List<Integer>> bySlot = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                bySlot.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(keys.get(i)), s -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> idx : bySlot.values()) {
+                List<String> part = new ArrayList<>(idx.size());
+                for (int i : idx) part.add(keys.get(i));
+                fill(out, redis.opsForValue().multiGet(part), idx);
+            }
+            breaker.onSuccess(t0);
+        } catch (Exception e) {
+            breaker.onError(t0);
+            metrics.increment(CacheableXAspect.ERROR, cacheName);
+            log.warn("[CacheableXBatch] Redis MGET error keys={}", keys.size(), e);
+            return new byte[keys.size()][];
+        }
+        return out;
+    }
+
+    private static void fill(byte[][] out, List<byte[]> got, List<Integer> idx) {
+        if (got == null) return;
+        for (int i = 0; i < got.size(); i++) out[idx == null ? i : idx.get(i)] = got.get(i);
+    }
+
+    /** null = MISS (ไม่มีค่า/อ่านไม่ได้), NULL_HIT = cache-null */
+    private Object decodeSafe(String cacheName, String key, byte[] raw, JavaType type) {
+        if (raw == null) return null;
+        try {
+            CacheEnvelope env = CacheEnvelope.parse(raw);
+            return env.isNull ? NULL_HIT : payloads.decode(env, cacheName, type);
+        } catch (Exception e) {
+            metrics.increment(CacheableXAspect.ERROR, cacheName);
+            log.warn("[CacheableXBatch] deserialization error → reload, key={}", key, e);
+            return null;
+        }
+    }
+
+    private void encodeSafe(String cacheName, String key, Object value, long ttl, long deltaMs,
+                            Map<String, CachePayloads.Encoded> writes) {
+        try {
+            CachePayloads.Encoded enc = payloads.encode(cacheName, value, ttl, deltaMs);
+            if (enc != null) writes.put(key, enc);
+        } catch (Exception e) {
+            metrics.increment(CacheableXAspect.ERROR, cacheName);
+            log.warn("[CacheableXBatch] serialize error (skip SET) key={}", key, e);
+        }
+    }
+
+    /** SET ทุก key พร้อม TTL ของตัวเองใน round trip เดียว (cluster: หนึ่ง script ต่อ slot) */
+    private void writeAllSafe(String cacheName, Map<String, CachePayloads.Encoded> writes) {
+        if (writes.isEmpty() || !breaker.tryAcquire()) return;
+        long t0 = System.nanoTime();
+        try {
+            if (!cluster) {
+                redis.executePipelined((RedisCallback<Object>) conn -> {
+                    writes.forEach((k, enc) -> conn.stringCommands().set(k.getBytes(StandardCharsets.UTF_8),
+                            enc.payload(), Expiration.seconds(enc.ttlSeconds()), RedisStringCommands.SetOption.upsert()));
+                    return null;
+                });
+            } else {
+                Map<Integer, List<String>> bySlot = new LinkedHashMap<>();
+                writes.keySet().forEach(k -> bySlot.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(k),
+                        s -> new ArrayList<>()).add(k));
+                for (List<String> part : bySlot.values()) {
+                    Object[] argv = new Object[part.size() * 2];
+                    for (int i = 0; i < part.size(); i++) {
+                        CachePayloads.Encoded enc = writes.get(part.get(i));
+                        argv[2 * i] = enc.payload();
+                        argv[2 * i + 1] = Long.toString(enc.ttlSeconds()).getBytes(StandardCharsets.US_ASCII);
+                    }
+                    redis.execute(SET_ALL, part, argv);
+                }
+            }
+            breaker.onSuccess(t0);
+            log.debug("[CacheableXBatch] SET {} keys", writes.size());
+        } catch (Exception e) {
+            breaker.onError(t0);
+            metrics.increment(CacheableXAspect.ERROR, cacheName);
+            log.warn("[CacheableXBatch] Redis SET error keys={}", writes.size(), e);
+        }
+    }
+
+    private long resolveTtl(CacheableXBatch ann) {
+        return ann.ttlSeconds() > 0 ? ann.ttlSeconds() : props.getDefaultTtlSeconds();
+    }
+
+    private Shape shape(Method m) {
+        Shape s = shapes.get(m);
+        return s != null ? s : shapes.computeIfAbsent(m, k -> Shape.of(k, om)).orNull();
+    }
+
+    /** parameter ตัวแรกที่เป็น Collection = ids; return type ต้องรับ LinkedHashMap ได้ */
+    private record Shape(int idsIndex, Class<?> idsType, JavaType valueType) {
+
+        private static final Shape NONE = new Shape(-1, null, null);
+
+        static Shape of(Method m, ObjectMapper om) {
+            if (!m.getReturnType().isAssignableFrom(LinkedHashMap.class)) return NONE;
+            Class<?>[] params = m.getParameterTypes();
+            for (int i = 0; i < params.length; i++) {
+                if (Collection.class.isAssignableFrom(params[i])) {
+                    JavaType mapType = om.getTypeFactory().constructType(m.getGenericReturnType());
+                    JavaType value = mapType.getContentType() != null ? mapType.getContentType()
+                            : om.getTypeFactory().constructType(Object.class);
+                    return new Shape(i, params[i], value);
+                }
+            }
+            return NONE;
+        }
+
+        Shape orNull() {
+            return this == NONE ? null : this;
+        }
+
+        /** collection ของ id ที่ MISS ในรูปที่ parameter รับได้ (Set → LinkedHashSet, อื่น ๆ → ArrayList) */
+        Collection<Object> newCollection(List<Object> ids) {
+            Collection<Object> c = Set.class.isAssignableFrom(idsType) ? new LinkedHashSet<>(ids) : new ArrayList<>(ids);
+            return idsType.isInstance(c) ? c : null;
+        }
+    }
+}
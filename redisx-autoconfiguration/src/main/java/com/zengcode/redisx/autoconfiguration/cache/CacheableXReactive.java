@@ -0,0 +1,282 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.ERROR;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.HIT;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.LOAD_TIME;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.MISS;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.NULL_HIT;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.READ_BUDGET_OVERRUN;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.READ_BUDGET_READS;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.READ_TIME;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.STALE_HIT;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.VALUE_SIZE;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.VETO;
+import static com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect.XFETCH_EARLY;
+
+/**
+ * ส่วนที่ใช้ Reactor ของ {@link CacheableXAspect} (แยกออกมาเพื่อให้ aspect โหลดได้บนแอปที่ไม่มี reactor-core เช่น Jedis ล้วน)
+ * - เมธอดที่คืน CompletableFuture/CompletionStage/Mono: GET/SET ผ่าน ReactiveRedisTemplate ไม่ block thread ของ caller
+ * - GET ของเมธอด sync ที่มี read budget: reactive GET + timeout แล้ว block รอ
+ * bean นี้มีเฉพาะเมื่อมี reactor-core ใน classpath; ไม่มี reactive template (เช่น Jedis) → {@link #isAvailable()} = false
+ */
+public class CacheableXReactive {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheableXReactive.class);
+
+    /** ส่วนของ aspect ที่ pipeline async ต้องใช้ (SpEL / เรียกเมธอดจริง / SWR) ต่อหนึ่ง invocation */
+    interface Invocation {
+        String cacheName();
+
+        String key();
+
+        long ttl();
+
+        long readBudgetMs();
+
+        /** type ของค่าที่อยู่ใน future/Mono */
+        JavaType valueType();
+
+        Object proceed() throws Throwable;
+
+        boolean unless(Object result);
+
+        Set<String> tags(Object result);
+
+        /** key ตาม layout เดิมระหว่างย้าย key-layout (null = ไม่ได้ย้าย / eval พัง) */
+        String legacyKey();
+
+        /** SWR / XFetch: reload เบื้องหลัง */
+        void refresh();
+    }
+
+    /** null = ไม่มี reactive connection factory (เช่น Jedis) → เมธอด async ไม่ผ่าน cache */
+    private final ReactiveRedisTemplate<String, byte[]> reactive;
+    private final CacheProps props;
+    private final CachePayloads payloads;
+    private final CacheMetrics metrics;
+    private final CacheCircuitBreaker breaker;
+    private final CacheTagIndex tags;
+
+    public CacheableXReactive(ReactiveRedisTemplate<String, byte[]> reactive, CacheProps props, CodecRegistry codecs,
+                              CacheMetrics metrics, CacheCircuitBreaker breaker, CacheTagIndex tags) {
+        this.reactive = reactive;
+        this.props = props;
+        this.payloads = new CachePayloads(props, codecs, metrics);
+        this.metrics = metrics;
+        this.breaker = breaker;
+        this.tags = tags;
+    }
+
+    /** มี reactive template ให้ใช้หรือไม่ */
+    public boolean isAvailable() {
+        return reactive != null;
+    }
+
+    // ───────────────────────────────────────────────────────────────────────────
+    // Sync GET ที่มี read budget
+    // ───────────────────────────────────────────────────────────────────────────
+
+    /**
+     * block รอ GET แบบมี budget บน thread นี้ได้ไหม
+     * thread non-blocking ของ Reactor/Netty (เช่น WebFlux) block() จะโยน IllegalStateException
+     * ซึ่งไม่ใช่ความผิดของ Redis → caller ต้องใช้ GET ปกติแทน ไม่ให้ breaker นับเป็น error
+     */
+    boolean canBlock() {
+        return reactive != null && !Schedulers.isInNonBlockingThread();
+    }
+
+    /** GET + timeout แล้ว block รอ; เกิน budget → null (= MISS) */
+    byte[] get(String cacheName, String key, long budgetMs) {
+        metrics.increment(READ_BUDGET_READS, cacheName);
+        return withBudget(reactive.opsForValue().get(key), cacheName, key, budgetMs).block();
+    }
+
+    /** refresh เบื้องหลังวิ่งบน virtual thread → รอผลของ Mono ตรงนั้นได้ */
+    Object await(Object result) {
+        return result instanceof Mono<?> m ? m.block() : result;
+    }
+
+    // ───────────────────────────────────────────────────────────────────────────
+    // Async (CompletableFuture / Mono): GET → HIT หรือเรียกเมธอดจริง → SET เมื่อ complete
+    // Optional ใน pipeline แยก "cache ค่า null" (Optional.empty) ออกจาก MISS (Mono ว่าง)
+    // ไม่ผ่าน L1 / single-flight (ทั้งสองอย่าง block) แต่ยังรองรับ SWR/XFetch ผ่าน CacheRefresher
+    // ───────────────────────────────────────────────────────────────────────────
+
+    /** @param future true = เมธอดคืน CompletableFuture/CompletionStage, false = คืน Mono */
+    Object around(Invocation inv, boolean future) {
+        Mono<Optional<Object>> miss = Mono.defer(() -> loadAsync(inv));
+        // เมธอดที่คืน future อาจทำงาน sync ก่อนคืน future → ไม่เรียกบน I/O thread ของ Lettuce
+        if (future) miss = miss.subscribeOn(Schedulers.boundedElastic());
+        Mono<Optional<Object>> out = readAsync(inv).switchIfEmpty(miss);
+        if (!future) return out.flatMap(Mono::justOrEmpty);
+        return out.toFuture().thenApply(o -> o.orElse(null));
+    }
+
+    /** GET แบบ non-blocking; Mono ว่าง = MISS (รวมถึง Redis error / decode พัง → fail-open) */
+    private Mono<Optional<Object>> readAsync(Invocation inv) {
+        String cacheName = inv.cacheName();
+        String key = inv.key();
+        return Mono.defer(() -> {
+                    if (!breaker.tryAcquire()) return Mono.<byte[]>empty();
+                    long t0 = System.nanoTime();
+                    long budgetMs = inv.readBudgetMs();
+                    Mono<byte[]> get = reactive.opsForValue().get(key);
+                    if (budgetMs > 0) {
+                        metrics.increment(READ_BUDGET_READS, cacheName);
+                        get = withBudget(get, cacheName, key, budgetMs);
+                    }
+                    return get
+                            .switchIfEmpty(Mono.defer(() -> readLegacyAsync(inv)))
+                            .doOnSuccess(v -> {
+                                metrics.recordNanos(READ_TIME, cacheName, System.nanoTime() - t0);
+                                breaker.onSuccess(t0);
+                            })
+                            .doOnError(e -> breaker.onError(t0));
+                })
+                .onErrorResume(e -> {
+                    metrics.increment(ERROR, cacheName);
+                    log.warn("[CacheableX] Redis GET error key={}", key, e);
+                    return Mono.empty();
+                })
+                .flatMap(raw -> {
+                    try {
+                        CacheEnvelope env = CacheEnvelope.parse(raw);
+                        if (env.isNull) {
+                            metrics.increment(NULL_HIT, cacheName);
+                            log.debug("[CacheableX] HIT-NULL (async) key={}", key);
+                            return Mono.just(Optional.empty());
+                        }
+                        long now = System.currentTimeMillis();
+                        if (env.isStale(now)) {
+                            metrics.increment(STALE_HIT, cacheName);
+                            inv.refresh();
+                        } else if (env.shouldRecomputeEarly(now, props.getExpiry().resolve(cacheName).getXfetchBeta())) {
+                            metrics.increment(XFETCH_EARLY, cacheName);
+                            inv.refresh();
+                        }
+                        Object hit = payloads.decode(env, cacheName, inv.valueType());
+                        metrics.increment(HIT, cacheName);
+                        log.debug("[CacheableX] HIT (async) key={} size={}B", key, raw.length);
+                        return Mono.just(Optional.ofNullable(hit));
+                    } catch (Exception e) {
+                        metrics.increment(ERROR, cacheName);
+                        log.warn("[CacheableX] deserialization error → proceed real, key={}", key, e);
+                        return Mono.empty();
+                    }
+                });
+    }
+
+    /** ช่วงย้าย key-layout: อ่าน key ตาม layout เดิมเมื่อ key ใหม่ว่าง */
+    private Mono<byte[]> readLegacyAsync(Invocation inv) {
+        String legacy = inv.legacyKey();
+        if (legacy == null) return Mono.empty();
+        return reactive.opsForValue().get(legacy)
+                .doOnNext(raw -> metrics.increment(CacheKeys.LEGACY_HIT, inv.cacheName()));
+    }
+
+    /** MISS: เรียกเมธอดจริง → รอผลแบบ non-blocking → unless → SET (รอ SET เสร็จก่อนส่งค่าต่อ แต่ error ไม่กระทบผล) */
+    private Mono<Optional<Object>> loadAsync(Invocation inv) {
+        String cacheName = inv.cacheName();
+        String key = inv.key();
+        metrics.increment(MISS, cacheName);
+        log.debug("[CacheableX] MISS (async) key={}", key);
+        long t0 = System.nanoTime();
+        Mono<Object> source;
+        try {
+            source = toMono(inv.proceed());
+        } catch (Throwable t) {
+            return Mono.error(t);
+        }
+        return source.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(opt -> {
+                    metrics.recordNanos(LOAD_TIME, cacheName, System.nanoTime() - t0);
+                    Object result = opt.orElse(null);
+                    if (inv.unless(result)) {
+                        metrics.increment(VETO, cacheName);
+                        log.debug("[CacheableX] VETO (unless=true) NOT SET key={}", key);
+                        return Mono.just(opt);
+                    }
+                    return writeAsync(cacheName, key, result, inv.ttl(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), inv.tags(result)).thenReturn(opt);
+                });
+    }
+
+    private Mono<Void> writeAsync(String cacheName, String key, Object result, long ttl, long deltaMs,
+                                  Set<String> tagSet) {
+        CachePayloads.Encoded enc;
+        try {
+            enc = payloads.encode(cacheName, result, ttl, deltaMs);
+        } catch (Exception e) {
+            metrics.increment(ERROR, cacheName);
+            log.warn("[CacheableX] serialize error (skip SET) key={}", key, e);
+            return Mono.empty();
+        }
+        if (enc == null) return Mono.empty();
+        metrics.recordValue(VALUE_SIZE, cacheName, enc.payload().length);
+        return Mono.defer(() -> {
+                    if (!breaker.tryAcquire()) return Mono.<Void>empty();
+                    long t0 = System.nanoTime();
+                    return reactive.opsForValue().set(key, enc.payload(), Duration.ofSeconds(enc.ttlSeconds()))
+                            .doOnNext(ok -> log.debug("[CacheableX] SET (async) key={} ttl={}s size={}B",
+                                    key, enc.ttlSeconds(), enc.payload().length))
+                            .then(registerTags(cacheName, key, tagSet, enc.ttlSeconds()))
+                            .doOnSuccess(v -> breaker.onSuccess(t0))
+                            .doOnError(e -> breaker.onError(t0));
+                })
+                .onErrorResume(e -> {
+                    metrics.increment(ERROR, cacheName);
+                    log.warn("[CacheableX] Redis SET error key={}", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    /** {@link CacheTagIndex#register} แบบ non-blocking (template ฝั่ง value เป็น byte[]) */
+    private Mono<Void> registerTags(String cacheName, String key, Set<String> tagSet, long ttlSeconds) {
+        if (tagSet.isEmpty()) return Mono.empty();
+        long ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        long now = System.currentTimeMillis();
+        List<byte[]> argv = List.of(bytes(key), bytes(Long.toString(now + ttlMs)), bytes(Long.toString(now)),
+                bytes(Long.toString(ttlMs)));
+        return Flux.fromIterable(tags.registerBatches(tagSet))
+                .concatMap(keys -> reactive.execute(CacheTagIndex.REGISTER, keys, argv))
+                .then()
+                .doOnSuccess(v -> tags.registered(cacheName));
+    }
+
+    /** เกิน budget → Mono ว่าง (= MISS) + นับ overrun ต่อ cacheName; subscription เดิมถูก cancel → คำตอบที่มาช้าถูกทิ้ง */
+    private Mono<byte[]> withBudget(Mono<byte[]> get, String cacheName, String key, long budgetMs) {
+        return get.timeout(Duration.ofMillis(budgetMs), Mono.defer(() -> {
+            metrics.increment(READ_BUDGET_OVERRUN, cacheName);
+            log.debug("[CacheableX] READ BUDGET {}ms exceeded → proceed real, key={}", budgetMs, key);
+            return Mono.empty();
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<Object> toMono(Object result) {
+        if (result == null) return Mono.empty();
+        if (result instanceof Mono<?> m) return (Mono<Object>) m;
+        return Mono.fromCompletionStage((CompletionStage<Object>) result);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
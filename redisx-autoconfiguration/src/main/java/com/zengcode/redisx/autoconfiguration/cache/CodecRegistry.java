@@ -0,0 +1,54 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * รวม {@link RedisXCodec} ทุกตัว: เลือก codec สำหรับเขียนตาม cacheName, และหา codec สำหรับอ่านตาม id ใน header
+ * ตั้งค่าผิด (ชื่อ codec ไม่มีจริง / id ซ้ำ) → startup ล้ม
+ */
+public class CodecRegistry {
+
+    private final RedisXCodec[] byId = new RedisXCodec[16];
+    private final Map<String, RedisXCodec> byName = new HashMap<>();
+    private final Map<String, RedisXCodec> byCache = new HashMap<>();
+    private final RedisXCodec defaultCodec;
+
+    public CodecRegistry(List<RedisXCodec> codecs, CacheProps props) {
+        for (RedisXCodec c : codecs) {
+            if (!CacheEnvelope.isValidCodecId(c.id())) {
+                throw new IllegalStateException("[RedisX] invalid codec id " + c.id() + " for '" + c.name() + "'");
+            }
+            if (byId[c.id()] != null) {
+                throw new IllegalStateException("[RedisX] duplicate codec id " + c.id() + ": '"
+                        + byId[c.id()].name() + "' and '" + c.name() + "'");
+            }
+            byId[c.id()] = c;
+            byName.put(c.name(), c);
+        }
+        CacheProps.Codec cfg = props.getCodec();
+        this.defaultCodec = named(cfg.getDefaultCodec());
+        cfg.getCaches().forEach((cacheName, codecName) -> byCache.put(cacheName, named(codecName)));
+    }
+
+    /** codec ที่ใช้เขียนค่าของ cacheName นี้ */
+    public RedisXCodec forCache(String cacheName) {
+        RedisXCodec c = byCache.get(cacheName);
+        return c != null ? c : defaultCodec;
+    }
+
+    /** codec ที่เขียนค่านี้ (จาก header), null ถ้าไม่รู้จัก */
+    public RedisXCodec byId(int id) {
+        return (id >= 0 && id < byId.length) ? byId[id] : null;
+    }
+
+    private RedisXCodec named(String name) {
+        RedisXCodec c = byName.get(name);
+        if (c == null) {
+            throw new IllegalStateException("[RedisX] unknown codec '" + name + "' (available: " + byName.keySet()
+                    + "; smile/cbor need jackson-dataformat-smile/-cbor on the classpath)");
+        }
+        return c;
+    }
+}
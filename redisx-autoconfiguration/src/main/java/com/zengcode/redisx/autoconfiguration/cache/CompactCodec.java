@@ -0,0 +1,70 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * codec แบบ binary กะทัดรัดสำหรับค่า scalar ที่เจอบ่อย (String, ตัวเลข, Boolean, byte[])
+ * byte แรกเป็น tag ของชนิด ตามด้วยค่า raw (ไม่มี quote/escape ของ JSON)
+ * ชนิดอื่น (POJO, collection) → tag OBJECT + payload ของ codec สำรอง (ปกติคือ JSON)
+ */
+public class CompactCodec implements RedisXCodec {
+
+    public static final int ID = 5;
+
+    private static final byte STRING = 1, LONG = 2, INT = 3, DOUBLE = 4, BOOLEAN = 5, BYTES = 6, OBJECT = 7;
+
+    private final RedisXCodec fallback;
+
+    public CompactCodec(RedisXCodec fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "compact";
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        if (value instanceof String s) return tagged(STRING, s.getBytes(StandardCharsets.UTF_8));
+        if (value instanceof Long l) return ByteBuffer.allocate(9).put(LONG).putLong(l).array();
+        if (value instanceof Integer i) return ByteBuffer.allocate(5).put(INT).putInt(i).array();
+        if (value instanceof Double d) return ByteBuffer.allocate(9).put(DOUBLE).putDouble(d).array();
+        if (value instanceof Boolean b) return new byte[]{BOOLEAN, (byte) (b ? 1 : 0)};
+        if (value instanceof byte[] raw) return tagged(BYTES, raw);
+        return tagged(OBJECT, fallback.encode(value));
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length, JavaType type) throws IOException {
+        if (length < 1) throw new IOException("empty compact payload");
+        ByteBuffer buf = ByteBuffer.wrap(bytes, offset + 1, length - 1);
+        return switch (bytes[offset]) {
+            case STRING -> new String(bytes, offset + 1, length - 1, StandardCharsets.UTF_8);
+            case LONG -> buf.getLong();
+            case INT -> buf.getInt();
+            case DOUBLE -> buf.getDouble();
+            case BOOLEAN -> bytes[offset + 1] != 0;
+            case BYTES -> Arrays.copyOfRange(bytes, offset + 1, offset + length);
+            case OBJECT -> fallback.decode(bytes, offset + 1, length - 1, type);
+            default -> throw new IOException("unknown compact tag " + bytes[offset]);
+        };
+    }
+
+    private static byte[] tagged(byte tag, byte[] body) {
+        byte[] out = new byte[body.length + 1];
+        out[0] = tag;
+        System.arraycopy(body, 0, out, 1, body.length);
+        return out;
+    }
+}
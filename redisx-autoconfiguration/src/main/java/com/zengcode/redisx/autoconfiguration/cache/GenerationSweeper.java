@@ -0,0 +1,128 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * เก็บกวาด key ของ generation เก่า (หลัง evict-all แบบ INCR) บน virtual thread ตัวเดียว
+ * - ทุก intervalSeconds: SCAN MATCH prefix:cacheName:v* ของแต่ละ cache ที่เปิด generation
+ *   (cache ที่ประกาศใน generation.caches + cache ที่ node นี้เคยใช้)
+ *   key ที่ gen &lt; gen ปัจจุบัน → UNLINK เป็น batch
+ * - จำกัดอัตราด้วย maxDeletesPerSecond (sleep ระหว่าง batch) เพื่อไม่แย่ง CPU ของ Redis กับ traffic จริง
+ * ไม่จำเป็นต่อความถูกต้อง: key เก่าไม่มีใครอ่านแล้ว และหมดอายุเองตาม TTL
+ */
+public class GenerationSweeper implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationSweeper.class);
+
+    static final String SWEPT = "redisx.cache.generation.swept";
+    static final String SWEEP_TIME = "redisx.cache.generation.sweep-time";
+
+    private final StringRedisTemplate srt;
+    private final CacheProps props;
+    private final CacheKeys keys;
+    private final CacheMetrics metrics;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public GenerationSweeper(StringRedisTemplate srt, CacheProps props, CacheKeys keys, CacheMetrics metrics) {
+        this.srt = srt;
+        this.props = props;
+        this.keys = keys;
+        this.metrics = metrics;
+        this.worker = Thread.ofVirtual().name("redisx-generation-sweeper").start(this::loop);
+    }
+
+    private void loop() {
+        CacheProps.Sweeper cfg = props.getGeneration().getSweeper();
+        while (running) {
+            try {
+                TimeUnit.SECONDS.sleep(Math.max(1, cfg.getIntervalSeconds()));
+                for (String cacheName : keys.versionedCaches()) {
+                    if (!running) return;
+                    sweep(cacheName);
+                }
+            } catch (InterruptedException ie) {
+                return;
+            } catch (Exception e) {
+                log.warn("[CacheEvictX] generation sweep error (will retry next round)", e);
+            }
+        }
+    }
+
+    /** ลบ key ของ generation ที่เก่ากว่าปัจจุบันของ cache นี้ (ลบไปพร้อมกับ SCAN ไม่เก็บ key ไว้ใน memory); คืนจำนวนที่ลบ */
+    public long sweep(String cacheName) {
+        CacheProps.Sweeper cfg = props.getGeneration().getSweeper();
+        long current = keys.generation(cacheName);
+        if (current <= 0) return 0L;
+        String base = keys.basePrefix(cacheName);
+        int batchSize = Math.max(1, Math.min(cfg.getScanCount(), cfg.getMaxDeletesPerSecond()));
+        long minNanosPerBatch = TimeUnit.SECONDS.toNanos(1) * batchSize / Math.max(1, cfg.getMaxDeletesPerSecond());
+
+        long t0 = System.nanoTime();
+        long[] total = {0L};
+        ScanOptions opts = ScanOptions.scanOptions().match(base + "v*").count(cfg.getScanCount()).build();
+        srt.execute((RedisConnection con) -> {
+            List<byte[]> batch = new ArrayList<>(batchSize);
+            long batchStart = System.nanoTime();
+            try (var cur = con.scan(opts)) {
+                while (cur.hasNext() && running) {
+                    byte[] raw = cur.next();
+                    long gen = generationOf(new String(raw, StandardCharsets.UTF_8), base.length());
+                    if (gen < 0 || gen >= current) continue;
+                    batch.add(raw);
+                    if (batch.size() < batchSize) continue;
+                    total[0] += unlink(con, batch);
+                    batch.clear();
+                    // throttle: batch ละ batchSize key → ไม่เกิน maxDeletesPerSecond
+                    long spent = System.nanoTime() - batchStart;
+                    if (spent < minNanosPerBatch) LockSupport.parkNanos(minNanosPerBatch - spent);
+                    batchStart = System.nanoTime();
+                }
+            }
+            if (!batch.isEmpty()) total[0] += unlink(con, batch);
+            return null;
+        });
+
+        metrics.recordValue(SWEPT, cacheName, total[0]);
+        metrics.recordNanos(SWEEP_TIME, cacheName, System.nanoTime() - t0);
+        if (total[0] > 0) {
+            log.info("[CacheEvictX] generation sweep cacheName={} gen<{} deleted={}", cacheName, current, total[0]);
+        }
+        return total[0];
+    }
+
+    /** "v{gen}:" ต่อจาก base prefix → gen, ไม่ใช่รูปนี้ → -1 */
+    static long generationOf(String key, int from) {
+        if (key.length() <= from + 1 || key.charAt(from) != 'v') return -1;
+        long gen = 0;
+        int i = from + 1;
+        for (; i < key.length() && key.charAt(i) != ':'; i++) {
+            int d = key.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            gen = gen * 10 + d;
+        }
+        return (i > from + 1 && i < key.length()) ? gen : -1;
+    }
+
+    private static long unlink(RedisConnection con, List<byte[]> batch) {
+        Long n = con.keyCommands().unlink(batch.toArray(new byte[0][]));
+        return n != null ? n : 0L;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        worker.interrupt();
+    }
+}
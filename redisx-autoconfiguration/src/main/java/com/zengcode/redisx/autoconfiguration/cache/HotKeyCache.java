@@ -0,0 +1,287 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ตรวจจับ hot key ของ @CacheableX ต่อ cacheName แล้วเก็บสำเนาอายุสั้นใน process
+ * - ทุกการเข้าถึงถูกนับใน count-min sketch ของ window ปัจจุบัน (width × depth ช่อง, หน่วยความจำคงที่ไม่ขึ้นกับจำนวน key)
+ * - key ที่ค่าประมาณสูงกว่า candidate ตัวต่ำสุดถูกเก็บเป็น top-K; นับถึง rate-per-second → promote ทันทีกลาง window
+ * - ครบ window: คิดอัตราของ candidate ทุกตัว (= ค่าที่ endpoint แสดง), ตัวที่ยังร้อนอยู่ต่ออีก window, ตัวที่เย็นลง → demote + ทิ้งสำเนา
+ * - สำเนา (อายุ local-ttl-ms) ถูกเติมตอน HIT จาก Redis เท่านั้น; @CacheEvictX ของ node เองลบทันที
+ *   ค่าที่ node อื่นเขียนใหม่จะเห็นช้าได้ไม่เกิน local-ttl-ms (ไม่ผูกกับ CLIENT TRACKING แบบ L1)
+ */
+public class HotKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyCache.class);
+
+    static final String HIT = "redisx.cache.hot.hit";
+    static final String PROMOTED = "redisx.cache.hot.promoted";
+    static final String DEMOTED = "redisx.cache.hot.demoted";
+
+    /** ตัวแทนค่า null ในสำเนา (ConcurrentHashMap เก็บ null ไม่ได้) */
+    static final Object NULL_VALUE = new Object();
+
+    /** key หนึ่งตัวในรายงานของ window ล่าสุด */
+    public record HotKey(String key, double ratePerSecond, boolean promoted) {}
+
+    private record Copy(Object value, long expireAtNanos) {}
+
+    private final CacheProps.HotKeys props;
+    private final CacheMetrics metrics;
+    /** อ่านครั้งเดียว: ปิดทั้งหมด → {@link #region} คืน null โดยไม่แตะ map */
+    private final boolean enabled;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    public HotKeyCache(CacheProps props, CacheMetrics metrics) {
+        this.props = props.getHotKeys();
+        this.metrics = metrics;
+        this.enabled = this.props.isAnyEnabled();
+    }
+
+    /** region ของ cacheName นี้ หรือ null ถ้าไม่ได้เปิดตรวจจับ hot key */
+    public Region region(String cacheName) {
+        if (!enabled) return null;
+        Region r = regions.get(cacheName);
+        if (r == null) r = regions.computeIfAbsent(cacheName, n -> new Region(n, props.resolve(n)));
+        return r.spec.isEnabled() ? r : null;
+    }
+
+    /** ลบสำเนาของ key (evict ของ node เอง / หลัง refresh เบื้องหลัง) */
+    public void invalidate(String cacheName, String key) {
+        Region r = regions.get(cacheName);
+        if (r != null) r.copies.remove(key);
+    }
+
+    /** ล้างสำเนาทั้ง cacheName (evict-all) */
+    public void invalidateRegion(String cacheName) {
+        Region r = regions.get(cacheName);
+        if (r != null) r.copies.clear();
+    }
+
+    /** ล้างสำเนาทั้งหมด (evict ตาม tag ที่ไม่รู้ว่า key อยู่ cache ไหน) */
+    public void invalidateAll() {
+        regions.values().forEach(r -> r.copies.clear());
+    }
+
+    /** รายงาน window ล่าสุดของทุก cacheName ที่เปิดอยู่ (เรียงตามชื่อ) */
+    public Map<String, List<HotKey>> snapshot() {
+        Map<String, List<HotKey>> out = new TreeMap<>();
+        regions.forEach((name, r) -> {
+            if (r.spec.isEnabled()) out.put(name, r.lastWindow);
+        });
+        return out;
+    }
+
+    /** รายงาน window ล่าสุดของ cacheName เดียว (เรียงจากอัตราสูงสุด); ไม่มี → ว่าง */
+    public List<HotKey> snapshot(String cacheName) {
+        Region r = regions.get(cacheName);
+        return r != null ? r.lastWindow : List.of();
+    }
+
+    /** ตัวตรวจจับ + สำเนาของ cacheName เดียว */
+    public final class Region {
+
+        private final String cacheName;
+        private final CacheProps.HotKeySpec spec;
+        private final CountMinSketch sketch;
+        private final long windowNanos;
+        private final long localTtlNanos;
+        /** จำนวนครั้งใน window ที่ถือว่าถึง rate-per-second แล้ว */
+        private final long promoteCount;
+        private final Map<String, Candidate> top = new ConcurrentHashMap<>();
+        private final Map<String, Copy> copies = new ConcurrentHashMap<>();
+        private final AtomicBoolean rotating = new AtomicBoolean();
+        /** key ใหม่ต้องมีค่าประมาณเกินนี้ถึงจะเข้า top-K (0 = ยังไม่เต็ม) */
+        private volatile long floor;
+        private volatile long windowStartNanos = System.nanoTime();
+        private volatile List<HotKey> lastWindow = List.of();
+
+        private Region(String cacheName, CacheProps.HotKeySpec spec) {
+            this.cacheName = cacheName;
+            this.spec = spec;
+            this.sketch = new CountMinSketch(props.getSketchWidth(), props.getSketchDepth());
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, props.getWindowMs()));
+            this.localTtlNanos = TimeUnit.MILLISECONDS.toNanos(spec.getLocalTtlMs());
+            this.promoteCount = Math.max(1L, (long) Math.ceil(spec.getRatePerSecond() * props.getWindowMs() / 1000.0));
+        }
+
+        /**
+         * นับการเข้าถึงหนึ่งครั้ง แล้วคืนสำเนาใน process (อาจเป็น {@link #NULL_VALUE})
+         * หรือ null ถ้า key ไม่ร้อน / ยังไม่มีสำเนา / สำเนาหมดอายุ
+         */
+        public Object access(String key) {
+            long now = System.nanoTime();
+            if (now - windowStartNanos >= windowNanos) rotate(now);
+            long estimate = sketch.add(key);
+            Candidate c = top.get(key);
+            if (c == null) {
+                if (estimate > floor) enter(key, estimate);
+                return null;
+            }
+            c.count = estimate;
+            if (!c.promoted) {
+                if (estimate >= promoteCount) promote(c);
+                return null;
+            }
+            Copy copy = copies.get(key);
+            if (copy == null) return null;
+            if (now - copy.expireAtNanos >= 0) {
+                copies.remove(key, copy);
+                return null;
+            }
+            metrics.increment(HIT, cacheName);
+            return copy.value;
+        }
+
+        /** เก็บสำเนาถ้า key ถูก promote อยู่ (เรียกหลัง HIT จาก Redis) */
+        public void offer(String key, Object value) {
+            Candidate c = top.get(key);
+            if (c == null || !c.promoted || localTtlNanos <= 0) return;
+            copies.put(key, new Copy(value == null ? NULL_VALUE : value, System.nanoTime() + localTtlNanos));
+        }
+
+        /** key นี้ถูก promote อยู่ไหม (ไม่นับเป็นการเข้าถึง) */
+        public boolean isPromoted(String key) {
+            Candidate c = top.get(key);
+            return c != null && c.promoted;
+        }
+
+        /** key ใหม่เข้า top-K: เต็มแล้ว → แทนตัวที่นับได้น้อยสุด (ตัวที่ promote อยู่ไม่ถูกแทนจนกว่าจะจบ window) */
+        private synchronized void enter(String key, long estimate) {
+            if (top.containsKey(key)) return;
+            if (top.size() >= spec.getTopK()) {
+                Candidate min = weakest();
+                if (min == null || estimate <= min.count) {
+                    floor = min == null ? Long.MAX_VALUE : min.count;
+                    return;
+                }
+                top.remove(min.key, min);
+            }
+            Candidate c = new Candidate(key, estimate);
+            top.put(key, c);
+            if (estimate >= promoteCount) promote(c);
+            if (top.size() >= spec.getTopK()) {
+                Candidate min = weakest();
+                floor = min == null ? Long.MAX_VALUE : min.count;
+            }
+        }
+
+        private Candidate weakest() {
+            Candidate min = null;
+            for (Candidate c : top.values()) {
+                if (!c.promoted && (min == null || c.count < min.count)) min = c;
+            }
+            return min;
+        }
+
+        private synchronized void promote(Candidate c) {
+            if (c.promoted) return;
+            c.promoted = true;
+            metrics.increment(PROMOTED, cacheName);
+            log.info("[HotKey] PROMOTE cache={} key={} (≥{}/s) → local copy {}ms",
+                    cacheName, c.key, spec.getRatePerSecond(), spec.getLocalTtlMs());
+        }
+
+        /** ครบ window: สรุปอัตรา, demote ตัวที่เย็นลง, เริ่มนับใหม่ (ตัวที่ยังร้อนอยู่ต่อโดยไม่ต้องนับถึงเกณฑ์ใหม่) */
+        private void rotate(long now) {
+            if (!rotating.compareAndSet(false, true)) return;
+            try {
+                synchronized (this) {
+                    long elapsed = now - windowStartNanos;
+                    if (elapsed < windowNanos) return;
+                    double seconds = elapsed / 1e9;
+                    List<HotKey> report = new ArrayList<>(top.size());
+                    for (Candidate c : top.values()) {
+                        double rate = c.count / seconds;
+                        if (c.promoted && rate < spec.getRatePerSecond()) demote(c);
+                        // สถานะจริงหลัง demote (key ที่อัตราถึงเกณฑ์แต่ยังไม่ได้ promote ไม่นับว่า promoted)
+                        report.add(new HotKey(c.key, rate, c.promoted));
+                    }
+                    report.sort(Comparator.comparingDouble(HotKey::ratePerSecond).reversed());
+                    lastWindow = List.copyOf(report);
+
+                    sketch.clear();
+                    top.values().removeIf(c -> !c.promoted);
+                    top.values().forEach(c -> c.count = 0);
+                    floor = 0;
+                    windowStartNanos = now;
+                }
+            } finally {
+                rotating.set(false);
+            }
+        }
+
+        private void demote(Candidate c) {
+            c.promoted = false;
+            copies.remove(c.key);
+            metrics.increment(DEMOTED, cacheName);
+            log.info("[HotKey] DEMOTE cache={} key={}", cacheName, c.key);
+        }
+    }
+
+    private static final class Candidate {
+        final String key;
+        volatile long count;
+        volatile boolean promoted;
+
+        Candidate(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    /**
+     * count-min sketch: depth แถว × width ช่อง (width ปัดเป็นกำลังสอง)
+     * ค่าประมาณ = ค่าต่ำสุดของช่องที่ key ตกในแต่ละแถว → ประเมินเกินได้ (ชนกับ key อื่น) แต่ไม่ขาด
+     */
+    static final class CountMinSketch {
+
+        private final int width;
+        private final int depth;
+        private final AtomicIntegerArray cells;
+
+        CountMinSketch(int width, int depth) {
+            int w = Integer.highestOneBit(Math.max(16, width));
+            this.width = w < width ? w << 1 : w;
+            this.depth = Math.max(1, depth);
+            this.cells = new AtomicIntegerArray(this.width * this.depth);
+        }
+
+        /** นับเพิ่มหนึ่งครั้ง คืนค่าประมาณหลังนับ */
+        long add(String key) {
+            int h1 = mix(key.hashCode());
+            int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < depth; i++) {
+                int slot = i * width + ((h1 + i * h2) & (width - 1));
+                min = Math.min(min, cells.incrementAndGet(slot));
+            }
+            return min;
+        }
+
+        void clear() {
+            for (int i = 0; i < cells.length(); i++) cells.set(i, 0);
+        }
+
+        /** murmur3 fmix32 */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * actuator endpoint: hot key ของ window ล่าสุดต่อ cacheName พร้อมอัตราต่อวินาที
+ * - GET /actuator/redisxhotkeys → ทุก cacheName ที่เปิดตรวจจับ
+ * - GET /actuator/redisxhotkeys/{cacheName} → cacheName เดียว
+ * ค่าเป็นของ node นี้เท่านั้น (sketch นับใน process)
+ */
+@Endpoint(id = "redisxhotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyCache hotKeys;
+    private final CacheProps props;
+
+    public HotKeysEndpoint(HotKeyCache hotKeys, CacheProps props) {
+        this.hotKeys = hotKeys;
+        this.props = props;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("windowMs", props.getHotKeys().getWindowMs());
+        out.put("caches", hotKeys.snapshot());
+        return out;
+    }
+
+    @ReadOperation
+    public List<HotKeyCache.HotKey> hotKeys(@Selector String cacheName) {
+        return hotKeys.snapshot(cacheName);
+    }
+}
@@ -0,0 +1,57 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * codec บน Jackson (JSON / Smile / CBOR ขึ้นกับ factory ของ ObjectMapper ที่ส่งเข้ามา)
+ * cache ObjectWriter ต่อ runtime class และ ObjectReader ต่อ JavaType → ไม่ต้อง lookup serializer ทุกครั้ง
+ */
+public class JacksonCodec implements RedisXCodec {
+
+    public static final int JSON = 2;
+    public static final int SMILE = 3;
+    public static final int CBOR = 4;
+
+    private final int id;
+    private final String name;
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonCodec(int id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ObjectWriter w = writers.get(value.getClass());
+        if (w == null) w = writers.computeIfAbsent(value.getClass(), mapper::writerFor);
+        return w.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length, JavaType type) throws IOException {
+        ObjectReader r = readers.get(type);
+        if (r == null) r = readers.computeIfAbsent(type, mapper::readerFor);
+        return r.readValue(bytes, offset, length);
+    }
+}
@@ -0,0 +1,48 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * แปลงค่าของ map cache ↔ String ที่เก็บใน hash
+ * - String เก็บตรง ๆ (อ่านด้วย HGET/redis-cli ได้ และเข้ากับค่าที่เขียนไว้ก่อนหน้า)
+ * - อย่างอื่นเป็น JSON ผ่าน ObjectMapper ของแอป แล้วอ่านกลับตาม return type ของเมธอด
+ * - return type ที่รับ String ได้ (String/CharSequence/Object) → คืนค่าดิบตามที่เก็บ
+ */
+final class MapCacheCodec {
+
+    private final ObjectMapper om;
+    /** type ของค่าต่อ method (คำนวณจาก generic return type ครั้งเดียว) */
+    private final Map<Method, JavaType> types = new ConcurrentHashMap<>();
+
+    MapCacheCodec(ObjectMapper om) {
+        this.om = om;
+    }
+
+    String encode(Object value) throws JsonProcessingException {
+        return value instanceof String s ? s : om.writeValueAsString(value);
+    }
+
+    /** null = อ่านไม่ได้เป็น type นี้ (caller ถือว่า MISS) */
+    Object decode(String raw, JavaType type) throws IOException {
+        if (type.getRawClass().isAssignableFrom(String.class)) return raw;
+        return om.readValue(raw, type);
+    }
+
+    /** type ของค่า: return type ของเมธอด หรือ value type ของ Map ถ้า mapValues */
+    JavaType valueType(Method m, boolean mapValues) {
+        JavaType t = types.get(m);
+        if (t != null) return t;
+        return types.computeIfAbsent(m, k -> {
+            JavaType ret = om.getTypeFactory().constructType(k.getGenericReturnType());
+            if (!mapValues) return ret;
+            return ret.getContentType() != null ? ret.getContentType() : om.getTypeFactory().constructType(Object.class);
+        });
+    }
+}
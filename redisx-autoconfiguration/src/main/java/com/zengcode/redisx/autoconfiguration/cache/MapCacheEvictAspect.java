@@ -5,25 +5,23 @@ import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.lang.reflect.Method;
+
 @Aspect
 @Component
 public class MapCacheEvictAspect {
 
-    private final StringRedisTemplate srt;
     private final CacheProps props;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelRegistry spel;
+    private final MapCacheStore store;
 
-    public MapCacheEvictAspect(StringRedisTemplate srt, CacheProps props) {
-        this.srt = srt;
+    public MapCacheEvictAspect(CacheProps props, SpelRegistry spel, MapCacheStore store) {
         this.props = props;
+        this.spel = spel;
+        this.store = store;
     }
 
     @AfterReturning("@annotation(evict)")
@@ -31,11 +29,9 @@ public class MapCacheEvictAspect {
         // ถ้าปิดระบบ cache → ไม่ทำอะไร
         if (!props.isEnabled()) return;
 
-        String hashKey = buildHashKey(evict.cacheName());
-
         if (evict.allEntries()) {
             // ลบทั้งกลุ่ม
-            srt.delete(hashKey);
+            store.evictAll(evict.cacheName());
             return;
         }
 
@@ -43,31 +39,14 @@ public class MapCacheEvictAspect {
         if (StringUtils.hasText(keyExpr)) {
             String field = evalKey(jp, keyExpr);
             if (field != null) {
-                srt.opsForHash().delete(hashKey, field);
+                store.evict(evict.cacheName(), field);
             }
         }
     }
 
-    private String buildHashKey(String cacheName) {
-        String prefix = props.getPrefix();
-        return (StringUtils.hasText(prefix)) ? prefix + ":" + cacheName : cacheName;
-    }
-
     private String evalKey(JoinPoint jp, String expr) {
-        EvaluationContext ctx = new StandardEvaluationContext();
-        Object[] args = jp.getArgs();
-        String[] names = ((MethodSignature) jp.getSignature()).getParameterNames();
-
-        // รองรับ #id/#name (ต้องมี -parameters)
-        if (names != null) {
-            for (int i = 0; i < names.length; i++) {
-                ctx.setVariable(names[i], args[i]);
-            }
-        }
-        // รองรับ #p0/#p1 เสมอ (ไม่ต้องง้อ -parameters)
-        for (int i = 0; i < args.length; i++) {
-            ctx.setVariable("p" + i, args[i]);
-        }
-        return parser.parseExpression(expr).getValue(ctx, String.class);
+        // รองรับ #id/#name และ #p0/#p1 (expression ถูก compile ไว้แล้วใน SpelRegistry)
+        Method method = ((MethodSignature) jp.getSignature()).getMethod();
+        return spel.forMethod(method).evalStr(expr, jp.getArgs());
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zengcode.redisx.annotation.cache.MapCacheGetAll;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aspect สำหรับ @MapCacheGetAll
+ * - ราย id: HMGET ครั้งเดียว → เรียกเมธอดจริงด้วย collection ที่มีเฉพาะ id ที่ MISS → HSET ครั้งเดียว
+ * - allEntries: HSCAN ทั้ง hash; ว่าง → เรียกเมธอดจริงแล้วเขียนทั้งก้อน
+ * ค่าแปลงด้วย codec เดียวกับ @MapCacheGet/@MapCachePut (type ตาม value type ของ Map ที่เมธอดคืน)
+ * Redis error → fail-open (ถือว่า MISS / ข้ามการเขียน)
+ */
+@Aspect
+@Component
+public class MapCacheGetAllAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(MapCacheGetAllAspect.class);
+
+    private final CacheProps props;
+    private final SpelRegistry spel;
+    private final MapCacheStore store;
+    private final MapCacheCodec codec;
+
+    public MapCacheGetAllAspect(CacheProps props, SpelRegistry spel, MapCacheStore store, ObjectMapper om) {
+        this.props = props;
+        this.spel = spel;
+        this.store = store;
+        this.codec = new MapCacheCodec(om);
+    }
+
+    @Around("@annotation(ann)")
+    public Object around(ProceedingJoinPoint pjp, MapCacheGetAll ann) throws Throwable {
+        // ถ้า system ปิดอยู่ ให้ข้ามแคช
+        if (!props.isEnabled()) {
+            return pjp.proceed();
+        }
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        if (!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+            log.warn("[MapCache] @MapCacheGetAll needs Map return type → proceed, method={}", method);
+            return pjp.proceed();
+        }
+        return ann.allEntries() ? wholeMap(pjp, ann, method) : byIds(pjp, ann, method);
+    }
+
+    private Object wholeMap(ProceedingJoinPoint pjp, MapCacheGetAll ann, Method method) throws Throwable {
+        String cacheName = ann.cacheName();
+        Map<String, String> cached;
+        try {
+            cached = store.scanAll(cacheName);
+        } catch (Exception e) {
+            log.warn("[MapCache] HSCAN error → load, cacheName={}", cacheName, e);
+            cached = Map.of();
+        }
+        if (!cached.isEmpty()) {
+            JavaType type = codec.valueType(method, true);
+            Map<String, Object> out = new LinkedHashMap<>(cached.size() * 2);
+            for (Map.Entry<String, String> e : cached.entrySet()) {
+                Object v = decodeSafe(cacheName, e.getKey(), e.getValue(), type);
+                if (v == null) break; // อ่านไม่ได้ → โหลดทั้งก้อนใหม่แล้วเขียนทับ
+                out.put(e.getKey(), v);
+            }
+            if (out.size() == cached.size()) return out;
+        }
+
+        Map<?, ?> loaded = (Map<?, ?>) pjp.proceed();
+        if (loaded != null && !loaded.isEmpty()) {
+            Map<String, String> writes = new LinkedHashMap<>(loaded.size() * 2);
+            for (Map.Entry<?, ?> e : loaded.entrySet()) {
+                if (e.getKey() == null || e.getValue() == null) continue;
+                String encoded = encodeSafe(e.getValue());
+                if (encoded != null) writes.put(e.getKey().toString(), encoded);
+            }
+            putAllSafe(cacheName, writes, ann.ttlSeconds());
+        }
+        return loaded;
+    }
+
+    private Object byIds(ProceedingJoinPoint pjp, MapCacheGetAll ann, Method method) throws Throwable {
+        Object[] args = pjp.getArgs();
+        int idsIndex = idsIndex(method);
+        if (idsIndex < 0) {
+            log.warn("[MapCache] @MapCacheGetAll needs a Collection parameter (or allEntries=true) → proceed, method={}",
+                    method);
+            return pjp.proceed();
+        }
+        if (!(args[idsIndex] instanceof Collection<?> requested) || requested.isEmpty()) {
+            return pjp.proceed();
+        }
+        String cacheName = ann.cacheName();
+
+        // 1) id ไม่ซ้ำ (คงลำดับ) + field ต่อ id
+        List<Object> ids = new ArrayList<>(new LinkedHashSet<>(requested));
+        List<String> fields;
+        try {
+            fields = fields(ann, method, args, ids);
+        } catch (Exception e) {
+            log.debug("[MapCache] field eval error expr='{}'", ann.key(), e);
+            return pjp.proceed();
+        }
+
+        // 2) HMGET
+        List<String> cached;
+        try {
+            cached = store.getAll(cacheName, fields);
+        } catch (Exception e) {
+            log.warn("[MapCache] HMGET error → load all, cacheName={} fields={}", cacheName, fields.size(), e);
+            cached = new ArrayList<>(fields.size());
+            for (int i = 0; i < fields.size(); i++) cached.add(null);
+        }
+        JavaType type = codec.valueType(method, true);
+        Map<Object, Object> values = new LinkedHashMap<>(ids.size() * 2);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object hit = decodeSafe(cacheName, fields.get(i), cached.get(i), type);
+            if (hit == null) missing.add(i);
+            else values.put(ids.get(i), hit);
+        }
+
+        // 3) เรียกเมธอดจริงเฉพาะ id ที่ MISS แล้ว HSET กลับครั้งเดียว
+        if (!missing.isEmpty()) {
+            List<Object> missingIds = new ArrayList<>(missing.size());
+            for (int i : missing) missingIds.add(ids.get(i));
+            Collection<Object> missingArg = newCollection(method.getParameterTypes()[idsIndex], missingIds);
+            if (missingArg == null) return pjp.proceed(); // collection แบบที่สร้างใหม่ไม่ได้ → เรียกทั้งก้อน
+            Object[] callArgs = args.clone();
+            callArgs[idsIndex] = missingArg;
+
+            Map<?, ?> loaded = (Map<?, ?>) pjp.proceed(callArgs);
+            Map<String, String> writes = new LinkedHashMap<>(missing.size() * 2);
+            for (int i : missing) {
+                Object v = loaded != null ? loaded.get(ids.get(i)) : null;
+                if (v == null) continue;
+                values.put(ids.get(i), v);
+                String encoded = encodeSafe(v);
+                if (encoded != null) writes.put(fields.get(i), encoded);
+            }
+            putAllSafe(cacheName, writes, ann.ttlSeconds());
+        }
+
+        // 4) เรียงตามลำดับ id ที่ส่งเข้ามา
+        Map<Object, Object> out = new LinkedHashMap<>(ids.size() * 2);
+        for (Object id : ids) {
+            Object v = values.get(id);
+            if (v != null) out.put(id, v);
+        }
+        log.debug("[MapCache] GET-ALL {} fields={} miss={}", cacheName, ids.size(), missing.size());
+        return out;
+    }
+
+    /** field ต่อ id; "#id" (ค่า default) ไม่ต้องผ่าน SpEL */
+    private List<String> fields(MapCacheGetAll ann, Method method, Object[] args, List<Object> ids) {
+        List<String> fields = new ArrayList<>(ids.size());
+        if ("#id".equals(ann.key().trim())) {
+            for (Object id : ids) fields.add(String.valueOf(id));
+            return fields;
+        }
+        SpelRegistry.MethodSpel ms = spel.forMethod(method);
+        for (Object id : ids) fields.add(ms.evalStr(ann.key(), args, "id", id));
+        return fields;
+    }
+
+    /** null = MISS (ไม่มีค่า/อ่านไม่ได้ → โหลดใหม่แล้วเขียนทับ) */
+    private Object decodeSafe(String cacheName, String field, String raw, JavaType type) {
+        if (raw == null) return null;
+        try {
+            return codec.decode(raw, type);
+        } catch (Exception e) {
+            log.warn("[MapCache] deserialization error → reload, cacheName={} field={}", cacheName, field, e);
+            return null;
+        }
+    }
+
+    private String encodeSafe(Object value) {
+        try {
+            return codec.encode(value);
+        } catch (Exception e) {
+            log.warn("[MapCache] serialize error (skip HSET) type={}", value.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    private void putAllSafe(String cacheName, Map<String, String> writes, long ttlSeconds) {
+        if (writes.isEmpty()) return;
+        try {
+            store.putAll(cacheName, writes, store.resolveTtl(cacheName, ttlSeconds));
+        } catch (Exception e) {
+            log.warn("[MapCache] HSET error (skip) cacheName={} fields={}", cacheName, writes.size(), e);
+        }
+    }
+
+    /** parameter ตัวแรกที่เป็น Collection = ids */
+    private static int idsIndex(Method method) {
+        Class<?>[] params = method.getParameterTypes();
+        for (int i = 0; i < params.length; i++) {
+            if (Collection.class.isAssignableFrom(params[i])) return i;
+        }
+        return -1;
+    }
+
+    /** collection ของ id ที่ MISS ในรูปที่ parameter รับได้ (Set → LinkedHashSet, อื่น ๆ → ArrayList) */
+    private static Collection<Object> newCollection(Class<?> type, List<Object> ids) {
+        Collection<Object> c = Set.class.isAssignableFrom(type) ? new LinkedHashSet<>(ids) : new ArrayList<>(ids);
+        return type.isInstance(c) ? c : null;
+    }
+}
@@ -1,17 +1,14 @@
 package com.zengcode.redisx.autoconfiguration.cache;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zengcode.redisx.annotation.cache.MapCacheGet;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
 
@@ -19,13 +16,18 @@ import java.lang.reflect.Method;
 @Component
 public class MapCacheGetAspect {
 
-    private final StringRedisTemplate srt;
+    private static final Logger log = LoggerFactory.getLogger(MapCacheGetAspect.class);
+
     private final CacheProps props;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelRegistry spel;
+    private final MapCacheStore store;
+    private final MapCacheCodec codec;
 
-    public MapCacheGetAspect(StringRedisTemplate srt, CacheProps props) {
-        this.srt = srt;
+    public MapCacheGetAspect(CacheProps props, SpelRegistry spel, MapCacheStore store, ObjectMapper om) {
         this.props = props;
+        this.spel = spel;
+        this.store = store;
+        this.codec = new MapCacheCodec(om);
     }
 
     @Around("@annotation(mapCacheGet)")
@@ -35,46 +37,27 @@ public class MapCacheGetAspect {
             return pjp.proceed();
         }
 
-        String hashKey = buildHashKey(mapCacheGet.cacheName());
-        String field   = evalKey(pjp, mapCacheGet.key());
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        String field = spel.forMethod(method).evalStr(mapCacheGet.key(), pjp.getArgs());
 
-        Object cached = srt.opsForHash().get(hashKey, field);
+        // field ที่หมดอายุแล้วนับเป็น MISS (โหมด COMPANION ลบทิ้งไปในคำสั่งเดียวกัน)
+        String cached = store.get(mapCacheGet.cacheName(), field);
         if (cached != null) {
-            // เก็บ/อ่านเป็น String ตรง ๆ (ถ้าของจริงเป็น JSON ให้เปลี่ยนตรงนี้เองได้)
-            return cached;
+            // แปลงกลับตาม return type ของเมธอด (String → ค่าดิบ); อ่านไม่ได้ → โหลดใหม่แล้วเขียนทับ
+            try {
+                Object value = codec.decode(cached, codec.valueType(method, false));
+                if (value != null) return value;
+            } catch (Exception e) {
+                log.warn("[MapCache] deserialization error → reload, cacheName={} field={}",
+                        mapCacheGet.cacheName(), field, e);
+            }
         }
 
         Object result = pjp.proceed();
         if (result != null) {
-            srt.opsForHash().put(hashKey, field, result.toString());
-            // ไม่ตั้ง TTL ที่นี่ ปล่อยให้ฝั่ง Put หรือ default ของ props จัดการ
+            long ttl = store.resolveTtl(mapCacheGet.cacheName(), mapCacheGet.ttlSeconds());
+            store.put(mapCacheGet.cacheName(), field, codec.encode(result), ttl);
         }
         return result;
     }
-
-    private String buildHashKey(String cacheName) {
-        String prefix = props.getPrefix();
-        return (StringUtils.hasText(prefix)) ? prefix + ":" + cacheName : cacheName;
-    }
-
-    private String evalKey(ProceedingJoinPoint pjp, String expr) {
-        // รองรับทั้ง #id และ #p0
-        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        EvaluationContext ctx = new StandardEvaluationContext();
-        Object[] args = pjp.getArgs();
-        String[] names = ((MethodSignature) pjp.getSignature()).getParameterNames();
-
-        // ตั้งชื่อแบบ #id/#name (ต้องใช้ -parameters ถึงจะได้ชื่อจริง)
-        if (names != null) {
-            for (int i = 0; i < names.length; i++) {
-                ctx.setVariable(names[i], args[i]);
-            }
-        }
-        // ตั้งชื่อแบบ #p0/#p1 เสมอ (ไม่ต้องง้อ -parameters)
-        for (int i = 0; i < args.length; i++) {
-            ctx.setVariable("p" + i, args[i]);
-        }
-
-        return parser.parseExpression(expr).getValue(ctx, String.class);
-    }
-}
\ No newline at end of file
+}
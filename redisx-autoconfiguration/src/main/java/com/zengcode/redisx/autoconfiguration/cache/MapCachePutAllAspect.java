@@ -0,0 +1,72 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zengcode.redisx.annotation.cache.MapCachePutAll;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aspect สำหรับ @MapCachePutAll: ทุก entry ของ Map ที่เมธอดคืน → HSET ครั้งเดียว (script เดียวพร้อม TTL ของทุก field)
+ * entry ที่ key/value เป็น null หรือแปลงค่าไม่ได้ถูกข้าม; Redis error → fail-open (ข้ามการเขียน)
+ */
+@Aspect
+@Component
+public class MapCachePutAllAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(MapCachePutAllAspect.class);
+
+    private final CacheProps props;
+    private final SpelRegistry spel;
+    private final MapCacheStore store;
+    private final MapCacheCodec codec;
+
+    public MapCachePutAllAspect(CacheProps props, SpelRegistry spel, MapCacheStore store, ObjectMapper om) {
+        this.props = props;
+        this.spel = spel;
+        this.store = store;
+        this.codec = new MapCacheCodec(om);
+    }
+
+    @Around("@annotation(ann)")
+    public Object around(ProceedingJoinPoint pjp, MapCachePutAll ann) throws Throwable {
+        // ถ้า system ปิดอยู่ ให้ข้ามแคช
+        if (!props.isEnabled()) {
+            return pjp.proceed();
+        }
+
+        Object result = pjp.proceed();
+        if (!(result instanceof Map<?, ?> entries)) {
+            if (result != null) {
+                log.warn("[MapCache] @MapCachePutAll needs Map return value (skip) type={}", result.getClass().getName());
+            }
+            return result;
+        }
+        if (entries.isEmpty()) return result;
+
+        String cacheName = ann.cacheName();
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        boolean plain = "#id".equals(ann.key().trim());
+        SpelRegistry.MethodSpel ms = plain ? null : spel.forMethod(method);
+        Map<String, String> writes = new LinkedHashMap<>(entries.size() * 2);
+        try {
+            for (Map.Entry<?, ?> e : entries.entrySet()) {
+                if (e.getKey() == null || e.getValue() == null) continue;
+                String field = plain ? e.getKey().toString() : ms.evalStr(ann.key(), pjp.getArgs(), "id", e.getKey());
+                writes.put(field, codec.encode(e.getValue()));
+            }
+            if (!writes.isEmpty()) store.putAll(cacheName, writes, store.resolveTtl(cacheName, ann.ttlSeconds()));
+        } catch (Exception e) {
+            log.warn("[MapCache] PUT-ALL error (skip) cacheName={} fields={}", cacheName, entries.size(), e);
+        }
+        return result;
+    }
+}
@@ -1,32 +1,29 @@
 package com.zengcode.redisx.autoconfiguration.cache;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zengcode.redisx.annotation.cache.MapCachePut;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
-import java.time.Duration;
 
 @Aspect
 @Component
 public class MapCachePutAspect {
 
-    private final StringRedisTemplate srt;
     private final CacheProps props;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelRegistry spel;
+    private final MapCacheStore store;
+    private final MapCacheCodec codec;
 
-    public MapCachePutAspect(StringRedisTemplate srt, CacheProps props) {
-        this.srt = srt;
+    public MapCachePutAspect(CacheProps props, SpelRegistry spel, MapCacheStore store, ObjectMapper om) {
         this.props = props;
+        this.spel = spel;
+        this.store = store;
+        this.codec = new MapCacheCodec(om);
     }
 
     @Around("@annotation(mapCachePut)")
@@ -38,42 +35,19 @@ public class MapCachePutAspect {
 
         Object result = pjp.proceed();
 
-        String hashKey = buildHashKey(mapCachePut.cacheName());
-        String field   = evalKey(pjp, mapCachePut.key());
+        String field = evalKey(pjp, mapCachePut.key());
 
-        // เขียนลง Hash (เก็บเป็น String ตรง ๆ)
-        srt.opsForHash().put(hashKey, field, result == null ? "null" : result.toString());
-
-        // ตั้ง TTL ระดับ hash ถ้ามีระบุ หรือใช้ default จาก props ถ้า ttlSeconds = 0
-        long ttl = mapCachePut.ttlSeconds() > 0 ? mapCachePut.ttlSeconds() : props.getDefaultTtlSeconds();
-        if (ttl > 0) {
-            srt.expire(hashKey, Duration.ofSeconds(ttl));
-        }
+        // เขียนลง Hash (String ตรง ๆ, อย่างอื่นเป็น JSON) พร้อม TTL ของ field นี้เท่านั้น ใน script เดียว
+        // ttlSeconds = 0 → default จาก props (+ jitter ถ้าตั้งไว้); TTL ของ hash ถูกยืดให้ไม่สั้นกว่า field ที่อยู่นานสุด
+        long ttl = store.resolveTtl(mapCachePut.cacheName(), mapCachePut.ttlSeconds());
+        store.put(mapCachePut.cacheName(), field, codec.encode(result), ttl);
 
         return result;
     }
 
-    private String buildHashKey(String cacheName) {
-        String prefix = props.getPrefix();
-        return (StringUtils.hasText(prefix)) ? prefix + ":" + cacheName : cacheName;
-    }
-
     private String evalKey(ProceedingJoinPoint pjp, String expr) {
-        // รองรับทั้ง #id และ #p0
+        // รองรับทั้ง #id และ #p0 (expression ถูก compile ไว้แล้วใน SpelRegistry)
         Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        EvaluationContext ctx = new StandardEvaluationContext();
-        Object[] args = pjp.getArgs();
-        String[] names = ((MethodSignature) pjp.getSignature()).getParameterNames();
-
-        if (names != null) {
-            for (int i = 0; i < names.length; i++) {
-                ctx.setVariable(names[i], args[i]);
-            }
-        }
-        for (int i = 0; i < args.length; i++) {
-            ctx.setVariable("p" + i, args[i]);
-        }
-
-        return parser.parseExpression(expr).getValue(ctx, String.class);
+        return spel.forMethod(method).evalStr(expr, pjp.getArgs());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,357 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * อ่าน/เขียน field ของ @MapCache* (Redis HASH prefix:cacheName) พร้อม TTL ราย field
+ * แทน EXPIRE ทั้ง hash ทุกครั้งที่ put (ยืดอายุทุก field แล้วหมดอายุพร้อมกันทั้งก้อน)
+ * - NATIVE (Redis 7.4+): HSET + HPEXPIRE ของ field นั้น
+ * - COMPANION: HSET + field เงา "\0exp:{field}" = เวลาหมดอายุ (ms ตามนาฬิกาของ Redis)
+ *   HGET ผ่าน script ที่เช็คเวลาแล้วลบ field ที่หมดอายุทิ้งทันที (lazy)
+ * ทั้งสองโหมดยืด TTL ของตัว hash ให้ไม่สั้นกว่า field ที่อยู่นานสุด → field ที่ไม่มีใครอ่านก็หายไปพร้อม hash
+ * เขียน = script เดียว (HSET + TTL ไม่มีช่วงที่ field อยู่โดยไม่มี TTL) เรียกด้วย EVALSHA;
+ * script ถูก SCRIPT LOAD ไว้ตอน start → ไม่เสีย round trip NOSCRIPT + EVAL ตอนเรียกครั้งแรก
+ * อ่าน/เขียนผ่าน {@link CacheCircuitBreaker}: OPEN → อ่าน = MISS, เขียน = ข้าม (evict ยังส่งตรงเสมอ)
+ */
+public class MapCacheStore implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MapCacheStore.class);
+
+    /** prefix ของ field เงา (โหมด COMPANION); \0 กันชนกับ field จริง */
+    static final String EXP_FIELD_PREFIX = "\0exp:";
+
+    /** KEYS[1] = hash, ARGV = field, value, ttlMs, native(1/0), shadowField */
+    private static final RedisScript<Long> PUT = new DefaultRedisScript<>("""
+            redis.call('hset', KEYS[1], ARGV[1], ARGV[2])
+            local ttl = tonumber(ARGV[3])
+            if ttl <= 0 then
+              if ARGV[4] == '0' then redis.call('hdel', KEYS[1], ARGV[5]) end
+              return 1
+            end
+            if ARGV[4] == '1' then
+              redis.call('hpexpire', KEYS[1], ttl, 'FIELDS', 1, ARGV[1])
+            else
+              local t = redis.call('time')
+              redis.call('hset', KEYS[1], ARGV[5], t[1] * 1000 + math.floor(t[2] / 1000) + ttl)
+            end
+            if redis.call('pttl', KEYS[1]) < ttl then redis.call('pexpire', KEYS[1], ttl) end
+            return 1""", Long.class);
+
+    /** KEYS[1] = hash, ARGV = field, shadowField → ค่า หรือ nil (ไม่มี / หมดอายุแล้ว = ลบทิ้ง) */
+    private static final RedisScript<String> GET = new DefaultRedisScript<>("""
+            local r = redis.call('hmget', KEYS[1], ARGV[1], ARGV[2])
+            if r[2] then
+              local t = redis.call('time')
+              if tonumber(r[2]) <= t[1] * 1000 + math.floor(t[2] / 1000) then
+                redis.call('hdel', KEYS[1], ARGV[1], ARGV[2])
+                return false
+              end
+            end
+            return r[1]""", String.class);
+
+    /** KEYS[1] = hash, ARGV = field ทั้งหมดตามด้วย field เงาตามลำดับเดียวกัน → ค่าเรียงตาม field (หมดอายุ = nil + ลบทิ้ง) */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> GET_ALL = new DefaultRedisScript<>("""
+            local half = #ARGV / 2
+            local r = redis.call('hmget', KEYS[1], unpack(ARGV))
+            local now
+            local out, dead = {}, {}
+            for i = 1, half do
+              local v = r[i]
+              if v and r[half + i] then
+                if not now then local t = redis.call('time'); now = t[1] * 1000 + math.floor(t[2] / 1000) end
+                if tonumber(r[half + i]) <= now then
+                  v = false
+                  dead[#dead + 1] = ARGV[i]
+                  dead[#dead + 1] = ARGV[half + i]
+                end
+              end
+              out[i] = v
+            end
+            if #dead > 0 then redis.call('hdel', KEYS[1], unpack(dead)) end
+            return out""", List.class);
+
+    /** KEYS[1] = hash, ARGV = ttlMs, native(1/0), แล้วตามด้วย field, value, shadowField ทีละชุด → HSET ครั้งเดียว */
+    private static final RedisScript<Long> PUT_ALL = new DefaultRedisScript<>("""
+            local ttl = tonumber(ARGV[1])
+            local nat = ARGV[2] == '1'
+            local now
+            if ttl > 0 and not nat then local t = redis.call('time'); now = t[1] * 1000 + math.floor(t[2] / 1000) end
+            local kv, fields, shadows = {}, {}, {}
+            for i = 3, #ARGV, 3 do
+              kv[#kv + 1] = ARGV[i]
+              kv[#kv + 1] = ARGV[i + 1]
+              fields[#fields + 1] = ARGV[i]
+              if now then
+                kv[#kv + 1] = ARGV[i + 2]
+                kv[#kv + 1] = now + ttl
+              else
+                shadows[#shadows + 1] = ARGV[i + 2]
+              end
+            end
+            redis.call('hset', KEYS[1], unpack(kv))
+            if ttl <= 0 then
+              if not nat then redis.call('hdel', KEYS[1], unpack(shadows)) end
+              return #fields
+            end
+            if nat then redis.call('hpexpire', KEYS[1], ttl, 'FIELDS', #fields, unpack(fields)) end
+            if redis.call('pttl', KEYS[1]) < ttl then redis.call('pexpire', KEYS[1], ttl) end
+            return #fields""", Long.class);
+
+    /** จำนวน field สูงสุดต่อ script หนึ่งครั้ง (unpack ของ Lua รับ argument ได้จำกัด) */
+    static final int MAX_FIELDS_PER_CALL = 1_000;
+
+    private final StringRedisTemplate srt;
+    private final CacheProps props;
+    private final CacheCircuitBreaker breaker;
+    /** null = ยังไม่รู้ (AUTO ยังไม่ได้ดู version) */
+    private volatile Boolean nativeTtl;
+
+    public MapCacheStore(StringRedisTemplate srt, CacheProps props, CacheCircuitBreaker breaker) {
+        this.srt = srt;
+        this.props = props;
+        this.breaker = breaker;
+    }
+
+    /** SCRIPT LOAD ทุก script + ตัดสินโหมด TTL ไว้ก่อน (Redis ไม่พร้อม → ทำตอนเรียกใช้ครั้งแรกแทน) */
+    @Override
+    public void afterPropertiesSet() {
+        if (!props.isEnabled()) return;
+        try {
+            nativeTtl();
+            srt.execute((RedisConnection con) -> {
+                for (RedisScript<?> script : List.of(PUT, GET, GET_ALL, PUT_ALL)) {
+                    con.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("[MapCache] preload scripts failed → load on first use", e);
+        }
+    }
+
+    /** key ของ hash: prefix:cacheName (prefix ว่าง → cacheName) */
+    public String hashKey(String cacheName) {
+        String prefix = props.getPrefix();
+        return StringUtils.hasText(prefix) ? prefix + ":" + cacheName : cacheName;
+    }
+
+    /** HSET field พร้อม TTL ของ field นั้น (ttlSeconds &lt;= 0 = ไม่หมดอายุเอง) */
+    public void put(String cacheName, String field, String value, long ttlSeconds) {
+        long ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        guarded(() -> srt.execute(PUT, List.of(hashKey(cacheName)), field, value, Long.toString(ttlMs),
+                nativeTtl() ? "1" : "0", shadow(field)), null);
+    }
+
+    /** HGET (COMPANION: เช็คเวลาหมดอายุ + ลบ field ที่หมดอายุใน round trip เดียวกัน); null = MISS */
+    public String get(String cacheName, String field) {
+        String hashKey = hashKey(cacheName);
+        return guarded(() -> {
+            if (nativeTtl()) {
+                Object v = srt.opsForHash().get(hashKey, field);
+                return v == null ? null : v.toString();
+            }
+            return srt.execute(GET, List.of(hashKey), field, shadow(field));
+        }, null);
+    }
+
+    /** HMGET ครั้งเดียว (แบ่งชุดละ {@link #MAX_FIELDS_PER_CALL}); ค่าเรียงตาม fields, null = MISS/หมดอายุ */
+    public List<String> getAll(String cacheName, List<String> fields) {
+        return guarded(() -> getAll0(cacheName, fields), Arrays.asList(new String[fields.size()]));
+    }
+
+    private List<String> getAll0(String cacheName, List<String> fields) {
+        String hashKey = hashKey(cacheName);
+        List<String> out = new ArrayList<>(fields.size());
+        boolean nativeTtl = nativeTtl();
+        for (int from = 0; from < fields.size(); from += MAX_FIELDS_PER_CALL) {
+            List<String> part = fields.subList(from, Math.min(fields.size(), from + MAX_FIELDS_PER_CALL));
+            List<?> got;
+            if (nativeTtl) {
+                got = srt.<String, String>opsForHash().multiGet(hashKey, part);
+            } else {
+                Object[] argv = new Object[part.size() * 2];
+                for (int i = 0; i < part.size(); i++) {
+                    argv[i] = part.get(i);
+                    argv[part.size() + i] = shadow(part.get(i));
+                }
+                got = srt.execute(GET_ALL, List.of(hashKey), argv);
+            }
+            for (int i = 0; i < part.size(); i++) {
+                Object v = (got != null && i < got.size()) ? got.get(i) : null;
+                out.add(v == null ? null : v.toString());
+            }
+        }
+        return out;
+    }
+
+    /** HSET หลาย field ในคำสั่งเดียว (แบ่งชุดละ {@link #MAX_FIELDS_PER_CALL}) ทุก field ได้ TTL เท่ากัน */
+    public void putAll(String cacheName, Map<String, String> values, long ttlSeconds) {
+        if (values.isEmpty()) return;
+        guarded(() -> {
+            putAll0(cacheName, values, ttlSeconds);
+            return null;
+        }, null);
+    }
+
+    private void putAll0(String cacheName, Map<String, String> values, long ttlSeconds) {
+        String hashKey = hashKey(cacheName);
+        String ttlMs = Long.toString(TimeUnit.SECONDS.toMillis(ttlSeconds));
+        String nativeFlag = nativeTtl() ? "1" : "0";
+        List<Map.Entry<String, String>> entries = new ArrayList<>(values.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_FIELDS_PER_CALL) {
+            List<Map.Entry<String, String>> part = entries.subList(from, Math.min(entries.size(), from + MAX_FIELDS_PER_CALL));
+            Object[] argv = new Object[2 + part.size() * 3];
+            argv[0] = ttlMs;
+            argv[1] = nativeFlag;
+            for (int i = 0; i < part.size(); i++) {
+                argv[2 + i * 3] = part.get(i).getKey();
+                argv[3 + i * 3] = part.get(i).getValue();
+                argv[4 + i * 3] = shadow(part.get(i).getKey());
+            }
+            srt.execute(PUT_ALL, List.of(hashKey), argv);
+        }
+    }
+
+    /**
+     * ทุก field ที่ยังไม่หมดอายุ อ่านด้วย HSCAN (ทีละ scan-count) แทน HGETALL ที่ block Redis กับ hash ใหญ่
+     * field เงาไม่ถูกคืน; COMPANION: field ที่หมดอายุถูกกรองออกและ HDEL ทิ้งตอนจบ
+     */
+    public Map<String, String> scanAll(String cacheName) {
+        return guarded(() -> scanAll0(cacheName), Map.of());
+    }
+
+    private Map<String, String> scanAll0(String cacheName) {
+        String hashKey = hashKey(cacheName);
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, Long> expiries = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions().count(props.getScanCount()).build();
+        try (Cursor<Map.Entry<String, String>> cursor = srt.<String, String>opsForHash().scan(hashKey, options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<String, String> e = cursor.next();
+                if (isShadow(e.getKey())) {
+                    expiries.put(e.getKey().substring(EXP_FIELD_PREFIX.length()), parseLong(e.getValue()));
+                } else {
+                    values.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+        if (expiries.isEmpty() || values.isEmpty()) return values;
+
+        Long now = srt.execute((RedisConnection con) -> con.serverCommands().time());
+        if (now == null) return values;
+        List<Object> dead = new ArrayList<>();
+        expiries.forEach((field, expireAt) -> {
+            if (expireAt <= now && values.remove(field) != null) {
+                dead.add(field);
+                dead.add(shadow(field));
+            }
+        });
+        if (!dead.isEmpty()) srt.opsForHash().delete(hashKey, dead.toArray());
+        return values;
+    }
+
+    /** HDEL field (+ field เงา) */
+    public void evict(String cacheName, String field) {
+        srt.opsForHash().delete(hashKey(cacheName), field, shadow(field));
+    }
+
+    /** DEL ทั้ง hash */
+    public void evictAll(String cacheName) {
+        srt.delete(hashKey(cacheName));
+    }
+
+    /** เรียก op ผ่าน breaker: OPEN → whenOpen ทันที; error → บันทึกแล้วโยนต่อ */
+    private <T> T guarded(Supplier<T> op, T whenOpen) {
+        if (!breaker.tryAcquire()) return whenOpen;
+        long t0 = System.nanoTime();
+        try {
+            T out = op.get();
+            breaker.onSuccess(t0);
+            return out;
+        } catch (RuntimeException e) {
+            breaker.onError(t0);
+            throw e;
+        }
+    }
+
+    /** TTL ที่ใช้จริงของ put (ttlSeconds &lt;= 0 → default + jitter ตาม expiry ของ cache) */
+    long resolveTtl(String cacheName, long ttlSeconds) {
+        long ttl = ttlSeconds > 0 ? ttlSeconds : props.getDefaultTtlSeconds();
+        return CacheTtl.jitter(ttl, props.getExpiry().resolve(cacheName).getJitterRatio());
+    }
+
+    static String shadow(String field) {
+        return EXP_FIELD_PREFIX + field;
+    }
+
+    static boolean isShadow(String field) {
+        return field.startsWith(EXP_FIELD_PREFIX);
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /** NATIVE หรือ COMPANION ที่ใช้จริง (AUTO: ดู redis_version ครั้งแรก; อ่านไม่ได้ → COMPANION รอบนี้แล้วลองใหม่ครั้งหน้า) */
+    boolean nativeTtl() {
+        Boolean n = nativeTtl;
+        if (n != null) return n;
+        n = switch (props.getMap().getFieldTtl()) {
+            case NATIVE -> true;
+            case COMPANION -> false;
+            case AUTO -> detectNative();
+        };
+        if (n == null) return false;
+        nativeTtl = n;
+        return n;
+    }
+
+    private Boolean detectNative() {
+        try {
+            Properties info = srt.execute((RedisConnection con) -> con.serverCommands().info("server"));
+            String version = info != null ? info.getProperty("redis_version") : null;
+            boolean supported = version != null && atLeast(version, 7, 4);
+            log.info("[MapCache] redis_version={} → field TTL mode={}", version, supported ? "NATIVE" : "COMPANION");
+            return supported;
+        } catch (Exception e) {
+            log.warn("[MapCache] cannot read redis_version → use COMPANION for now", e);
+            return null;
+        }
+    }
+
+    static boolean atLeast(String version, int major, int minor) {
+        String[] parts = version.split("\\.");
+        try {
+            int ma = Integer.parseInt(parts[0]);
+            int mi = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return ma > major || (ma == major && mi >= minor);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link CacheMetrics} ที่ส่งออก Micrometer: ชื่อ metric เดิม + tag {@code cache=<cacheName>}
+ * increment → Counter, recordNanos → Timer, recordValue → DistributionSummary, gauge → Gauge
+ * meter ถูกสร้างครั้งแรกแล้วเก็บไว้ต่อ (name, cacheName) → hot path เป็นแค่ map lookup สองชั้น ไม่ค้น registry
+ */
+public class MicrometerCacheMetrics implements CacheMetrics {
+
+    static final String CACHE_TAG = "cache";
+
+    private final MeterRegistry registry;
+    private final boolean histogram;
+    private final Map<String, Map<String, Counter>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Gauge>> gauges = new ConcurrentHashMap<>();
+
+    public MicrometerCacheMetrics(MeterRegistry registry, CacheProps.Metrics cfg) {
+        this.registry = registry;
+        this.histogram = cfg.isHistogram();
+    }
+
+    @Override
+    public void increment(String name, String cacheName) {
+        Counter c = byCache(counters, name).get(cacheName);
+        if (c == null) {
+            c = byCache(counters, name).computeIfAbsent(cacheName,
+                    k -> Counter.builder(name).tag(CACHE_TAG, k).register(registry));
+        }
+        c.increment();
+    }
+
+    @Override
+    public void recordNanos(String name, String cacheName, long nanos) {
+        Timer t = byCache(timers, name).get(cacheName);
+        if (t == null) {
+            t = byCache(timers, name).computeIfAbsent(cacheName,
+                    k -> Timer.builder(name).tag(CACHE_TAG, k).publishPercentileHistogram(histogram).register(registry));
+        }
+        t.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordValue(String name, String cacheName, long value) {
+        DistributionSummary s = byCache(summaries, name).get(cacheName);
+        if (s == null) {
+            s = byCache(summaries, name).computeIfAbsent(cacheName,
+                    k -> DistributionSummary.builder(name).tag(CACHE_TAG, k)
+                            .publishPercentileHistogram(histogram).register(registry));
+        }
+        s.record(value);
+    }
+
+    @Override
+    public void gauge(String name, String cacheName, Supplier<Number> value) {
+        // Gauge.builder(name, Supplier) ถือ supplier แบบ strong reference → ไม่หายเพราะ GC
+        byCache(gauges, name).computeIfAbsent(cacheName,
+                k -> Gauge.builder(name, value).tag(CACHE_TAG, k).register(registry));
+    }
+
+    private static <M> Map<String, M> byCache(Map<String, Map<String, M>> meters, String name) {
+        Map<String, M> m = meters.get(name);
+        return m != null ? m : meters.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,230 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * L1 near-cache (in-process) ที่อยู่หน้า Redis
+ * - แบ่งเป็น region ต่อ cacheName, จำกัดทั้งจำนวน entry และน้ำหนัก (byte ของ payload)
+ * - evict แบบ second-chance (entry ที่เพิ่งถูกอ่านจะรอดไปหนึ่งรอบ)
+ * - ถูก invalidate โดย {@link NearCacheTracker} (CLIENT TRACKING) และโดย CacheEvictXAspect ของ node เอง
+ * - ใช้งานได้เฉพาะตอน tracking active เท่านั้น; ถ้า tracking หลุด → ล้างทั้งหมดและ bypass L1
+ */
+public class NearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCache.class);
+
+    /** ตัวแทนค่า null ใน L1 (เพราะ ConcurrentHashMap เก็บ null ไม่ได้) */
+    static final Object NULL_VALUE = new Object();
+
+    private static final int STRIPES = 64;
+
+    private final CacheProps props;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * stamp ต่อ stripe ของ key: ทุก invalidation จะเพิ่ม stamp
+     * ใช้กันเคส GET ได้ค่าเก่า → ระหว่างนั้นมี invalidation → แล้วค่อยเอาค่าเก่าใส่ L1
+     */
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    private volatile boolean active;
+    private volatile Function<String, byte[]> trackedReader;
+
+    public NearCache(CacheProps props) {
+        this.props = props;
+    }
+
+    /** region ของ cacheName นี้ หรือ null ถ้าไม่ได้เปิด L1 / tracking ยังไม่พร้อม */
+    public Region region(String cacheName) {
+        if (!active) return null;
+        Region r = regions.get(cacheName);
+        if (r == null) r = regions.computeIfAbsent(cacheName, n -> new Region(n, props.getNear().resolve(n)));
+        return r.spec.isEnabled() ? r : null;
+    }
+
+    /** stamp ปัจจุบันของ key; ต้องอ่านก่อนยิง GET แล้วส่งให้ {@link Region#put} */
+    public long stamp(String key) {
+        return stamps.get(stripe(key));
+    }
+
+    /**
+     * อ่านค่าจาก Redis ในแบบที่ server จะ track ให้ (โหมด OPTIN ต้องอ่านผ่าน connection ของ tracker)
+     * โหมดอื่นใช้ reader ปกติของ caller
+     */
+    public byte[] readTracked(String key, Function<String, byte[]> fallback) {
+        Function<String, byte[]> reader = trackedReader;
+        return reader != null ? reader.apply(key) : fallback.apply(key);
+    }
+
+    /** ลบ key ออกจากทุก region (มาจาก invalidation ของ server หรือ evict ของ node เอง) */
+    public void invalidate(String key) {
+        stamps.incrementAndGet(stripe(key));
+        for (Region r : regions.values()) {
+            r.remove(key);
+        }
+    }
+
+    /** ล้างทั้ง region ของ cacheName (evict-all) */
+    public void invalidateRegion(String cacheName) {
+        bumpAll();
+        Region r = regions.get(cacheName);
+        if (r != null) r.clear();
+    }
+
+    /** ล้าง L1 ทั้งหมด (flush จาก server, reconnect, tracking หลุด) */
+    public void invalidateAll() {
+        bumpAll();
+        regions.values().forEach(Region::clear);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    void setActive(boolean active) {
+        if (this.active != active) {
+            log.info("[NearCache] {}", active ? "tracking active → L1 enabled" : "tracking inactive → L1 bypassed");
+        }
+        this.active = active;
+        if (!active) invalidateAll();
+    }
+
+    void setTrackedReader(Function<String, byte[]> trackedReader) {
+        this.trackedReader = trackedReader;
+    }
+
+    private void bumpAll() {
+        for (int i = 0; i < STRIPES; i++) stamps.incrementAndGet(i);
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /** L1 ของ cacheName เดียว */
+    public final class Region {
+
+        private final String cacheName;
+        private final CacheProps.NearSpec spec;
+        private final Map<String, Entry> map = new ConcurrentHashMap<>();
+        private final AtomicLong weight = new AtomicLong();
+        private final ReentrantLock evictLock = new ReentrantLock();
+
+        private Region(String cacheName, CacheProps.NearSpec spec) {
+            this.cacheName = cacheName;
+            this.spec = spec;
+        }
+
+        /** คืนค่าใน L1 (อาจเป็น {@link #NULL_VALUE}) หรือ null ถ้าไม่มี/หมดอายุ */
+        public Object get(String key) {
+            Entry e = map.get(key);
+            if (e == null) return null;
+            if (e.expireAtNanos - System.nanoTime() <= 0) {
+                removeEntry(key, e);
+                return null;
+            }
+            e.referenced = true;
+            return e.value;
+        }
+
+        /**
+         * ใส่ค่าลง L1 ถ้าไม่มี invalidation เกิดขึ้นตั้งแต่ได้ stamp มา
+         * @param weightBytes ขนาด payload โดยประมาณ
+         * @param redisTtlSeconds TTL ฝั่ง Redis (L1 จะไม่อยู่นานกว่านี้)
+         */
+        public void put(String key, Object value, int weightBytes, long observedStamp, long redisTtlSeconds) {
+            if (stamp(key) != observedStamp) return;
+
+            long ttl = spec.getTtlSeconds() > 0 ? Math.min(spec.getTtlSeconds(), redisTtlSeconds) : redisTtlSeconds;
+            if (ttl <= 0) return;
+
+            Entry e = new Entry(value == null ? NULL_VALUE : value, weightBytes,
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl));
+            Entry old = map.put(key, e);
+            weight.addAndGet(weightBytes - (old != null ? old.weight : 0));
+
+            // มี invalidation แทรกเข้ามาระหว่าง put → ถอนออก
+            if (stamp(key) != observedStamp) {
+                removeEntry(key, e);
+                return;
+            }
+            evictIfNeeded();
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public long weight() {
+            return weight.get();
+        }
+
+        public String getCacheName() {
+            return cacheName;
+        }
+
+        void remove(String key) {
+            Entry e = map.remove(key);
+            if (e != null) weight.addAndGet(-e.weight);
+        }
+
+        void clear() {
+            map.clear();
+            weight.set(0);
+        }
+
+        private void removeEntry(String key, Entry e) {
+            if (map.remove(key, e)) weight.addAndGet(-e.weight);
+        }
+
+        private boolean overLimit() {
+            return map.size() > spec.getMaxEntries()
+                    || (spec.getMaxWeightBytes() > 0 && weight.get() > spec.getMaxWeightBytes());
+        }
+
+        /** second-chance sweep: entry ที่ถูกอ่านตั้งแต่รอบก่อนจะถูกข้ามหนึ่งครั้ง */
+        private void evictIfNeeded() {
+            if (!overLimit() || !evictLock.tryLock()) return;
+            try {
+                for (int pass = 0; pass < 2 && overLimit(); pass++) {
+                    Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+                    while (it.hasNext() && overLimit()) {
+                        Map.Entry<String, Entry> me = it.next();
+                        Entry e = me.getValue();
+                        if (e.referenced && pass == 0) {
+                            e.referenced = false;
+                        } else {
+                            removeEntry(me.getKey(), e);
+                        }
+                    }
+                }
+            } finally {
+                evictLock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final int weight;
+        final long expireAtNanos;
+        volatile boolean referenced;
+
+        Entry(Object value, int weight, long expireAtNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.expireAtNanos = expireAtNanos;
+        }
+    }
+}
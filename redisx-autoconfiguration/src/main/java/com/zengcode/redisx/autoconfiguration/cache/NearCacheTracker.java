@@ -0,0 +1,186 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * เปิด connection เฉพาะสำหรับ Redis client-side caching (CLIENT TRACKING, RESP3 push)
+ * แล้วแปลง invalidation message → {@link NearCache#invalidate(String)}
+ * - BCAST: track ทุก key ใต้ "{prefix}:" ไม่ว่าใครเป็นคนอ่าน/เขียน
+ * - OPTIN: ให้ L1 อ่านผ่าน connection นี้ (CLIENT CACHING yes + GET) server จะ track เฉพาะ key เหล่านั้น
+ * - disconnect → L1 ถูกล้างและ bypass; reconnect → ล้างอีกรอบแล้วเปิด tracking ใหม่
+ * รองรับเฉพาะ Lettuce standalone/sentinel; กรณีอื่น L1 จะไม่ถูกเปิดใช้ (fail-safe)
+ */
+public class NearCacheTracker implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheTracker.class);
+
+    private final RedisConnectionFactory cf;
+    private final NearCache near;
+    private final CacheProps props;
+
+    private final ReentrantLock optinLock = new ReentrantLock();
+    /** key เป็น String, value เป็น byte[] (ค่าใน cache ผ่าน RedisXCodec) */
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private volatile StatefulRedisConnection<String, byte[]> conn;
+
+    public NearCacheTracker(RedisConnectionFactory cf, NearCache near, CacheProps props) {
+        this.cf = cf;
+        this.near = near;
+        this.props = props;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!props.isEnabled() || !props.getNear().isAnyEnabled()) return;
+
+        RedisClient client = resolveClient();
+        if (client == null) return;
+
+        try {
+            StatefulRedisConnection<String, byte[]> c = client.connect(CODEC);
+            c.addListener((PushListener) this::onPush);
+            c.addListener(new RedisConnectionStateListener() {
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                    // reconnect หลังจากช่วงที่ไม่ได้รับ invalidation → ล้างก่อนแล้วเปิด tracking ใหม่
+                    near.invalidateAll();
+                    enableTracking();
+                }
+
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                    near.setActive(false);
+                }
+            });
+            this.conn = c;
+            enableTracking();
+        } catch (Exception e) {
+            log.warn("[NearCache] cannot open tracking connection → L1 disabled", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        near.setActive(false);
+        var c = conn;
+        conn = null;
+        if (c != null) c.closeAsync();
+    }
+
+    private RedisClient resolveClient() {
+        if (!(cf instanceof LettuceConnectionFactory lcf)) {
+            log.warn("[NearCache] requires Lettuce connection factory (found {}) → L1 disabled",
+                    cf.getClass().getSimpleName());
+            return null;
+        }
+        AbstractRedisClient client = lcf.getNativeClient();
+        if (!(client instanceof RedisClient rc)) {
+            log.warn("[NearCache] client-side caching supports standalone/sentinel only (found {}) → L1 disabled",
+                    client == null ? "null" : client.getClass().getSimpleName());
+            return null;
+        }
+        return rc;
+    }
+
+    /** ส่ง CLIENT TRACKING แบบ async (ห้าม block เพราะอาจถูกเรียกจาก event loop ตอน reconnect) */
+    private void enableTracking() {
+        var c = conn;
+        if (c == null) return;
+
+        CacheProps.TrackingMode mode = props.getNear().getTrackingMode();
+        TrackingArgs args = TrackingArgs.Builder.enabled();
+        if (mode == CacheProps.TrackingMode.OPTIN) {
+            args.optin();
+        } else {
+            args.bcast().prefixes(props.getPrefix() + ":");
+        }
+
+        c.async().clientTracking(args).whenComplete((ok, err) -> {
+            if (err != null) {
+                log.warn("[NearCache] CLIENT TRACKING failed (Redis >= 6 + RESP3 required) → L1 disabled: {}",
+                        err.toString());
+                near.setActive(false);
+                return;
+            }
+            near.setTrackedReader(mode == CacheProps.TrackingMode.OPTIN ? this::optinGet : null);
+            near.setActive(true);
+            log.info("[NearCache] CLIENT TRACKING on mode={} prefix={}:", mode, props.getPrefix());
+        });
+    }
+
+    /** CLIENT CACHING yes ต้องถูกส่งติดกับ GET บน connection เดียวกัน → lock แค่ตอน enqueue */
+    private byte[] optinGet(String key) {
+        var c = conn;
+        if (c == null) throw new IllegalStateException("tracking connection closed");
+
+        RedisFuture<byte[]> f;
+        optinLock.lock();
+        try {
+            c.async().clientCaching(true);
+            f = c.async().get(key);
+        } finally {
+            optinLock.unlock();
+        }
+        try {
+            return f.get(c.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+        } catch (Exception e) {
+            throw new IllegalStateException("tracked GET failed key=" + key, e);
+        }
+    }
+
+    private void onPush(PushMessage msg) {
+        if (!"invalidate".equals(msg.getType())) return;
+
+        List<Object> content = msg.getContent();
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys == null) {
+            // FLUSHALL/FLUSHDB → server ส่ง null มา
+            near.invalidateAll();
+            return;
+        }
+        if (keys instanceof List<?> list) {
+            for (Object k : list) {
+                String key = decode(k);
+                if (key != null) near.invalidate(key);
+            }
+        } else {
+            String key = decode(keys);
+            if (key != null) near.invalidate(key);
+        }
+        if (log.isDebugEnabled()) log.debug("[NearCache] invalidate {}", keys);
+    }
+
+    private static String decode(Object o) {
+        if (o instanceof ByteBuffer bb) return StandardCharsets.UTF_8.decode(bb.duplicate()).toString();
+        if (o instanceof byte[] b) return new String(b, StandardCharsets.UTF_8);
+        return o == null ? null : o.toString();
+    }
+}
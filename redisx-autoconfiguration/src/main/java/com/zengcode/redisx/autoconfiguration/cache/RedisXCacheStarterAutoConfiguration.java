@@ -1,49 +1,364 @@
 package com.zengcode.redisx.autoconfiguration.cache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
 
-@AutoConfiguration
+@AutoConfiguration(after = RedisAutoConfiguration.class)
 @EnableConfigurationProperties(CacheProps.class)
 public class RedisXCacheStarterAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public CacheableXAspect cacheableXAspect(StringRedisTemplate srt, CacheProps props, ObjectMapper om) {
-        return new CacheableXAspect(srt, props, om);
+    public CacheableXAspect cacheableXAspect(RedisTemplate<String, byte[]> redisXBytesTemplate,
+                                             ObjectProvider<CacheableXReactive> cacheableXReactive,
+                                             CacheProps props, ObjectMapper om, CodecRegistry codecRegistry,
+                                             NearCache nearCache, SingleFlight singleFlight,
+                                             CacheLease cacheLease, CacheMetrics cacheMetrics,
+                                             CacheRefresher cacheRefresher, CacheWriteBehind cacheWriteBehind,
+                                             CacheKeys cacheKeys, SpelRegistry spelRegistry,
+                                             CacheTagIndex cacheTagIndex, CacheCircuitBreaker cacheCircuitBreaker,
+                                             HotKeyCache hotKeyCache, CacheReplicas cacheReplicas,
+                                             CacheWarmUp cacheWarmUp) {
+        return new CacheableXAspect(redisXBytesTemplate, cacheableXReactive.getIfAvailable(), props, om,
+                codecRegistry, nearCache, singleFlight, cacheLease, cacheMetrics, cacheRefresher, cacheWriteBehind,
+                cacheKeys, spelRegistry, cacheTagIndex, cacheCircuitBreaker, hotKeyCache, cacheReplicas,
+                cacheWarmUp);
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public CacheEvictXAspect cacheEvictXAspect(StringRedisTemplate srt, CacheProps props) {
-        return new CacheEvictXAspect(srt, props);
+    public CacheableXBatchAspect cacheableXBatchAspect(RedisTemplate<String, byte[]> redisXBytesTemplate,
+                                                       CacheProps props, ObjectMapper om,
+                                                       CodecRegistry codecRegistry, CacheMetrics cacheMetrics,
+                                                       CacheKeys cacheKeys, SpelRegistry spelRegistry,
+                                                       CacheCircuitBreaker cacheCircuitBreaker) {
+        return new CacheableXBatchAspect(redisXBytesTemplate, props, om, codecRegistry, cacheMetrics, cacheKeys,
+                spelRegistry, cacheCircuitBreaker);
+    }
+
+    /**
+     * circuit breaker ของคำสั่ง Redis ฝั่ง cache (หนึ่งตัวต่อ connection factory;
+     * template ของ cache ทุกตัวใช้ factory เดียวกัน → ตัวเดียวทั้ง starter)
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheCircuitBreaker cacheCircuitBreaker(CacheProps props, CacheMetrics cacheMetrics) {
+        return new CacheCircuitBreaker("redis", props.getCircuitBreaker(), cacheMetrics);
+    }
+
+    /** template ฝั่ง value เป็น byte[] ล้วน (ค่าผ่าน RedisXCodec เอง ไม่ผ่าน serializer ของ Spring) */
+    @Bean
+    @ConditionalOnMissingBean(name = "redisXBytesTemplate")
+    public RedisTemplate<String, byte[]> redisXBytesTemplate(RedisConnectionFactory cf) {
+        var t = new RedisTemplate<String, byte[]>();
+        t.setConnectionFactory(cf);
+        t.setKeySerializer(RedisSerializer.string());
+        t.setValueSerializer(RedisSerializer.byteArray());
+        t.setHashKeySerializer(RedisSerializer.string());
+        t.setHashValueSerializer(RedisSerializer.byteArray());
+        t.afterPropertiesSet();
+        return t;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "redisXJsonCodec")
+    public RedisXCodec redisXJsonCodec(ObjectMapper om) {
+        return new JacksonCodec(JacksonCodec.JSON, "json", om);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "redisXCompactCodec")
+    public RedisXCodec redisXCompactCodec(ObjectMapper om) {
+        return new CompactCodec(new JacksonCodec(JacksonCodec.JSON, "json", om));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CodecRegistry codecRegistry(ObjectProvider<RedisXCodec> codecs, CacheProps props) {
+        return new CodecRegistry(codecs.orderedStream().toList(), props);
+    }
+
+    /**
+     * ส่วน reactive ของ @CacheableX (เมธอดที่คืน CompletableFuture / Mono + read budget) ใช้ได้เฉพาะเมื่อมี reactor-core
+     * แอป Jedis ที่ไม่มี reactor → ไม่มี bean นี้ → aspect ทำงานแบบ sync ล้วน (async proceed ตรง, ไม่มี read budget)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Mono.class)
+    static class ReactiveCacheConfiguration {
+
+        /** คู่ reactive ของ redisXBytesTemplate สำหรับ @CacheableX ที่คืน CompletableFuture / Mono */
+        @Bean
+        @ConditionalOnMissingBean(name = "redisXReactiveBytesTemplate")
+        @ConditionalOnBean(ReactiveRedisConnectionFactory.class)
+        public ReactiveRedisTemplate<String, byte[]> redisXReactiveBytesTemplate(ReactiveRedisConnectionFactory cf) {
+            RedisSerializationContext<String, byte[]> ctx = RedisSerializationContext
+                    .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                    .value(RedisSerializer.byteArray())
+                    .hashKey(RedisSerializer.string())
+                    .hashValue(RedisSerializer.byteArray())
+                    .build();
+            return new ReactiveRedisTemplate<>(cf, ctx);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+        public CacheableXReactive cacheableXReactive(
+                ObjectProvider<ReactiveRedisTemplate<String, byte[]>> redisXReactiveBytesTemplate, CacheProps props,
+                CodecRegistry codecRegistry, CacheMetrics cacheMetrics, CacheCircuitBreaker cacheCircuitBreaker,
+                CacheTagIndex cacheTagIndex) {
+            return new CacheableXReactive(redisXReactiveBytesTemplate.getIfAvailable(), props, codecRegistry,
+                    cacheMetrics, cacheCircuitBreaker, cacheTagIndex);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(SmileFactory.class)
+    static class SmileCodecConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "redisXSmileCodec")
+        public RedisXCodec redisXSmileCodec(ObjectMapper om) {
+            return new JacksonCodec(JacksonCodec.SMILE, "smile", om.copyWith(new SmileFactory()));
+        }
+    }
+
+    /**
+     * มี micrometer-core → metric ของ cache ไปที่ MeterRegistry ของแอป (ถ้ามีตัวเดียว) แทน in-memory
+     * nested configuration ถูกประมวลผลก่อน bean ของ class หลัก → {@link #cacheMetrics()} ถูกข้ามไป
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CacheMetrics micrometerCacheMetrics(ObjectProvider<MeterRegistry> registry, CacheProps props) {
+            MeterRegistry r = registry.getIfUnique();
+            return r != null ? new MicrometerCacheMetrics(r, props.getMetrics()) : new SimpleCacheMetrics();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(CBORFactory.class)
+    static class CborCodecConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "redisXCborCodec")
+        public RedisXCodec redisXCborCodec(ObjectMapper om) {
+            return new JacksonCodec(JacksonCodec.CBOR, "cbor", om.copyWith(new CBORFactory()));
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CacheEvictXAspect cacheEvictXAspect(StringRedisTemplate srt, CacheProps props, NearCache nearCache,
+                                               SpelRegistry spelRegistry, CacheWriteBehind cacheWriteBehind,
+                                               CacheKeys cacheKeys, CacheTagIndex cacheTagIndex,
+                                               CacheBulkEvictor cacheBulkEvictor, CacheMetrics cacheMetrics,
+                                               HotKeyCache hotKeyCache, CacheReplicas cacheReplicas) {
+        return new CacheEvictXAspect(srt, props, nearCache, spelRegistry, cacheWriteBehind, cacheKeys, cacheTagIndex,
+                cacheBulkEvictor, cacheMetrics, hotKeyCache, cacheReplicas);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheKeys cacheKeys(StringRedisTemplate srt, CacheProps props, CacheMetrics cacheMetrics) {
+        return new CacheKeys(srt, props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheTagIndex cacheTagIndex(StringRedisTemplate srt, CacheProps props, CacheMetrics cacheMetrics) {
+        return new CacheTagIndex(srt, props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheBulkEvictor cacheBulkEvictor(StringRedisTemplate srt, CacheProps props, CacheMetrics cacheMetrics) {
+        return new CacheBulkEvictor(srt, props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "redisx.cache.generation.sweeper", name = "enabled", havingValue = "true")
+    public GenerationSweeper generationSweeper(StringRedisTemplate srt, CacheProps props, CacheKeys cacheKeys,
+                                               CacheMetrics cacheMetrics) {
+        return new GenerationSweeper(srt, props, cacheKeys, cacheMetrics);
+    }
+
+    /** static: BeanPostProcessor ต้องสร้างก่อน bean อื่น โดยไม่ดึง configuration class นี้ขึ้นมาก่อนเวลา */
+    @Bean
+    @ConditionalOnMissingBean
+    public static SpelRegistry spelRegistry() {
+        return new SpelRegistry();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheMetrics cacheMetrics() {
+        return new SimpleCacheMetrics();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SingleFlight singleFlight(CacheProps props, CacheMetrics cacheMetrics) {
+        return new SingleFlight(props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheRefresher cacheRefresher(CacheProps props, CacheMetrics cacheMetrics) {
+        return new CacheRefresher(props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheWriteBehind cacheWriteBehind(RedisTemplate<String, byte[]> redisXBytesTemplate, CacheProps props,
+                                             CacheMetrics cacheMetrics) {
+        return new CacheWriteBehind(redisXBytesTemplate, props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheLease cacheLease(StringRedisTemplate srt) {
+        return new CacheLease(srt);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NearCache nearCache(CacheProps props) {
+        return new NearCache(props);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HotKeyCache hotKeyCache(CacheProps props, CacheMetrics cacheMetrics) {
+        return new HotKeyCache(props, cacheMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheReplicas cacheReplicas(CacheProps props) {
+        return new CacheReplicas(props);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheWarmUp cacheWarmUp(StringRedisTemplate srt, CacheProps props, ObjectMapper om,
+                                   CodecRegistry codecRegistry, NearCache nearCache, CacheMetrics cacheMetrics) {
+        return new CacheWarmUp(srt, props, om, codecRegistry, nearCache, cacheMetrics);
+    }
+
+    /** แอปมี actuator → health redisxWarmUp (OUT_OF_SERVICE ระหว่างอุ่น L1; ใส่ใน readiness group เอง) */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HealthIndicator.class)
+    static class WarmUpHealthConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "redisxWarmUpHealthIndicator")
+        public CacheWarmUpHealthIndicator redisxWarmUpHealthIndicator(CacheWarmUp cacheWarmUp) {
+            return new CacheWarmUpHealthIndicator(cacheWarmUp);
+        }
+    }
+
+    /** แอปมี actuator → endpoint /actuator/redisxhotkeys แสดง hot key ของ window ล่าสุด (ต้อง expose เองตามปกติ) */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class HotKeysEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HotKeysEndpoint hotKeysEndpoint(HotKeyCache hotKeyCache, CacheProps props) {
+            return new HotKeysEndpoint(hotKeyCache, props);
+        }
+    }
+
+    /**
+     * CLIENT TRACKING ของ L1 ใช้ type ของ Lettuce โดยตรง → มีเฉพาะเมื่อมี Lettuce ใน classpath
+     * ไม่มี tracker (เช่น Jedis ล้วน) → NearCache ไม่ถูก activate → L1 ถูก bypass เสมอ
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+    static class NearCacheTrackingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+        public NearCacheTracker nearCacheTracker(RedisConnectionFactory cf, NearCache nearCache, CacheProps props) {
+            return new NearCacheTracker(cf, nearCache, props);
+        }
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public MapCachePutAspect mapCachePutAspect(StringRedisTemplate srt, CacheProps props, ObjectMapper om) {
-        return new MapCachePutAspect(srt, props);
+    public MapCachePutAspect mapCachePutAspect(CacheProps props, SpelRegistry spelRegistry,
+                                               MapCacheStore mapCacheStore, ObjectMapper om) {
+        return new MapCachePutAspect(props, spelRegistry, mapCacheStore, om);
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public MapCacheGetAspect mapCacheGetAspect(StringRedisTemplate srt, CacheProps props, ObjectMapper om) {
-        return new MapCacheGetAspect(srt, props);
+    public MapCachePutAllAspect mapCachePutAllAspect(CacheProps props, SpelRegistry spelRegistry,
+                                                     MapCacheStore mapCacheStore, ObjectMapper om) {
+        return new MapCachePutAllAspect(props, spelRegistry, mapCacheStore, om);
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public MapCacheEvictAspect mapCacheEvictAspect(StringRedisTemplate srt, CacheProps props) {
-        return new MapCacheEvictAspect(srt, props);
+    public MapCacheGetAspect mapCacheGetAspect(CacheProps props, SpelRegistry spelRegistry,
+                                               MapCacheStore mapCacheStore, ObjectMapper om) {
+        return new MapCacheGetAspect(props, spelRegistry, mapCacheStore, om);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MapCacheGetAllAspect mapCacheGetAllAspect(CacheProps props, SpelRegistry spelRegistry,
+                                                     MapCacheStore mapCacheStore, ObjectMapper om) {
+        return new MapCacheGetAllAspect(props, spelRegistry, mapCacheStore, om);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "redisx.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MapCacheEvictAspect mapCacheEvictAspect(CacheProps props, SpelRegistry spelRegistry,
+                                                   MapCacheStore mapCacheStore) {
+        return new MapCacheEvictAspect(props, spelRegistry, mapCacheStore);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MapCacheStore mapCacheStore(StringRedisTemplate srt, CacheProps props,
+                                       CacheCircuitBreaker cacheCircuitBreaker) {
+        return new MapCacheStore(srt, props, cacheCircuitBreaker);
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+
+/**
+ * SPI แปลงค่า cache ↔ byte[] (เลือกได้ต่อ cacheName ผ่าน redisx.cache.codec.*)
+ * ทุก payload ใน Redis มี header 1 byte ที่บอก {@link #id()} ของ codec ที่เขียน
+ * → เปลี่ยน codec ได้โดยไม่ต้อง flush Redis (ค่าที่เขียนด้วย codec เก่ายังอ่านได้ ถ้ายังมี bean ของ codec นั้น)
+ * ประกาศ bean ของ RedisXCodec เพิ่มเองได้ (id ต้องไม่ชนกับตัวอื่น ดู {@link CacheEnvelope#isValidCodecId(int)})
+ */
+public interface RedisXCodec {
+
+    /** รหัส format ที่เก็บใน header (2..15 ยกเว้น 9, 10, 13) */
+    int id();
+
+    /** ชื่อที่ใช้อ้างใน config เช่น "json", "smile" */
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    Object decode(byte[] bytes, int offset, int length, JavaType type) throws IOException;
+}
@@ -0,0 +1,117 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link CacheMetrics} แบบ in-memory (LongAdder) ใช้ดูค่าผ่าน {@link #snapshot()} หรือ log
+ * key ของ metric = "{name}{cacheName}" เช่น "redisx.cache.stampede.coalesced{demo:user}"
+ * เก็บเป็น map สองชั้น (name → cacheName) → hot path ไม่ต้องต่อ String เป็น key ทุกครั้ง (ต่อเฉพาะตอน snapshot)
+ */
+public class SimpleCacheMetrics implements CacheMetrics {
+
+    private final Map<String, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Supplier<Number>>> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(String name, String cacheName) {
+        LongAdder c = byCache(counters, name).get(cacheName);
+        if (c == null) c = byCache(counters, name).computeIfAbsent(cacheName, k -> new LongAdder());
+        c.increment();
+    }
+
+    @Override
+    public void recordNanos(String name, String cacheName, long nanos) {
+        timer(timers, name, cacheName).record(nanos);
+    }
+
+    @Override
+    public void recordValue(String name, String cacheName, long value) {
+        timer(summaries, name, cacheName).record(value);
+    }
+
+    @Override
+    public void gauge(String name, String cacheName, Supplier<Number> value) {
+        byCache(gauges, name).putIfAbsent(cacheName, value);
+    }
+
+    /** ค่าปัจจุบันของ gauge (null = ไม่ได้ลงทะเบียน) */
+    public Number gaugeValue(String name, String cacheName) {
+        Supplier<Number> g = find(gauges, name, cacheName);
+        return g != null ? g.get() : null;
+    }
+
+    /** ผลรวมของค่าที่ record ผ่าน {@link #recordValue} */
+    public long totalValue(String name, String cacheName) {
+        Timer s = find(summaries, name, cacheName);
+        return s != null ? s.total.sum() : 0L;
+    }
+
+    /** จำนวนครั้งของ counter (หรือจำนวนครั้งที่จับเวลา ถ้าเป็น timer) */
+    public long count(String name, String cacheName) {
+        LongAdder c = find(counters, name, cacheName);
+        if (c != null) return c.sum();
+        Timer t = find(timers, name, cacheName);
+        return t != null ? t.count.sum() : 0L;
+    }
+
+    /** เวลารวม (ms) ของ timer */
+    public long totalMs(String name, String cacheName) {
+        Timer t = find(timers, name, cacheName);
+        return t != null ? TimeUnit.NANOSECONDS.toMillis(t.total.sum()) : 0L;
+    }
+
+    /** ค่าทั้งหมด ณ ตอนนี้ (timer แสดงเป็น count/totalMs/maxMs, gauge แสดงค่าปัจจุบัน) */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new TreeMap<>();
+        counters.forEach((n, m) -> m.forEach((c, v) -> out.put(id(n, c), v.sum())));
+        timers.forEach((n, m) -> m.forEach((c, t) -> out.put(id(n, c), Map.of(
+                "count", t.count.sum(),
+                "totalMs", TimeUnit.NANOSECONDS.toMillis(t.total.sum()),
+                "maxMs", TimeUnit.NANOSECONDS.toMillis(t.max.get())))));
+        summaries.forEach((n, m) -> m.forEach((c, s) -> out.put(id(n, c), Map.of(
+                "count", s.count.sum(),
+                "total", s.total.sum(),
+                "max", s.max.get()))));
+        gauges.forEach((n, m) -> m.forEach((c, g) -> out.put(id(n, c), g.get())));
+        return out;
+    }
+
+    private static String id(String name, String cacheName) {
+        return name + "{" + cacheName + "}";
+    }
+
+    private static Timer timer(Map<String, Map<String, Timer>> timers, String name, String cacheName) {
+        Timer t = byCache(timers, name).get(cacheName);
+        return t != null ? t : byCache(timers, name).computeIfAbsent(cacheName, k -> new Timer());
+    }
+
+    private static <M> M find(Map<String, Map<String, M>> meters, String name, String cacheName) {
+        Map<String, M> m = meters.get(name);
+        return m != null ? m.get(cacheName) : null;
+    }
+
+    private static <M> Map<String, M> byCache(Map<String, Map<String, M>> meters, String name) {
+        Map<String, M> m = meters.get(name);
+        return m != null ? m : meters.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+    }
+
+    private static final class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * รวม cache-miss ที่เกิดพร้อมกันของ key เดียวกันให้เหลือการโหลดจริงครั้งเดียวต่อ JVM
+ * - caller แรก (leader) เรียก loader; caller ที่ตามมา (follower) รอผลลัพธ์เดียวกัน
+ * - exception ของ leader ถูกส่งต่อให้ follower ทุกตัว
+ * - follower รอเกิน waitTimeoutMs (ถ้ากำหนด) → โหลดเองแทน (fail-open)
+ */
+public class SingleFlight {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+
+    static final String LOADS = "redisx.cache.stampede.loads";
+    static final String COALESCED = "redisx.cache.stampede.coalesced";
+    static final String WAIT = "redisx.cache.stampede.wait";
+    static final String WAIT_TIMEOUT = "redisx.cache.stampede.wait-timeout";
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final CacheProps props;
+    private final CacheMetrics metrics;
+
+    public SingleFlight(CacheProps props, CacheMetrics metrics) {
+        this.props = props;
+        this.metrics = metrics;
+    }
+
+    public Object execute(String cacheName, String key, Loader loader) throws Throwable {
+        if (!props.getSingleFlight().isEnabled()) return loader.load();
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(cacheName, key, running, loader);
+        }
+
+        metrics.increment(LOADS, cacheName);
+        try {
+            Object out = loader.load();
+            mine.complete(out);
+            return out;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** จำนวน key ที่กำลังโหลดอยู่ตอนนี้ */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object await(String cacheName, String key, CompletableFuture<Object> running, Loader loader) throws Throwable {
+        metrics.increment(COALESCED, cacheName);
+        long t0 = System.nanoTime();
+        long timeoutMs = props.getSingleFlight().getWaitTimeoutMs();
+        try {
+            Object out = timeoutMs > 0 ? running.get(timeoutMs, TimeUnit.MILLISECONDS) : running.get();
+            log.debug("[CacheableX] COALESCED key={} waited={}ms", key,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+            return out;
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            metrics.increment(WAIT_TIMEOUT, cacheName);
+            log.debug("[CacheableX] COALESCE wait timeout after {}ms → load self, key={}", timeoutMs, key);
+            return loader.load();
+        } finally {
+            metrics.recordNanos(WAIT, cacheName, System.nanoTime() - t0);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.zengcode.redisx.autoconfiguration.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.annotation.cache.CacheableXBatch;
+import com.zengcode.redisx.annotation.cache.MapCacheEvict;
+import com.zengcode.redisx.annotation.cache.MapCacheGet;
+import com.zengcode.redisx.annotation.cache.MapCacheGetAll;
+import com.zengcode.redisx.annotation.cache.MapCachePut;
+import com.zengcode.redisx.annotation.cache.MapCachePutAll;
+import com.zengcode.redisx.annotation.pubsub.PublishX;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ทะเบียน SpEL ต่อ Method ที่ใช้ร่วมกันทุก aspect (@CacheableX, @CacheableXBatch, @CacheEvictX, @MapCache*, @PublishX)
+ * - ตอน bean post-processing: หา method ที่มี annotation แล้ว parse + compile (SpelCompilerMode.MIXED) ไว้ล่วงหน้า
+ *   expression ผิด → startup ล้มทันที (BeanInitializationException) แทนที่จะไปพังตอน request แรก
+ * - เก็บชื่อ parameter ไว้ครั้งเดียว; ตอน eval ใช้ context เบา ๆ ที่อ่านตัวแปรจาก args ตรง ๆ
+ *   (#name, #p0/#a0, #result) และยืม resolver/accessor จาก StandardEvaluationContext ตัวเดียวที่แชร์กัน
+ * - expression ที่เป็นแค่การอ้าง parameter ตัวเดียว (#id, #p0) ถูก resolve เป็น index ตอน parse
+ *   → eval คืน args[i] ทันที ไม่สร้าง context ไม่ผ่าน SpEL (ทางหลักของ key บน hot path)
+ * - method ที่ไม่ได้ผ่าน BPP (เช่น JDK proxy ที่ signature เป็น method ของ interface) ถูกสร้าง lazy ตอนเรียกครั้งแรก
+ */
+public class SpelRegistry implements BeanPostProcessor {
+
+    /** annotation → expression ที่ต้อง pre-compile (เพิ่ม annotation ใหม่ที่นี่) */
+    private static final Map<Class<? extends Annotation>, Function<Annotation, List<String>>> EXPRESSIONS =
+            new LinkedHashMap<>();
+
+    static {
+        register(CacheableX.class, a -> concat(List.of(a.key(), a.condition(), a.unless()), a.tags()));
+        register(CacheableXBatch.class, a -> List.of(a.key(), a.condition()));
+        register(CacheEvictX.class, a -> concat(List.of(a.key()), a.tags()));
+        register(MapCacheGet.class, a -> List.of(a.key()));
+        register(MapCacheGetAll.class, a -> List.of(a.key()));
+        register(MapCachePut.class, a -> List.of(a.key()));
+        register(MapCachePutAll.class, a -> List.of(a.key()));
+        register(MapCacheEvict.class, a -> List.of(a.key()));
+        register(PublishX.class, a -> List.of(a.payload(), a.condition()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> void register(Class<A> type, Function<A, List<String>> exprs) {
+        EXPRESSIONS.put(type, a -> exprs.apply((A) a));
+    }
+
+    private static List<String> concat(List<String> head, String[] tail) {
+        List<String> out = new ArrayList<>(head);
+        out.addAll(List.of(tail));
+        return out;
+    }
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelRegistry.class.getClassLoader()));
+    private final ParameterNameDiscoverer names = new DefaultParameterNameDiscoverer();
+    private final StandardEvaluationContext shared = new StandardEvaluationContext();
+    private final Map<Method, MethodSpel> methods = new ConcurrentHashMap<>();
+
+    public SpelRegistry() {
+        // StandardEvaluationContext สร้าง list ของ accessor/resolver แบบ lazy (ไม่ thread-safe) → init ไว้ก่อนแชร์
+        shared.getPropertyAccessors();
+        shared.getConstructorResolvers();
+        shared.getMethodResolvers();
+        shared.getTypeLocator();
+        shared.getTypeConverter();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (type.getName().startsWith("org.springframework.")) return bean;
+        for (Method m : ReflectionUtils.getUniqueDeclaredMethods(type, ReflectionUtils.USER_DECLARED_METHODS)) {
+            List<String> exprs = annotatedExpressions(m);
+            if (exprs.isEmpty()) continue;
+            MethodSpel spel = forMethod(m);
+            for (String expr : exprs) {
+                try {
+                    spel.expression(expr);
+                } catch (ParseException e) {
+                    throw new BeanInitializationException("[RedisX] invalid SpEL '" + expr + "' on "
+                            + type.getSimpleName() + "." + m.getName() + " (bean '" + beanName + "'): "
+                            + e.getMessage(), e);
+                }
+            }
+        }
+        return bean;
+    }
+
+    /** metadata ของ method (สร้างครั้งเดียวแล้ว cache) */
+    public MethodSpel forMethod(Method m) {
+        MethodSpel spel = methods.get(m);
+        return spel != null ? spel : methods.computeIfAbsent(m, MethodSpel::new);
+    }
+
+    /** จำนวน method ที่ลงทะเบียนแล้ว */
+    public int size() {
+        return methods.size();
+    }
+
+    private static List<String> annotatedExpressions(Method m) {
+        List<String> out = new ArrayList<>();
+        EXPRESSIONS.forEach((type, exprs) -> {
+            Annotation a = AnnotatedElementUtils.findMergedAnnotation(m, type);
+            if (a == null) return;
+            for (String e : exprs.apply(a)) {
+                if (e != null && !e.isBlank()) out.add(e);
+            }
+        });
+        return out;
+    }
+
+    /** expression ที่ parse แล้ว + ชื่อ parameter ของ method หนึ่ง ๆ */
+    public final class MethodSpel {
+
+        private final Map<String, Integer> paramIndex = new HashMap<>();
+        private final Map<String, Expression> exprs = new ConcurrentHashMap<>();
+        /** expr → index ของ arg ที่ expr อ้างตรง ๆ; -1 = ต้อง eval ผ่าน SpEL */
+        private final Map<String, Integer> argRefs = new ConcurrentHashMap<>();
+
+        private MethodSpel(Method m) {
+            String[] n = names.getParameterNames(m);
+            if (n != null) for (int i = 0; i < n.length; i++) paramIndex.put(n[i], i);
+        }
+
+        /** expr ว่าง → null */
+        public String evalStr(String expr, Object[] args) {
+            Object v = eval(expr, args, null);
+            return v == null ? null : String.valueOf(v);
+        }
+
+        /** expr ว่าง → null; มีตัวแปรเพิ่ม 1 ตัว (เช่น #id ของ @CacheableXBatch) */
+        public String evalStr(String expr, Object[] args, String var, Object value) {
+            if (expr == null || expr.isBlank()) return null;
+            ArgsContext ctx = new ArgsContext(this, args, null);
+            ctx.setVariable(var, value);
+            Object v = expression(expr).getValue(ctx);
+            return v == null ? null : String.valueOf(v);
+        }
+
+        /** expr ว่าง → defaultIfBlank; ค่า null → false */
+        public boolean evalBool(String expr, Object[] args, Object result, boolean defaultIfBlank) {
+            if (expr == null || expr.isBlank()) return defaultIfBlank;
+            Object v = eval(expr, args, result);
+            if (v == null) return false;
+            if (v instanceof Boolean b) return b;
+            return Boolean.parseBoolean(String.valueOf(v));
+        }
+
+        /** expr ว่าง → null */
+        public Object eval(String expr, Object[] args, Object result) {
+            if (expr == null || expr.isBlank()) return null;
+            int i = argRef(expr);
+            if (i >= 0) return i < args.length ? args[i] : null;
+            return expression(expr).getValue(new ArgsContext(this, args, result));
+        }
+
+        Expression expression(String expr) {
+            Expression e = exprs.get(expr);
+            if (e != null) return e;
+            e = exprs.computeIfAbsent(expr, parser::parseExpression);
+            argRefs.putIfAbsent(expr, directIndex(expr));
+            return e;
+        }
+
+        private int argRef(String expr) {
+            Integer i = argRefs.get(expr);
+            if (i == null) {
+                expression(expr);
+                i = argRefs.get(expr);
+            }
+            return i;
+        }
+
+        /** "#name" / "#p0" / "#a0" (ไม่มีอย่างอื่นปน) → index ของ arg; อย่างอื่น → -1 */
+        private int directIndex(String expr) {
+            if (expr.length() < 2 || expr.charAt(0) != '#' || !Character.isJavaIdentifierStart(expr.charAt(1))) return -1;
+            for (int k = 2; k < expr.length(); k++) {
+                if (!Character.isJavaIdentifierPart(expr.charAt(k))) return -1;
+            }
+            String name = expr.substring(1);
+            if (name.equals("result") || name.equals("root") || name.equals("this")) return -1;
+            Integer i = paramIndex.get(name);
+            if (i == null) {
+                try {
+                    i = positional(name);
+                } catch (NumberFormatException e) {
+                    return -1; // เลขยาวเกิน int → ให้ SpEL ตัดสินตามเดิม
+                }
+            }
+            return i != null ? i : -1;
+        }
+    }
+
+    /** #p0 / #a0 */
+    private static Integer positional(String name) {
+        if (name.length() < 2 || (name.charAt(0) != 'p' && name.charAt(0) != 'a')) return null;
+        for (int k = 1; k < name.length(); k++) {
+            if (!Character.isDigit(name.charAt(k))) return null;
+        }
+        return Integer.parseInt(name, 1, name.length(), 10);
+    }
+
+    /**
+     * EvaluationContext ต่อ invocation: ตัวแปรอ่านจาก args โดยตรง (ไม่ copy ลง map)
+     * ส่วน accessor/resolver/type locator ใช้ของ StandardEvaluationContext ที่แชร์ (cache reflection ไว้ข้ามการเรียก)
+     */
+    private final class ArgsContext implements EvaluationContext {
+
+        private final MethodSpel spel;
+        private final Object[] args;
+        private final Object result;
+        private Map<String, Object> assigned;
+
+        ArgsContext(MethodSpel spel, Object[] args, Object result) {
+            this.spel = spel;
+            this.args = args;
+            this.result = result;
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            if (assigned != null && assigned.containsKey(name)) return assigned.get(name);
+            if ("result".equals(name)) return result;
+            Integer i = spel.paramIndex.get(name);
+            if (i == null) i = positional(name);
+            return (i != null && i < args.length) ? args[i] : null;
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            if (assigned == null) assigned = new HashMap<>(4);
+            assigned.put(name, value);
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return shared.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return shared.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return shared.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return null;
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return shared.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return shared.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return shared.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return shared.getOperatorOverloader();
+        }
+    }
+}
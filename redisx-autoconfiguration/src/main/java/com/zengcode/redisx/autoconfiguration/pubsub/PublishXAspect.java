@@ -3,6 +3,7 @@ package com.zengcode.redisx.autoconfiguration.pubsub;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zengcode.redisx.annotation.pubsub.PublishX;
 import com.zengcode.redisx.autoconfiguration.cache.CacheProps;
+import com.zengcode.redisx.autoconfiguration.cache.SpelRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -10,10 +11,6 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.StringUtils;
 
 @Aspect
@@ -25,18 +22,29 @@ public class PublishXAspect {
     private final CacheProps cacheProps;
     private final PubSubProps pubProps;
     private final ObjectMapper om;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelRegistry spelRegistry;
     private final String appName;
 
+    /** สำหรับประกอบเองนอก auto-configuration: ใช้ registry ของตัวเอง (expression ถูก parse lazy ตอนเรียกครั้งแรก) */
     public PublishXAspect(StringRedisTemplate srt,
                           CacheProps cacheProps,
                           PubSubProps pubProps,
                           ObjectMapper om,
                           String appName) {
+        this(srt, cacheProps, pubProps, om, new SpelRegistry(), appName);
+    }
+
+    public PublishXAspect(StringRedisTemplate srt,
+                          CacheProps cacheProps,
+                          PubSubProps pubProps,
+                          ObjectMapper om,
+                          SpelRegistry spelRegistry,
+                          String appName) {
         this.srt = srt;
         this.cacheProps = cacheProps;
         this.pubProps = pubProps;
         this.om = om;
+        this.spelRegistry = spelRegistry;
         this.appName = appName;
     }
 
@@ -45,9 +53,10 @@ public class PublishXAspect {
         Object result = pjp.proceed();
         if (!cacheProps.isEnabled() || !pubProps.isEnabled()) return result;
 
-        EvaluationContext ctx = buildCtx(pjp, result);
+        SpelRegistry.MethodSpel spel = spelRegistry.forMethod(((MethodSignature) pjp.getSignature()).getMethod());
+        Object[] args = pjp.getArgs();
 
-        Boolean cond = getBoolean(ctx, pub.condition(), true);
+        Boolean cond = getBoolean(spel, args, result, pub.condition(), true);
         if (!cond) {
             log.debug("[PublishX] condition=false, skip publish. topic={}, method={}",
                     pub.topic(), methodSig(pjp));
@@ -64,7 +73,7 @@ public class PublishXAspect {
         // evaluate payload
         Object payload = null;
         try {
-            payload = parser.parseExpression(pub.payload()).getValue(ctx);
+            payload = spel.eval(pub.payload(), args, result);
         } catch (Exception e) {
             log.warn("[PublishX] payload SpEL evaluation error. method={}, expr={}, err={}",
                     methodSig(pjp), pub.payload(), e.toString());
@@ -115,22 +124,11 @@ public class PublishXAspect {
         return result;
     }
 
-    private EvaluationContext buildCtx(ProceedingJoinPoint pjp, Object result) {
-        EvaluationContext ctx = new StandardEvaluationContext();
-        Object[] args = pjp.getArgs();
-        String[] names = ((MethodSignature) pjp.getSignature()).getParameterNames();
-        if (names != null) {
-            for (int i = 0; i < names.length; i++) ctx.setVariable(names[i], args[i]);
-        }
-        for (int i = 0; i < args.length; i++) ctx.setVariable("p" + i, args[i]);
-        ctx.setVariable("result", result);
-        return ctx;
-    }
-
-    private Boolean getBoolean(EvaluationContext ctx, String expr, boolean dflt) {
+    private Boolean getBoolean(SpelRegistry.MethodSpel spel, Object[] args, Object result, String expr, boolean dflt) {
         try {
-            Boolean v = parser.parseExpression(expr).getValue(ctx, Boolean.class);
-            return v == null ? dflt : v;
+            Object v = spel.eval(expr, args, result);
+            if (v == null) return dflt;
+            return v instanceof Boolean b ? b : Boolean.parseBoolean(String.valueOf(v));
         } catch (Exception e) {
             log.warn("[PublishX] condition parse error: {} (default={})", e.toString(), dflt);
             return dflt;
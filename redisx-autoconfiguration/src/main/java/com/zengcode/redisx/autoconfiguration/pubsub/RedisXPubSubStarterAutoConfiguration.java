@@ -2,6 +2,8 @@ package com.zengcode.redisx.autoconfiguration.pubsub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zengcode.redisx.autoconfiguration.cache.CacheProps;
+import com.zengcode.redisx.autoconfiguration.cache.SpelRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -30,6 +32,7 @@ public class RedisXPubSubStarterAutoConfiguration {
         return c;
     }
 
+    /** SpelRegistry เป็น bean ของ cache auto-config → ใช้ร่วมกันถ้ามี, ไม่มี (เช่น exclude ฝั่ง cache) → สร้างใช้เอง */
     @Bean
     @ConditionalOnMissingBean(PublishXAspect.class)
     @ConditionalOnProperty(prefix = "redisx.pubsub", name = "enabled",
@@ -38,8 +41,9 @@ public class RedisXPubSubStarterAutoConfiguration {
                                          CacheProps cacheProps,
                                          PubSubProps pubProps,
                                          ObjectMapper om,
+                                         ObjectProvider<SpelRegistry> spelRegistry,
                                          @Value("${spring.application.name:redisx-app}") String appName) {
-        return new PublishXAspect(srt, cacheProps, pubProps, om, appName);
+        return new PublishXAspect(srt, cacheProps, pubProps, om, spelRegistry.getIfAvailable(SpelRegistry::new), appName);
     }
 
     @Bean
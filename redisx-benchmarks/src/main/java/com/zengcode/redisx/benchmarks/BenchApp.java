@@ -0,0 +1,16 @@
+package com.zengcode.redisx.benchmarks;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/** context ขั้นต่ำของ benchmark: auto-configuration ของ RedisX + service ที่มี annotation */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+public class BenchApp {
+
+    @Bean
+    public BenchService benchService() {
+        return new BenchService();
+    }
+}
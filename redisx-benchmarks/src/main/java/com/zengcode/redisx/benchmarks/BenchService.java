@@ -0,0 +1,57 @@
+package com.zengcode.redisx.benchmarks;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.annotation.cache.MapCacheEvict;
+import com.zengcode.redisx.annotation.cache.MapCacheGet;
+import com.zengcode.redisx.annotation.pubsub.PublishX;
+
+/**
+ * เมธอดเป้าหมายของ benchmark (ตัวเมธอดแทบไม่ทำอะไร → ที่วัดได้คือต้นทุนของ aspect + round trip)
+ * ค่าที่คืนเป็น record เล็ก ๆ ให้ผ่าน codec จริง (ไม่ใช่ String ที่เก็บตรง)
+ */
+public class BenchService {
+
+    public static final String CACHE = "bench:item";
+    public static final String MISS_CACHE = "bench:miss";
+    public static final String MAP = "bench:map";
+
+    public record Item(String id, String name, long price) {
+    }
+
+    @CacheableX(cacheName = CACHE, key = "#id", ttlSeconds = 600)
+    public Item find(String id) {
+        return new Item(id, "item-" + id, 100);
+    }
+
+    @CacheableX(cacheName = MISS_CACHE, key = "#id", ttlSeconds = 60)
+    public Item load(String id) {
+        return new Item(id, "item-" + id, 100);
+    }
+
+    @CacheEvictX(cacheName = CACHE, key = "#id")
+    public void evict(String id) {
+    }
+
+    @CacheEvictX(cacheName = MISS_CACHE, allEntries = true)
+    public void clearMisses() {
+    }
+
+    @MapCacheGet(cacheName = MAP, key = "#id", ttlSeconds = 600)
+    public Item mapFind(String id) {
+        return new Item(id, "item-" + id, 100);
+    }
+
+    @MapCacheEvict(cacheName = MAP, key = "#id")
+    public void mapEvict(String id) {
+    }
+
+    @MapCacheEvict(cacheName = MAP, allEntries = true)
+    public void mapClear() {
+    }
+
+    @PublishX(topic = "bench-updated", event = "UPDATED")
+    public Item publish(String id) {
+        return new Item(id, "item-" + id, 100);
+    }
+}
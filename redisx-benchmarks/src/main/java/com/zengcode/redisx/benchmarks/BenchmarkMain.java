@@ -0,0 +1,64 @@
+package com.zengcode.redisx.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * จุดเริ่มของ benchmarks.jar: ใช้ option ของ JMH ตามปกติ แต่ตั้งค่า default ให้เทียบข้ามเวอร์ชันได้
+ * - GC profiler (gc.alloc.rate.norm = byte ต่อ call) เมื่อไม่ได้ระบุ -prof เอง
+ * - ผลเป็น JSON ที่ jmh-result.json (หรือ -rf/-rff ที่ระบุ)
+ * - backend: standin เสมอ + redis ถ้า PING ไปที่ -Dredisx.bench.redis ได้ (หรือระบุ -p backend=... เอง)
+ * เช่น java -jar benchmarks.jar CacheableX -p backend=standin
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        String redis = System.getProperty(RedisXBenchmarkState.REDIS_PROPERTY, RedisXBenchmarkState.DEFAULT_REDIS);
+
+        ChainedOptionsBuilder opt = new OptionsBuilder().parent(cli)
+                .jvmArgsAppend("-D" + RedisXBenchmarkState.REDIS_PROPERTY + "=" + redis);
+        if (cli.getProfilers().isEmpty()) opt.addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) opt.resultFormat(ResultFormatType.JSON);
+        if (!cli.getResult().hasValue()) opt.result("jmh-result.json");
+        if (!cli.getParameter("backend").hasValue()) {
+            if (ping(redis)) {
+                opt.param("backend", "standin", "redis");
+            } else {
+                System.out.println("[bench] no Redis at " + redis + " → standin only");
+                opt.param("backend", "standin");
+            }
+        }
+        new Runner(opt.build()).run();
+    }
+
+    /** PING แบบดิบ (ไม่ต้องเปิด client) ภายใน 500ms */
+    static boolean ping(String hostPort) {
+        String[] hp = hostPort.split(":");
+        try (Socket s = new Socket()) {
+            s.connect(new InetSocketAddress(hp[0], Integer.parseInt(hp[1])), 500);
+            s.setSoTimeout(500);
+            OutputStream out = s.getOutputStream();
+            out.write("*1\r\n$4\r\nPING\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = s.getInputStream();
+            byte[] reply = in.readNBytes(5);
+            return new String(reply, StandardCharsets.US_ASCII).equals("+PONG");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
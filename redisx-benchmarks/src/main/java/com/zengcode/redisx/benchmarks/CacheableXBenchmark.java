@@ -0,0 +1,66 @@
+package com.zengcode.redisx.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @CacheableX / @CacheEvictX ต่อ call (L1 ปิด)
+ * hit   = GET + decode
+ * miss  = GET (ว่าง) + single-flight + เมธอดจริง + encode + SET (key ใหม่ทุกครั้ง; ล้างทุก iteration)
+ * evict = SpEL key + DEL
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheableXBenchmark extends RedisXBenchmarkState {
+
+    private static final String HOT = "hot";
+
+    private final AtomicLong seq = new AtomicLong();
+
+    @Override
+    protected void prepare() {
+        service.find(HOT);
+    }
+
+    @Benchmark
+    public BenchService.Item hit() {
+        return service.find(HOT);
+    }
+
+    @Benchmark
+    public BenchService.Item miss() {
+        return service.load(Long.toString(seq.incrementAndGet()));
+    }
+
+    @Benchmark
+    public void evict() {
+        service.evict("gone");
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearMisses() {
+        service.clearMisses();
+    }
+
+    @Override
+    protected void cleanup() {
+        service.evict(HOT);
+        service.clearMisses();
+    }
+}
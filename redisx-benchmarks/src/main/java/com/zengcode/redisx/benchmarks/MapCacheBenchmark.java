@@ -0,0 +1,53 @@
+package com.zengcode.redisx.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zengcode.redisx.autoconfiguration.cache.MapCacheStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @MapCacheGet / @MapCacheEvict ต่อ call
+ * ค่าที่ HIT ถูกเขียนด้วย HSET ตรง ๆ (stand-in ไม่มี Lua จึงรัน PUT script ไม่ได้) → miss path ของ map ไม่อยู่ในชุดนี้
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapCacheBenchmark extends RedisXBenchmarkState {
+
+    private static final String HOT = "hot";
+
+    @Override
+    protected void prepare() throws Exception {
+        String hashKey = bean(MapCacheStore.class).hashKey(BenchService.MAP);
+        String json = bean(ObjectMapper.class).writeValueAsString(new BenchService.Item(HOT, "item-" + HOT, 100));
+        bean(StringRedisTemplate.class).opsForHash().put(hashKey, HOT, json);
+    }
+
+    @Benchmark
+    public BenchService.Item hit() {
+        return service.mapFind(HOT);
+    }
+
+    @Benchmark
+    public void evict() {
+        service.mapEvict("gone");
+    }
+
+    @Override
+    protected void cleanup() {
+        service.mapClear();
+    }
+}
@@ -0,0 +1,88 @@
+package com.zengcode.redisx.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * ฐานของทุก benchmark ที่ต้องมี Redis: เปิด context ของ Spring หนึ่งครั้งต่อ trial
+ * backend=standin → {@link RespStandIn} ใน process เดียวกัน (รันได้ offline)
+ * backend=redis   → Redis จริงตาม -Dredisx.bench.redis=host:port (default localhost:6379)
+ * key ทั้งหมดอยู่ใต้ prefix "redisx-bench" (ไม่ชนข้อมูลอื่นบน Redis เดียวกัน)
+ */
+@State(Scope.Benchmark)
+public abstract class RedisXBenchmarkState {
+
+    public static final String REDIS_PROPERTY = "redisx.bench.redis";
+    public static final String DEFAULT_REDIS = "localhost:6379";
+
+    @Param({"standin"})
+    public String backend;
+
+    protected BenchService service;
+    private ConfigurableApplicationContext ctx;
+    private RespStandIn standIn;
+
+    @Setup(Level.Trial)
+    public void startContext() throws Exception {
+        String host;
+        int port;
+        if ("standin".equals(backend)) {
+            standIn = RespStandIn.start();
+            host = "127.0.0.1";
+            port = standIn.port();
+        } else if ("redis".equals(backend)) {
+            String[] hp = System.getProperty(REDIS_PROPERTY, DEFAULT_REDIS).split(":");
+            host = hp[0];
+            port = Integer.parseInt(hp[1]);
+        } else {
+            throw new IllegalArgumentException("unknown backend '" + backend + "' (standin | redis)");
+        }
+        ctx = new SpringApplicationBuilder(BenchApp.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.data.redis.host=" + host,
+                        "spring.data.redis.port=" + port,
+                        "redisx.cache.prefix=redisx-bench",
+                        // L1 ตัด round trip ทิ้ง → ปิดไว้เพื่อวัด path ที่ไป Redis จริง
+                        "redisx.cache.near.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.context.support.PostProcessorRegistrationDelegate=ERROR")
+                .run();
+        service = ctx.getBean(BenchService.class);
+        prepare();
+    }
+
+    protected <T> T bean(Class<T> type) {
+        return ctx.getBean(type);
+    }
+
+    /** เตรียมข้อมูลหลัง context พร้อม (เช่นเขียนค่าให้ HIT) */
+    protected void prepare() throws Exception {
+    }
+
+    /** ล้างข้อมูลของ benchmark ก่อนปิด (สำคัญตอนรันกับ Redis จริง) */
+    protected void cleanup() {
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() throws IOException {
+        try {
+            if (ctx != null) cleanup();
+        } finally {
+            if (ctx != null) ctx.close();
+            if (standIn != null) standIn.close();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.zengcode.redisx.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Redis ปลอมแบบ in-process (RESP2 บน loopback) ให้ benchmark รันได้โดยไม่มี Redis จริง
+ * รองรับเฉพาะคำสั่งที่ hot path ของ aspect ใช้: GET/SET/SETEX/DEL/UNLINK/SCAN, HGET/HMGET/HSET/HDEL, PUBLISH
+ * + คำสั่งตอน connect ของ Lettuce (HELLO → error ให้ถอยไป RESP2, CLIENT, PING, INFO, SCRIPT LOAD)
+ * ไม่มี TTL / Lua (EVAL/EVALSHA → error) → ผลที่ได้คือต้นทุนฝั่ง client + aspect ไม่ใช่ของ Redis
+ */
+public final class RespStandIn implements AutoCloseable {
+
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NIL = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final String INFO = "# Server\r\nredis_version:7.4.0\r\nredis_mode:standalone\r\n";
+
+    private final ServerSocket server;
+    private final Map<String, byte[]> strings = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, byte[]>> hashes = new ConcurrentHashMap<>();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private RespStandIn(ServerSocket server) {
+        this.server = server;
+    }
+
+    /** เปิดบน port ว่างของ 127.0.0.1 แล้วเริ่มรับ connection (หนึ่ง daemon thread ต่อ connection) */
+    public static RespStandIn start() throws IOException {
+        RespStandIn s = new RespStandIn(new ServerSocket(0, 128, InetAddress.getLoopbackAddress()));
+        Thread.ofPlatform().daemon().name("resp-standin-accept").start(s::acceptLoop);
+        return s;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /** จำนวน key ทั้งหมด (string + hash) */
+    public int size() {
+        return strings.size() + hashes.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Socket c : clients) c.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket c = server.accept();
+                c.setTcpNoDelay(true);
+                clients.add(c);
+                Thread.ofPlatform().daemon().name("resp-standin-conn").start(() -> serve(c));
+            } catch (IOException e) {
+                if (!closed) throw new IllegalStateException("stand-in accept failed", e);
+            }
+        }
+    }
+
+    private void serve(Socket c) {
+        try (c; InputStream in = new BufferedInputStream(c.getInputStream());
+             OutputStream out = new BufferedOutputStream(c.getOutputStream())) {
+            while (true) {
+                List<byte[]> cmd = readCommand(in);
+                execute(cmd, out);
+                // pipeline: ตอบเป็นชุดเดียวเมื่ออ่านคำสั่งที่ค้างอยู่หมดแล้ว
+                if (in.available() == 0) out.flush();
+            }
+        } catch (EOFException | java.net.SocketException e) {
+            // client ปิด connection
+        } catch (IOException e) {
+            if (!closed) throw new IllegalStateException("stand-in connection failed", e);
+        } finally {
+            clients.remove(c);
+        }
+    }
+
+    private void execute(List<byte[]> cmd, OutputStream out) throws IOException {
+        String name = str(cmd.get(0)).toUpperCase();
+        switch (name) {
+            case "PING" -> out.write(PONG);
+            case "HELLO" -> error(out, "ERR unknown command 'HELLO'");
+            case "CLIENT", "SELECT", "FLUSHALL", "FLUSHDB" -> {
+                if (name.startsWith("FLUSH")) {
+                    strings.clear();
+                    hashes.clear();
+                }
+                out.write(OK);
+            }
+            case "INFO" -> bulk(out, INFO.getBytes(StandardCharsets.US_ASCII));
+            case "GET" -> bulk(out, strings.get(str(cmd.get(1))));
+            case "SET" -> set(cmd, out);
+            case "SETEX", "PSETEX" -> {
+                strings.put(str(cmd.get(1)), cmd.get(3));
+                out.write(OK);
+            }
+            case "DEL", "UNLINK" -> {
+                long n = 0;
+                for (int i = 1; i < cmd.size(); i++) {
+                    String k = str(cmd.get(i));
+                    if (strings.remove(k) != null | hashes.remove(k) != null) n++;
+                }
+                integer(out, n);
+            }
+            case "EXISTS" -> {
+                long n = 0;
+                for (int i = 1; i < cmd.size(); i++) {
+                    String k = str(cmd.get(i));
+                    if (strings.containsKey(k) || hashes.containsKey(k)) n++;
+                }
+                integer(out, n);
+            }
+            case "EXPIRE", "PEXPIRE" -> integer(out, strings.containsKey(str(cmd.get(1))) ? 1 : 0);
+            case "SCAN" -> scan(cmd, out);
+            case "HGET" -> {
+                Map<String, byte[]> h = hashes.get(str(cmd.get(1)));
+                bulk(out, h == null ? null : h.get(str(cmd.get(2))));
+            }
+            case "HMGET" -> {
+                Map<String, byte[]> h = hashes.get(str(cmd.get(1)));
+                arrayHeader(out, cmd.size() - 2);
+                for (int i = 2; i < cmd.size(); i++) bulk(out, h == null ? null : h.get(str(cmd.get(i))));
+            }
+            case "HSET" -> {
+                Map<String, byte[]> h = hashes.computeIfAbsent(str(cmd.get(1)), k -> new ConcurrentHashMap<>());
+                long added = 0;
+                for (int i = 2; i + 1 < cmd.size(); i += 2) {
+                    if (h.put(str(cmd.get(i)), cmd.get(i + 1)) == null) added++;
+                }
+                integer(out, added);
+            }
+            case "HDEL" -> {
+                Map<String, byte[]> h = hashes.get(str(cmd.get(1)));
+                long n = 0;
+                for (int i = 2; h != null && i < cmd.size(); i++) {
+                    if (h.remove(str(cmd.get(i))) != null) n++;
+                }
+                integer(out, n);
+            }
+            case "PUBLISH" -> integer(out, 0);
+            case "TIME" -> {
+                long micros = System.currentTimeMillis() * 1000;
+                arrayHeader(out, 2);
+                bulk(out, Long.toString(micros / 1_000_000).getBytes(StandardCharsets.US_ASCII));
+                bulk(out, Long.toString(micros % 1_000_000).getBytes(StandardCharsets.US_ASCII));
+            }
+            case "SCRIPT" -> bulk(out, sha1(cmd.size() > 2 ? cmd.get(2) : new byte[0]));
+            default -> error(out, "ERR stand-in does not support '" + name + "'");
+        }
+    }
+
+    /** SET key value [NX|XX] [EX s|PX ms ...] (TTL ถูกข้าม) */
+    private void set(List<byte[]> cmd, OutputStream out) throws IOException {
+        String key = str(cmd.get(1));
+        boolean nx = false;
+        boolean xx = false;
+        for (int i = 3; i < cmd.size(); i++) {
+            String opt = str(cmd.get(i)).toUpperCase();
+            if (opt.equals("NX")) nx = true;
+            else if (opt.equals("XX")) xx = true;
+        }
+        if (nx) {
+            if (strings.putIfAbsent(key, cmd.get(2)) != null) out.write(NIL);
+            else out.write(OK);
+            return;
+        }
+        if (xx && !strings.containsKey(key)) {
+            out.write(NIL);
+            return;
+        }
+        strings.put(key, cmd.get(2));
+        out.write(OK);
+    }
+
+    /** SCAN cursor [MATCH glob] [COUNT n]: คืนทุก key ที่ตรงในรอบเดียว (cursor 0) */
+    private void scan(List<byte[]> cmd, OutputStream out) throws IOException {
+        Pattern match = null;
+        for (int i = 2; i + 1 < cmd.size(); i += 2) {
+            if (str(cmd.get(i)).equalsIgnoreCase("MATCH")) match = glob(str(cmd.get(i + 1)));
+        }
+        List<String> keys = new ArrayList<>();
+        for (String k : strings.keySet()) if (match == null || match.matcher(k).matches()) keys.add(k);
+        for (String k : hashes.keySet()) if (match == null || match.matcher(k).matches()) keys.add(k);
+        arrayHeader(out, 2);
+        bulk(out, "0".getBytes(StandardCharsets.US_ASCII));
+        arrayHeader(out, keys.size());
+        for (String k : keys) bulk(out, k.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static Pattern glob(String glob) {
+        StringBuilder re = new StringBuilder();
+        for (char ch : glob.toCharArray()) {
+            switch (ch) {
+                case '*' -> re.append(".*");
+                case '?' -> re.append('.');
+                default -> re.append(Pattern.quote(String.valueOf(ch)));
+            }
+        }
+        return Pattern.compile(re.toString(), Pattern.DOTALL);
+    }
+
+    // ───────────────────────────────────────────────────────────────────────────
+    // RESP
+    // ───────────────────────────────────────────────────────────────────────────
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) throw new EOFException();
+        if (type != '*') throw new IOException("expected array, got '" + (char) type + "'");
+        int n = (int) readLong(in);
+        List<byte[]> args = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (in.read() != '$') throw new IOException("expected bulk string");
+            int len = (int) readLong(in);
+            byte[] b = in.readNBytes(len);
+            if (b.length < len) throw new EOFException();
+            in.skipNBytes(2);
+            args.add(b);
+        }
+        return args;
+    }
+
+    private static long readLong(InputStream in) throws IOException {
+        long v = 0;
+        boolean neg = false;
+        int ch;
+        while ((ch = in.read()) != '\r') {
+            if (ch < 0) throw new EOFException();
+            if (ch == '-') neg = true;
+            else v = v * 10 + (ch - '0');
+        }
+        in.read(); // '\n'
+        return neg ? -v : v;
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(NIL);
+            return;
+        }
+        out.write('$');
+        out.write(Integer.toString(value.length).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    private static void integer(OutputStream out, long v) throws IOException {
+        out.write(':');
+        out.write(Long.toString(v).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static void arrayHeader(OutputStream out, int n) throws IOException {
+        out.write('*');
+        out.write(Integer.toString(n).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static void error(OutputStream out, String msg) throws IOException {
+        out.write('-');
+        out.write(msg.getBytes(StandardCharsets.UTF_8));
+        out.write(CRLF);
+    }
+
+    /** key/field เก็บเป็น ISO-8859-1 → แปลงกลับเป็น byte เดิมได้ครบ */
+    private static String str(byte[] b) {
+        return new String(b, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] sha1(byte[] script) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-1").digest(script);
+            return HexFormat.of().formatHex(d).getBytes(StandardCharsets.US_ASCII);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
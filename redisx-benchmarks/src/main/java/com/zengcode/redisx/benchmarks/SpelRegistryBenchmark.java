@@ -0,0 +1,43 @@
+package com.zengcode.redisx.benchmarks;
+
+import com.zengcode.redisx.autoconfiguration.cache.SpelRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** ต้นทุน SpEL ของ key ต่อ call (ไม่มี Redis): expression ธรรมดา กับ expression ที่ต่อ string */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpelRegistryBenchmark {
+
+    private SpelRegistry.MethodSpel spel;
+    private final Object[] args = {"42"};
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        spel = new SpelRegistry().forMethod(BenchService.class.getMethod("find", String.class));
+    }
+
+    @Benchmark
+    public String simpleKey() {
+        return spel.evalStr("#id", args);
+    }
+
+    @Benchmark
+    public String compositeKey() {
+        return spel.evalStr("'u:' + #id + ':' + #p0.length()", args);
+    }
+}
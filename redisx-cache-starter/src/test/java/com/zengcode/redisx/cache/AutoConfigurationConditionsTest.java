@@ -0,0 +1,63 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.autoconfiguration.cache.CacheableXAspect;
+import com.zengcode.redisx.autoconfiguration.cache.CacheableXReactive;
+import com.zengcode.redisx.autoconfiguration.cache.NearCache;
+import com.zengcode.redisx.autoconfiguration.cache.NearCacheTracker;
+import com.zengcode.redisx.autoconfiguration.cache.RedisXCacheStarterAutoConfiguration;
+import io.lettuce.core.RedisClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bean ที่พึ่ง library optional ต้องถูกข้ามเมื่อไม่มี library นั้น (ไม่ต้องต่อ Redis: connection ถูกสร้างแบบ lazy)
+ */
+class AutoConfigurationConditionsTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class,
+                    RedisReactiveAutoConfiguration.class, JacksonAutoConfiguration.class,
+                    RedisXCacheStarterAutoConfiguration.class));
+
+    @Test
+    void withReactor_asyncPathIsWired() {
+        runner.run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx).hasSingleBean(CacheableXReactive.class);
+            assertThat(ctx.getBean(CacheableXReactive.class).isAvailable()).isTrue();
+        });
+    }
+
+    @Test
+    void withoutReactor_aspectStillLoads_withoutAsyncPath() {
+        runner.withClassLoader(new FilteredClassLoader(Mono.class)).run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx).hasSingleBean(CacheableXAspect.class);
+            assertThat(ctx).doesNotHaveBean(CacheableXReactive.class);
+            assertThat(ctx).doesNotHaveBean("redisXReactiveBytesTemplate");
+        });
+    }
+
+    @Test
+    void withoutLettuce_nearCacheTrackerIsSkipped_andL1StaysBypassed() {
+        runner.withClassLoader(new FilteredClassLoader(RedisClient.class))
+                // connection factory ของแอปเอง (auto-config ของ Boot ต้องการ client ใน classpath)
+                .withBean(RedisConnectionFactory.class, LettuceConnectionFactory::new)
+                .run(ctx -> {
+                    assertThat(ctx).hasNotFailed();
+                    assertThat(ctx).hasSingleBean(CacheableXAspect.class);
+                    assertThat(ctx).doesNotHaveBean(NearCacheTracker.class);
+                    assertThat(ctx.getBean(NearCache.class).isActive()).isFalse();
+                });
+    }
+}
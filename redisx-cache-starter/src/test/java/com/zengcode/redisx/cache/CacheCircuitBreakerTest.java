@@ -0,0 +1,113 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.autoconfiguration.cache.CacheCircuitBreaker;
+import com.zengcode.redisx.autoconfiguration.cache.CacheProps;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheCircuitBreakerTest {
+
+    private final SimpleCacheMetrics metrics = new SimpleCacheMetrics();
+
+    private CacheCircuitBreaker breaker() {
+        return breaker(200);
+    }
+
+    private CacheCircuitBreaker breaker(long openMs) {
+        CacheProps.CircuitBreaker cfg = new CacheProps.CircuitBreaker();
+        cfg.setWindowSize(10);
+        cfg.setMinimumCalls(4);
+        cfg.setFailureRateThreshold(50);
+        cfg.setSlowCallMs(100);
+        cfg.setSlowCallRateThreshold(75);
+        cfg.setOpenMs(openMs);
+        cfg.setHalfOpenCalls(2);
+        return new CacheCircuitBreaker("test", cfg, metrics);
+    }
+
+    @Test
+    void opensOnFailureRate_rejectsWhileOpen_thenClosesAfterSuccessfulProbes() throws Exception {
+        CacheCircuitBreaker b = breaker();
+        for (int i = 0; i < 2; i++) ok(b);
+        fail(b);
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.CLOSED); // ยังไม่ถึง minimum-calls
+        fail(b);
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+        assertThat(metrics.gaugeValue("redisx.cache.breaker.state", "test")).isEqualTo(1);
+
+        assertThat(b.tryAcquire()).isFalse();
+        assertThat(b.tryAcquire()).isFalse();
+        assertThat(metrics.count("redisx.cache.breaker.rejected", "test")).isEqualTo(2);
+
+        Thread.sleep(250);
+        // HALF_OPEN: ปล่อยแค่ half-open-calls คำสั่ง
+        assertThat(b.tryAcquire()).isTrue();
+        assertThat(b.tryAcquire()).isTrue();
+        assertThat(b.tryAcquire()).isFalse();
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.HALF_OPEN);
+        b.onSuccess(System.nanoTime());
+        b.onSuccess(System.nanoTime());
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.CLOSED);
+        assertThat(metrics.gaugeValue("redisx.cache.breaker.state", "test")).isEqualTo(0);
+
+        assertThat(metrics.count("redisx.cache.breaker.opened", "test")).isEqualTo(1);
+        assertThat(metrics.count("redisx.cache.breaker.half-opened", "test")).isEqualTo(1);
+        assertThat(metrics.count("redisx.cache.breaker.closed", "test")).isEqualTo(1);
+    }
+
+    @Test
+    void failedProbe_reopens() throws Exception {
+        CacheCircuitBreaker b = breaker();
+        for (int i = 0; i < 4; i++) fail(b);
+        Thread.sleep(250);
+
+        assertThat(b.tryAcquire()).isTrue();
+        b.onError(System.nanoTime());
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+        assertThat(b.tryAcquire()).isFalse();
+        assertThat(metrics.count("redisx.cache.breaker.opened", "test")).isEqualTo(2);
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        CacheCircuitBreaker b = breaker();
+        long longAgo = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(500);
+        for (int i = 0; i < 3; i++) {
+            assertThat(b.tryAcquire()).isTrue();
+            b.onSuccess(longAgo);
+        }
+        ok(b);
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void concurrentRecords_inClosedState_openOnceAtThreshold() throws Exception {
+        CacheCircuitBreaker b = breaker(60_000); // ไม่ให้ถึง HALF_OPEN ระหว่าง test
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (b.tryAcquire()) b.onError(System.nanoTime());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertThat(b.state()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+        assertThat(metrics.count("redisx.cache.breaker.opened", "test")).isEqualTo(1);
+    }
+
+    private static void ok(CacheCircuitBreaker b) {
+        assertThat(b.tryAcquire()).isTrue();
+        b.onSuccess(System.nanoTime());
+    }
+
+    private static void fail(CacheCircuitBreaker b) {
+        assertThat(b.tryAcquire()).isTrue();
+        b.onError(System.nanoTime());
+    }
+}
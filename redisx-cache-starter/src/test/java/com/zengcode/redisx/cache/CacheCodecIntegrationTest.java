@@ -0,0 +1,103 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=codec",
+        "redisx.cache.enabled=true",
+        "redisx.cache.codec.caches.[demo\\:smile]=smile",
+        "redisx.cache.codec.caches.[demo\\:compact]=compact"
+})
+@DirtiesContext
+class CacheCodecIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired DemoService demo;
+    @Autowired RedisTemplate<String, byte[]> redisXBytesTemplate;
+
+    @Test
+    void smileCodec_roundTripsPojo_withFormatHeader() {
+        User u = demo.smileUser("1");
+        assertThat(demo.smileUser("1")).isEqualTo(u);
+        assertThat(demo.calls()).isEqualTo(1);
+
+        byte[] raw = redisXBytesTemplate.opsForValue().get("codec:demo:smile:1");
+        assertThat(raw[0] & 0x0F).isEqualTo(3); // header: codec id ของ smile
+    }
+
+    @Test
+    void compactCodec_storesStringRaw() {
+        assertThat(demo.compactName("7")).isEqualTo("name-7");
+        byte[] raw = redisXBytesTemplate.opsForValue().get("codec:demo:compact:7");
+        // header + tag + UTF-8 ล้วน (ไม่มี quote ของ JSON)
+        assertThat(new String(raw, 2, raw.length - 2, StandardCharsets.UTF_8)).isEqualTo("name-7");
+        assertThat(demo.compactName("7")).isEqualTo("name-7");
+    }
+
+    @Test
+    void valuesWrittenByOtherFormat_areStillReadable() {
+        int before = demo.calls();
+        // ค่ารุ่นเก่า (JSON ล้วน) และค่าที่เขียนด้วย codec json → cache ที่ตั้งเป็น smile ยังอ่านได้ ไม่ต้อง flush
+        redisXBytesTemplate.opsForValue().set("codec:demo:smile:legacy",
+                "{\"id\":\"legacy\",\"tags\":[\"a\"]}".getBytes(StandardCharsets.UTF_8));
+        byte[] json = "{\"id\":\"hdr\",\"tags\":[]}".getBytes(StandardCharsets.UTF_8);
+        byte[] withHeader = new byte[json.length + 1];
+        withHeader[0] = 2; // codec id ของ json
+        System.arraycopy(json, 0, withHeader, 1, json.length);
+        redisXBytesTemplate.opsForValue().set("codec:demo:smile:hdr", withHeader);
+
+        assertThat(demo.smileUser("legacy")).isEqualTo(new User("legacy", List.of("a")));
+        assertThat(demo.smileUser("hdr")).isEqualTo(new User("hdr", List.of()));
+        assertThat(demo.calls()).isEqualTo(before);
+    }
+
+    record User(String id, List<String> tags) { }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean DemoService demoService() { return new DemoService(); }
+    }
+
+    static class DemoService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:smile", key = "#id", ttlSeconds = 60)
+        public User smileUser(String id) {
+            counter.incrementAndGet();
+            return new User(id, List.of("x", "y"));
+        }
+
+        @CacheableX(cacheName = "demo:compact", key = "#id", ttlSeconds = 60)
+        public String compactName(String id) {
+            return "name-" + id;
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,83 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=zip",
+        "redisx.cache.enabled=true",
+        "redisx.cache.compression.caches.[demo\\:doc].threshold-bytes=1024"
+})
+@DirtiesContext
+class CacheCompressionIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired DocService docs;
+    @Autowired RedisTemplate<String, byte[]> redisXBytesTemplate;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void largeValue_isStoredCompressed_andReadBackTransparently() {
+        String big = docs.doc("big", 50_000);
+        assertThat(docs.doc("big", 50_000)).isEqualTo(big);
+        assertThat(docs.calls()).isEqualTo(1);
+
+        byte[] raw = redisXBytesTemplate.opsForValue().get("zip:demo:doc:big");
+        assertThat(raw[0] & 0x80).isNotZero();           // header: flag บีบอัด
+        assertThat(raw.length).isLessThan(big.length() / 10);
+
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        assertThat(m.totalValue("redisx.cache.compression.raw-bytes", "demo:doc"))
+                .isGreaterThan(m.totalValue("redisx.cache.compression.stored-bytes", "demo:doc"));
+        assertThat(m.count("redisx.cache.compression.decompress-time", "demo:doc")).isEqualTo(1);
+    }
+
+    @Test
+    void valueBelowThreshold_isStoredAsIs() {
+        docs.doc("small", 10);
+        byte[] raw = redisXBytesTemplate.opsForValue().get("zip:demo:doc:small");
+        assertThat(raw[0] & 0x80).isZero();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean DocService docService() { return new DocService(); }
+    }
+
+    static class DocService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:doc", key = "#id", ttlSeconds = 60)
+        public String doc(String id, int size) {
+            counter.incrementAndGet();
+            return "lorem ipsum ".repeat(size / 12 + 1);
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
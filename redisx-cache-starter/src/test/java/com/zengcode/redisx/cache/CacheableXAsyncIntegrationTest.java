@@ -0,0 +1,98 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=async",
+        "redisx.cache.enabled=true"
+})
+@DirtiesContext
+class CacheableXAsyncIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired PriceService prices;
+    @Autowired RedisTemplate<String, byte[]> redisXBytesTemplate;
+
+    @Test
+    void completableFuture_cachesCompletedValue() throws Exception {
+        CompletableFuture<String> first = prices.future("A");
+        assertThat(first.isDone()).isFalse();            // caller ไม่ถูก block ระหว่างรอเมธอดจริง
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("price-A");
+
+        assertThat(prices.future("A").get(5, TimeUnit.SECONDS)).isEqualTo("price-A");
+        assertThat(prices.calls()).isEqualTo(1);
+
+        // เก็บค่า String ที่ได้ ไม่ใช่ตัว CompletableFuture
+        byte[] raw = redisXBytesTemplate.opsForValue().get("async:demo:price:A");
+        assertThat(new String(raw, StandardCharsets.UTF_8)).endsWith("\"price-A\"");
+    }
+
+    @Test
+    void mono_cachesCompletedValue_andIsLazy() {
+        Mono<String> lazy = prices.mono("B");
+        assertThat(prices.monoCalls()).isZero();          // ยังไม่ subscribe → ยังไม่แตะ Redis/เมธอดจริงใน Mono
+
+        assertThat(lazy.block(Duration.ofSeconds(5))).isEqualTo("price-B");
+        assertThat(prices.mono("B").block(Duration.ofSeconds(5))).isEqualTo("price-B");
+        assertThat(prices.monoCalls()).isEqualTo(1);
+
+        assertThat(redisXBytesTemplate.hasKey("async:demo:price:mono:B")).isTrue();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean PriceService priceService() { return new PriceService(); }
+    }
+
+    static class PriceService {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger monoCalls = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:price", key = "#sku", ttlSeconds = 60)
+        public CompletableFuture<String> future(String sku) {
+            calls.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> "price-" + sku,
+                    CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        }
+
+        @CacheableX(cacheName = "demo:price", key = "'mono:' + #sku", ttlSeconds = 60)
+        public Mono<String> mono(String sku) {
+            return Mono.fromCallable(() -> {
+                monoCalls.incrementAndGet();
+                return "price-" + sku;
+            });
+        }
+
+        int calls() { return calls.get(); }
+        int monoCalls() { return monoCalls.get(); }
+    }
+}
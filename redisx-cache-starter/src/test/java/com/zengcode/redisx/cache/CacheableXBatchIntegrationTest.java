@@ -0,0 +1,107 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.annotation.cache.CacheableXBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=batch",
+        "redisx.cache.enabled=true"
+})
+@DirtiesContext
+class CacheableXBatchIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired UserService users;
+    @Autowired StringRedisTemplate srt;
+
+    @BeforeEach
+    void clean() {
+        Set<String> keys = srt.keys("batch:*");
+        if (keys != null && !keys.isEmpty()) srt.delete(keys);
+        users.calls().clear();
+    }
+
+    @Test
+    void onlyMissingIdsReachTheMethod_andResultKeepsRequestOrder() {
+        users.loadAll(List.of(2L, 4L));
+        assertThat(users.calls()).containsExactly(List.of(2L, 4L));
+
+        Map<Long, String> out = users.loadAll(List.of(5L, 4L, 3L, 2L, 1L));
+        assertThat(users.calls().get(1)).containsExactly(5L, 3L, 1L);
+        assertThat(new ArrayList<>(out.keySet())).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(out).containsEntry(4L, "user-4").containsEntry(1L, "user-1");
+
+        // ครบทุก id แล้ว → ไม่เรียกเมธอดจริงอีก
+        users.loadAll(List.of(1L, 2L, 3L, 4L, 5L));
+        assertThat(users.calls()).hasSize(2);
+
+        Long ttl = srt.getExpire("batch:demo:user:3");
+        assertThat(ttl).isBetween(1L, 60L);
+    }
+
+    @Test
+    void unknownIds_areAbsentFromResult_andSharedKeysWithCacheableX() {
+        Map<Long, String> out = users.loadAll(List.of(1L, 404L));
+        assertThat(out).containsOnlyKeys(1L);
+
+        // @CacheableX ของ cache เดียวกันอ่านค่าที่ batch เขียนไว้ได้ (format เดียวกัน)
+        assertThat(users.one(1L)).isEqualTo("user-1");
+        assertThat(users.calls()).hasSize(1);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean UserService userService() { return new UserService(); }
+    }
+
+    static class UserService {
+        private final List<List<Long>> calls = new CopyOnWriteArrayList<>();
+
+        @CacheableXBatch(cacheName = "demo:user", ttlSeconds = 60)
+        public Map<Long, String> loadAll(Collection<Long> ids) {
+            calls.add(new ArrayList<>(ids));
+            Map<Long, String> out = new LinkedHashMap<>();
+            for (Long id : ids) if (id < 100) out.put(id, "user-" + id);
+            return out;
+        }
+
+        @CacheableX(cacheName = "demo:user", key = "#id", ttlSeconds = 60)
+        public String one(Long id) {
+            calls.add(List.of(id));
+            return "user-" + id;
+        }
+
+        List<List<Long>> calls() { return calls; }
+    }
+}
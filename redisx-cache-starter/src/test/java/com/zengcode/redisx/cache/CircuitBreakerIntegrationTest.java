@@ -0,0 +1,73 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheCircuitBreaker;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Redis ใช้ไม่ได้ (ไม่มีใครฟัง port) → breaker OPEN แล้วข้าม Redis ทั้งอ่านและเขียน */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.data.redis.host=127.0.0.1",
+        "spring.data.redis.port=1",
+        "spring.data.redis.timeout=200ms",
+        "spring.data.redis.connect-timeout=200ms",
+        "redisx.cache.prefix=cb",
+        "redisx.cache.enabled=true",
+        "redisx.cache.circuit-breaker.minimum-calls=4",
+        "redisx.cache.circuit-breaker.open-ms=60000"
+})
+@DirtiesContext
+class CircuitBreakerIntegrationTest {
+
+    @Autowired SlowService svc;
+    @Autowired CacheCircuitBreaker breaker;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void redisDown_tripsBreaker_thenCallsBypassRedis() {
+        // GET + SET ต่อ call ล้มทั้งคู่ → ครบ minimum-calls ภายใน 2 call
+        svc.find("a");
+        svc.find("b");
+        assertThat(breaker.state()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+        assertThat(((SimpleCacheMetrics) metrics).count("redisx.cache.breaker.opened", "redis")).isEqualTo(1);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 50; i++) assertThat(svc.find("x" + i)).isEqualTo("v-x" + i);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+        // fail-open ยังเรียกเมธอดจริงทุกครั้ง แต่ไม่ไปรอ Redis เลย
+        assertThat(svc.calls()).isEqualTo(52);
+        assertThat(ms).isLessThan(1_000);
+        assertThat(((SimpleCacheMetrics) metrics).count("redisx.cache.breaker.rejected", "redis")).isGreaterThanOrEqualTo(100);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean SlowService slowService() { return new SlowService(); }
+    }
+
+    static class SlowService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:cb", key = "#id", ttlSeconds = 60)
+        public String find(String id) {
+            counter.incrementAndGet();
+            return "v-" + id;
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,123 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheBulkEvictor;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=ea",
+        "redisx.cache.enabled=true",
+        "redisx.cache.scan-count=100",
+        "redisx.cache.evict-all.caches.[demo\\:bulk].async=true"
+})
+@DirtiesContext
+class EvictAllIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired BulkService bulk;
+    @Autowired StringRedisTemplate srt;
+    @Autowired CacheBulkEvictor evictor;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void syncEvictAll_unlinksEveryKeyOfTheCache() {
+        Map<String, String> seed = new HashMap<>();
+        for (int i = 0; i < 250; i++) seed.put("ea:demo:sync:" + i, "v");
+        seed.put("ea:demo:other:keep", "v");
+        srt.opsForValue().multiSet(seed);
+
+        bulk.clearSync();
+
+        assertThat(srt.keys("ea:demo:sync:*")).isEmpty();
+        assertThat(srt.hasKey("ea:demo:other:keep")).isTrue();
+        // ลบด้วย UNLINK (lazy free) ไม่ใช่ DEL
+        Properties stats = srt.execute((RedisConnection con) -> con.serverCommands().info("commandstats"));
+        assertThat(stats.stringPropertyNames()).contains("cmdstat_unlink");
+        assertThat(((SimpleCacheMetrics) metrics).totalValue("redisx.cache.evict-all.deleted", "demo:sync"))
+                .isEqualTo(250);
+    }
+
+    @Test
+    void asyncEvictAll_returnsImmediately_andReportsProgress() throws Exception {
+        Map<String, String> seed = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) seed.put("ea:demo:bulk:" + i, "v");
+        srt.opsForValue().multiSet(seed);
+
+        bulk.clearAsync();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline && !srt.keys("ea:demo:bulk:*").isEmpty()) {
+            Thread.sleep(20);
+        }
+        assertThat(srt.keys("ea:demo:bulk:*")).isEmpty();
+        while (System.currentTimeMillis() < deadline && !evictor.running().isEmpty()) {
+            Thread.sleep(20);
+        }
+        assertThat(evictor.running()).isEmpty();
+        assertThat(((SimpleCacheMetrics) metrics).totalValue("redisx.cache.evict-all.deleted", "demo:bulk"))
+                .isEqualTo(2_000);
+    }
+
+    @Test
+    void startedJob_exposesCounters() {
+        Map<String, String> seed = new HashMap<>();
+        for (int i = 0; i < 300; i++) seed.put("ea:demo:job:" + i, "v");
+        srt.opsForValue().multiSet(seed);
+
+        CacheBulkEvictor.Job job = evictor.start("demo:job", "ea:demo:job:");
+        assertThat(job.completion().join()).isEqualTo(300);
+        assertThat(job.scanned()).isEqualTo(300);
+        assertThat(job.deleted()).isEqualTo(300);
+        assertThat(job.nodesDone()).isEqualTo(job.nodes()).isEqualTo(1);
+        assertThat(job.isDone()).isTrue();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean BulkService bulkService() { return new BulkService(); }
+    }
+
+    static class BulkService {
+        @CacheableX(cacheName = "demo:sync", key = "#id", ttlSeconds = 60)
+        public String sync(String id) {
+            return id;
+        }
+
+        @CacheEvictX(cacheName = "demo:sync", allEntries = true)
+        public void clearSync() {
+        }
+
+        @CacheEvictX(cacheName = "demo:bulk", allEntries = true)
+        public void clearAsync() {
+        }
+    }
+}
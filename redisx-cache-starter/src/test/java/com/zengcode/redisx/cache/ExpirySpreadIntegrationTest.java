@@ -0,0 +1,92 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=expiry",
+        "redisx.cache.enabled=true",
+        "redisx.cache.expiry.caches.[demo\\:jitter].jitter-ratio=0.5",
+        "redisx.cache.expiry.caches.[demo\\:xfetch].xfetch-beta=1000"
+})
+@DirtiesContext
+class ExpirySpreadIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired DemoService demo;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void jitter_spreadsTtl_withinConfiguredBound() {
+        Set<Long> ttls = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            demo.jittered(String.valueOf(i));
+            Long ttl = srt.getExpire("expiry:demo:jitter:" + i);
+            assertThat(ttl).isBetween(500L, 1000L);
+            ttls.add(ttl);
+        }
+        assertThat(ttls).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void xfetch_triggersEarlyBackgroundRefresh_beforeTtl() throws Exception {
+        assertThat(demo.expensive("A")).isEqualTo("A-1"); // MISS, delta ≈ 100ms
+
+        // beta สูง → แต่ละ read มีโอกาสสูงที่จะ refresh ล่วงหน้า ทั้งที่ TTL เหลือ ~60s
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (demo.expensiveCalls() < 2) {
+            assertThat(demo.expensive("A")).startsWith("A-");
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(srt.getExpire("expiry:demo:xfetch:A")).isPositive();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean DemoService demoService() { return new DemoService(); }
+    }
+
+    static class DemoService {
+        private final AtomicInteger expensiveCounter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:jitter", key = "#id", ttlSeconds = 1000)
+        public String jittered(String id) {
+            return "j-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:xfetch", key = "#id", ttlSeconds = 60)
+        public String expensive(String id) {
+            int n = expensiveCounter.incrementAndGet();
+            try { Thread.sleep(100); } catch (InterruptedException ignored) {}
+            return id + "-" + n;
+        }
+
+        int expensiveCalls() { return expensiveCounter.get(); }
+    }
+}
@@ -0,0 +1,94 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.GenerationSweeper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=gen",
+        "redisx.cache.enabled=true",
+        "redisx.cache.generation.caches.[demo\\:catalog].enabled=true",
+        "redisx.cache.generation.sweeper.enabled=true",
+        "redisx.cache.generation.sweeper.interval-seconds=3600"
+})
+@DirtiesContext
+class GenerationNamespaceIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired CatalogService catalog;
+    @Autowired StringRedisTemplate srt;
+    @Autowired GenerationSweeper sweeper;
+
+    @Test
+    void evictAll_isOneIncr_andSweeperReclaimsOldGeneration() {
+        catalog.item("a");
+        catalog.item("b");
+        assertThat(srt.hasKey("gen:demo:catalog:v0:a")).isTrue();
+
+        catalog.clear();
+        assertThat(srt.opsForValue().get("gen:__gen:demo:catalog")).isEqualTo("1");
+        // key ของ generation เก่ายังอยู่ แต่ไม่ถูกอ่านอีก → โหลดใหม่ลง v1
+        assertThat(srt.hasKey("gen:demo:catalog:v0:a")).isTrue();
+        catalog.item("a");
+        assertThat(catalog.calls()).isEqualTo(3);
+        assertThat(srt.hasKey("gen:demo:catalog:v1:a")).isTrue();
+
+        assertThat(sweeper.sweep("demo:catalog")).isEqualTo(2);
+        assertThat(srt.hasKey("gen:demo:catalog:v0:a")).isFalse();
+        assertThat(srt.hasKey("gen:demo:catalog:v0:b")).isFalse();
+        assertThat(srt.hasKey("gen:demo:catalog:v1:a")).isTrue();
+
+        // evict รายตัวลบ key ของ generation ปัจจุบัน
+        catalog.evict("a");
+        assertThat(srt.hasKey("gen:demo:catalog:v1:a")).isFalse();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean CatalogService catalogService() { return new CatalogService(); }
+    }
+
+    static class CatalogService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:catalog", key = "#id", ttlSeconds = 60)
+        public String item(String id) {
+            counter.incrementAndGet();
+            return "item-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:catalog", allEntries = true)
+        public void clear() {
+        }
+
+        @CacheEvictX(cacheName = "demo:catalog", key = "#id")
+        public void evict(String id) {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,116 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * งบ byte ต่อ HIT ของ @CacheableX: วัด byte ที่ thread ผู้เรียก allocate (ThreadMXBean) ต่อการเรียกหนึ่งครั้ง
+ * แล้วหักต้นทุนของ GET ดิบบน template เดียวกัน (Lettuce / serializer) → เหลือเฉพาะของ aspect + decode
+ * ถ้าเกินงบ = มีอะไรใน hot path เริ่ม allocate เพิ่ม (key, context, log, metric) → build ล้ม
+ */
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=ab",
+        "redisx.cache.enabled=true"
+})
+@DirtiesContext
+class HitAllocationBudgetTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    /**
+     * งบที่ตกลงกัน: byte ต่อ HIT ส่วนที่เกินจาก GET ดิบ
+     * วัดได้ ~1190-1200 B (JDK 21, Lettuce 6.3, Jackson 2.17) = Jackson parser/context + Item ที่ decode ได้ (~0.8KB)
+     * + join point ของ Spring AOP + key + envelope
+     * งบ = ค่าที่วัด + ~30% เผื่อความต่างของ JDK/Lettuce/Jackson และความละเอียดของการนับ TLAB
+     * ยังต่ำกว่า ~2KB ของ hot path ก่อนตัด allocation ชัดเจน → ถอยกลับไปแบบเดิมยังถูกจับได้
+     */
+    static final long HIT_BUDGET_BYTES = 1536;
+
+    static final int WARMUP = 30_000;
+    static final int ROUNDS = 10_000;
+    /** วัดหลายรอบแล้วเอาค่าต่ำสุด (กันรอบที่ JIT ยัง compile ไม่เสร็จ) */
+    static final int WINDOWS = 3;
+
+    @Autowired AllocService svc;
+    @Autowired RedisTemplate<String, byte[]> redisXBytesTemplate;
+
+    @Test
+    void precompiledKeyHit_staysWithinAllocationBudget() {
+        com.sun.management.ThreadMXBean mx = threadMx();
+        svc.find(7L);
+        int calls = svc.calls();
+
+        long hit = bytesPerCall(mx, () -> svc.find(7L));
+        long raw = bytesPerCall(mx, () -> redisXBytesTemplate.opsForValue().get("ab:demo:alloc:7"));
+        assertThat(svc.calls()).isEqualTo(calls); // ทุกรอบเป็น HIT จริง
+
+        long overhead = hit - raw;
+        assertThat(overhead)
+                .as("aspect bytes/HIT (hit=%dB raw-get=%dB)", hit, raw)
+                .isLessThanOrEqualTo(HIT_BUDGET_BYTES);
+    }
+
+    private static long bytesPerCall(com.sun.management.ThreadMXBean mx, Runnable call) {
+        for (int i = 0; i < WARMUP; i++) call.run();
+        long tid = Thread.currentThread().threadId();
+        long best = Long.MAX_VALUE;
+        for (int w = 0; w < WINDOWS; w++) {
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < ROUNDS; i++) call.run();
+            best = Math.min(best, (mx.getThreadAllocatedBytes(tid) - before) / ROUNDS);
+        }
+        return best;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMx() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM ไม่รองรับการวัด allocation ต่อ thread");
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(mx.isThreadAllocatedMemorySupported(), "JVM ไม่รองรับการวัด allocation ต่อ thread");
+        mx.setThreadAllocatedMemoryEnabled(true);
+        return mx;
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean AllocService allocService() { return new AllocService(); }
+    }
+
+    record Item(long id, String name) {}
+
+    static class AllocService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:alloc", key = "#id", ttlSeconds = 300)
+        public Item find(Long id) {
+            counter.incrementAndGet();
+            return new Item(id, "item-" + id);
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,136 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.HotKeyCache;
+import com.zengcode.redisx.autoconfiguration.cache.HotKeysEndpoint;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * hot key: key ที่ถูกอ่านเกิน rate-per-second ถูก promote → ตอบจากสำเนาใน process (ไม่ GET Redis)
+ * window-ms=500, rate-per-second=20 → ครบ 10 ครั้งใน window = promote
+ */
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=hk",
+        "redisx.cache.enabled=true",
+        "redisx.cache.hot-keys.enabled=true",
+        "redisx.cache.hot-keys.window-ms=500",
+        "redisx.cache.hot-keys.rate-per-second=20",
+        "redisx.cache.hot-keys.local-ttl-ms=10000"
+})
+@DirtiesContext
+class HotKeyIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired HotService svc;
+    @Autowired CacheMetrics metrics;
+    @Autowired HotKeysEndpoint endpoint;
+
+    @Test
+    void hotKey_isPromoted_andServedLocally_untilEvicted() {
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        long redisHits = m.count("redisx.cache.hit", "demo:hot");
+        long localHits = m.count("redisx.cache.hot.hit", "demo:hot");
+
+        String first = svc.find("a");
+        for (int i = 0; i < 49; i++) assertThat(svc.find("a")).isEqualTo(first);
+        assertThat(svc.calls()).isEqualTo(1);
+
+        assertThat(m.count("redisx.cache.hot.promoted", "demo:hot")).isGreaterThanOrEqualTo(1);
+        // ~10 ครั้งแรกไป Redis (ก่อนถึงเกณฑ์ + ครั้งที่เติมสำเนา) ที่เหลือตอบจาก process
+        long local = m.count("redisx.cache.hot.hit", "demo:hot") - localHits;
+        assertThat(local).isGreaterThanOrEqualTo(30);
+        assertThat(m.count("redisx.cache.hit", "demo:hot") - redisHits).isLessThanOrEqualTo(49 - local);
+
+        // key เย็นไม่ถูก promote
+        svc.find("b");
+        svc.find("b");
+        assertThat(m.count("redisx.cache.hot.hit", "demo:hot") - localHits).isEqualTo(local);
+
+        // evict ของ node นี้ทิ้งสำเนาทันที → ค่าใหม่
+        svc.evict("a");
+        String second = svc.find("a");
+        assertThat(second).isNotEqualTo(first);
+        assertThat(svc.find("a")).isEqualTo(second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endpoint_reportsRates_andColdKeysAreDemoted() throws Exception {
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        long demoted = m.count("redisx.cache.hot.demoted", "demo:trend");
+
+        for (int i = 0; i < 40; i++) svc.trend("x");
+        svc.trend("y");
+        Thread.sleep(600);
+        svc.trend("x"); // ครบ window → สรุปอัตรา
+
+        List<HotKeyCache.HotKey> report = endpoint.hotKeys("demo:trend");
+        assertThat(report).isNotEmpty();
+        HotKeyCache.HotKey top = report.get(0);
+        assertThat(top.key()).endsWith(":x");
+        assertThat(top.promoted()).isTrue();
+        assertThat(top.ratePerSecond()).isGreaterThanOrEqualTo(20);
+
+        Map<String, Object> all = endpoint.hotKeys();
+        assertThat(all).containsEntry("windowMs", 500L);
+        assertThat((Map<String, List<HotKeyCache.HotKey>>) all.get("caches")).containsKey("demo:trend");
+
+        // window ถัดไปเงียบ → demote
+        Thread.sleep(600);
+        svc.trend("y");
+        assertThat(m.count("redisx.cache.hot.demoted", "demo:trend") - demoted).isGreaterThanOrEqualTo(1);
+        assertThat(endpoint.hotKeys("demo:trend")).noneMatch(HotKeyCache.HotKey::promoted);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean HotService hotService() { return new HotService(); }
+    }
+
+    static class HotService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:hot", key = "#id", ttlSeconds = 60)
+        public String find(String id) {
+            return "v-" + id + "-" + counter.incrementAndGet();
+        }
+
+        @CacheableX(cacheName = "demo:trend", key = "#id", ttlSeconds = 60)
+        public String trend(String id) {
+            return "t-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:hot", key = "#id")
+        public void evict(String id) {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
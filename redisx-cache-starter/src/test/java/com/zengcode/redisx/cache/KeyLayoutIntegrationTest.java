@@ -0,0 +1,162 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.annotation.cache.CacheableXBatch;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=kl",
+        "redisx.cache.enabled=true",
+        "redisx.cache.key-layout.caches.[demo\\:group].hash-tag=CACHE_NAME",
+        "redisx.cache.key-layout.caches.[demo\\:tenant].hash-tag=ROUTING",
+        "redisx.cache.key-layout.caches.[demo\\:tenant].routing=#tenant",
+        "redisx.cache.key-layout.caches.[demo\\:mig].hash-tag=CACHE_NAME",
+        "redisx.cache.key-layout.caches.[demo\\:mig].migrate-from=NONE"
+})
+@DirtiesContext
+class KeyLayoutIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired LayoutService svc;
+    @Autowired StringRedisTemplate srt;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void cacheNameHashTag_putsTheWholeCacheInOneSlot() {
+        svc.group("a");
+        svc.group("b");
+        assertThat(srt.hasKey("kl:{demo:group}:a")).isTrue();
+        assertThat(ClusterSlotHashUtil.calculateSlot("kl:{demo:group}:a"))
+                .isEqualTo(ClusterSlotHashUtil.calculateSlot("kl:{demo:group}:b"));
+
+        svc.clearGroup();
+        assertThat(srt.hasKey("kl:{demo:group}:a")).isFalse();
+        assertThat(srt.hasKey("kl:{demo:group}:b")).isFalse();
+    }
+
+    @Test
+    void routingHashTag_colocatesEntriesOfOneTenant_inSingleAndBatch() {
+        svc.tenant("t1", "a");
+        svc.tenantBatch("t1", List.of("b", "c"));
+        assertThat(srt.hasKey("kl:demo:tenant:{t1}:a")).isTrue();
+        assertThat(srt.hasKey("kl:demo:tenant:{t1}:b")).isTrue();
+        assertThat(srt.hasKey("kl:demo:tenant:{t1}:c")).isTrue();
+
+        // อ่านซ้ำผ่าน batch → HIT ทั้ง key ที่เขียนจาก single และ batch
+        int before = svc.calls();
+        assertThat(svc.tenantBatch("t1", List.of("a", "b"))).containsOnlyKeys("a", "b");
+        assertThat(svc.calls()).isEqualTo(before);
+
+        svc.evictTenant("t1", "a");
+        assertThat(srt.hasKey("kl:demo:tenant:{t1}:a")).isFalse();
+        assertThat(srt.hasKey("kl:demo:tenant:{t1}:b")).isTrue();
+    }
+
+    @Test
+    void migration_readsLegacyLayoutOnMiss_writesNewLayout_evictsBoth() {
+        // ค่าที่เขียนไว้ก่อนเปลี่ยน layout (JSON ล้วน = รูปแบบรุ่นเก่าที่ยังอ่านได้)
+        srt.opsForValue().set("kl:demo:mig:x", "\"old-x\"");
+        srt.opsForValue().set("kl:demo:mig:y", "\"old-y\"");
+
+        int before = svc.calls();
+        assertThat(svc.mig("x")).isEqualTo("old-x");
+        assertThat(svc.calls()).isEqualTo(before);
+        assertThat(((SimpleCacheMetrics) metrics).count("redisx.cache.layout.legacy-hit", "demo:mig")).isEqualTo(1);
+
+        // ค่าใหม่ไปที่ layout ใหม่เท่านั้น
+        assertThat(svc.mig("z")).isEqualTo("new-z");
+        assertThat(srt.hasKey("kl:{demo:mig}:z")).isTrue();
+        assertThat(srt.hasKey("kl:demo:mig:z")).isFalse();
+
+        svc.evictMig("x");
+        assertThat(srt.hasKey("kl:demo:mig:x")).isFalse();
+
+        svc.clearMig();
+        assertThat(srt.hasKey("kl:demo:mig:y")).isFalse();
+        assertThat(srt.hasKey("kl:{demo:mig}:z")).isFalse();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean LayoutService layoutService() { return new LayoutService(); }
+    }
+
+    static class LayoutService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:group", key = "#id", ttlSeconds = 60)
+        public String group(String id) {
+            counter.incrementAndGet();
+            return "g-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:group", allEntries = true)
+        public void clearGroup() {
+        }
+
+        @CacheableX(cacheName = "demo:tenant", key = "#id", ttlSeconds = 60)
+        public String tenant(String tenant, String id) {
+            counter.incrementAndGet();
+            return tenant + "/" + id;
+        }
+
+        @CacheableXBatch(cacheName = "demo:tenant", ttlSeconds = 60)
+        public Map<String, String> tenantBatch(String tenant, Collection<String> ids) {
+            counter.incrementAndGet();
+            Map<String, String> out = new LinkedHashMap<>();
+            for (String id : ids) out.put(id, tenant + "/" + id);
+            return out;
+        }
+
+        @CacheEvictX(cacheName = "demo:tenant", key = "#id")
+        public void evictTenant(String tenant, String id) {
+        }
+
+        @CacheableX(cacheName = "demo:mig", key = "#id", ttlSeconds = 60)
+        public String mig(String id) {
+            counter.incrementAndGet();
+            return "new-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:mig", key = "#id")
+        public void evictMig(String id) {
+        }
+
+        @CacheEvictX(cacheName = "demo:mig", allEntries = true)
+        public void clearMig() {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
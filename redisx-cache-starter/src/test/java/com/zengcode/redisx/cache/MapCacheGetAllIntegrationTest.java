@@ -0,0 +1,137 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.MapCacheGetAll;
+import com.zengcode.redisx.annotation.cache.MapCachePut;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=mga",
+        "redisx.cache.enabled=true",
+        "redisx.cache.scan-count=50"
+})
+@DirtiesContext
+class MapCacheGetAllIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired ConfigService svc;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void getAll_loadsOnlyMissingFields_andWritesThemBack() {
+        svc.put("a");
+        svc.put("b");
+
+        Map<String, String> first = svc.fields(List.of("a", "b", "c", "d", "a"));
+        assertThat(first).containsExactly(
+                Map.entry("a", "v-a"), Map.entry("b", "v-b"), Map.entry("c", "v-c"), Map.entry("d", "v-d"));
+        assertThat(svc.lastLoad()).containsExactly("c", "d");
+        assertThat(srt.opsForHash().get("mga:demo:field", "c")).isEqualTo("v-c");
+
+        int before = svc.loads();
+        assertThat(svc.fields(List.of("d", "c", "b"))).containsOnlyKeys("d", "c", "b");
+        assertThat(svc.loads()).isEqualTo(before);
+    }
+
+    @Test
+    void getAll_treatsExpiredFieldAsMissing() throws Exception {
+        svc.putShort("e");
+        svc.put("f");
+        Thread.sleep(1_200);
+
+        assertThat(svc.fields(List.of("e", "f"))).containsOnlyKeys("e", "f");
+        assertThat(svc.lastLoad()).containsExactly("e");
+    }
+
+    @Test
+    void wholeMap_scansWithoutMarkersOrExpiredFields() throws Exception {
+        int before = svc.loads();
+        Map<String, String> loaded = svc.all();
+        assertThat(loaded).hasSize(300);
+        assertThat(svc.loads() - before).isEqualTo(1);
+
+        svc.putShortConfig("tmp");
+        Thread.sleep(1_200);
+
+        Map<String, String> cached = svc.all();
+        assertThat(svc.loads() - before).isEqualTo(1);
+        assertThat(cached).hasSize(300).containsEntry("k42", "v42").doesNotContainKey("tmp");
+        assertThat(cached.keySet()).allMatch(k -> k.startsWith("k"));
+        // field ที่หมดอายุถูกลบทิ้งระหว่างทาง
+        assertThat(srt.opsForHash().hasKey("mga:demo:config", "tmp")).isFalse();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean ConfigService configService() { return new ConfigService(); }
+    }
+
+    static class ConfigService {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final List<String> lastLoad = new CopyOnWriteArrayList<>();
+
+        @MapCachePut(cacheName = "demo:field", key = "#id", ttlSeconds = 60)
+        public String put(String id) {
+            return "v-" + id;
+        }
+
+        @MapCachePut(cacheName = "demo:field", key = "#id", ttlSeconds = 1)
+        public String putShort(String id) {
+            return "v-" + id;
+        }
+
+        @MapCacheGetAll(cacheName = "demo:field", ttlSeconds = 60)
+        public Map<String, String> fields(Collection<String> ids) {
+            loads.incrementAndGet();
+            lastLoad.clear();
+            lastLoad.addAll(ids);
+            Map<String, String> out = new LinkedHashMap<>();
+            for (String id : ids) out.put(id, "v-" + id);
+            return out;
+        }
+
+        @MapCachePut(cacheName = "demo:config", key = "#id", ttlSeconds = 1)
+        public String putShortConfig(String id) {
+            return "short";
+        }
+
+        @MapCacheGetAll(cacheName = "demo:config", allEntries = true, ttlSeconds = 60)
+        public Map<String, String> all() {
+            loads.incrementAndGet();
+            Map<String, String> out = new LinkedHashMap<>();
+            for (int i = 0; i < 300; i++) out.put("k" + i, "v" + i);
+            return out;
+        }
+
+        int loads() { return loads.get(); }
+        List<String> lastLoad() { return new ArrayList<>(lastLoad); }
+    }
+}
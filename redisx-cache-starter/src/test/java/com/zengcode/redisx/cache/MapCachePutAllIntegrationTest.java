@@ -0,0 +1,108 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.MapCacheGet;
+import com.zengcode.redisx.annotation.cache.MapCacheGetAll;
+import com.zengcode.redisx.annotation.cache.MapCachePutAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=mpa",
+        "redisx.cache.enabled=true"
+})
+@DirtiesContext
+class MapCachePutAllIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    private static final String HASH_KEY = "mpa:demo:product";
+
+    @Autowired ProductService svc;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void putAll_writesEveryEntry_withTtl_andTypedReadsReturnObjects() {
+        svc.saveAll(List.of("p1", "p2", "p3"));
+
+        // ค่าเป็น JSON (ไม่ใช่ toString ของ record) และ hash มี TTL
+        assertThat((String) srt.opsForHash().get(HASH_KEY, "p2")).contains("\"name\":\"Product p2\"");
+        assertThat(srt.getExpire(HASH_KEY, TimeUnit.SECONDS)).isBetween(1L, 60L);
+
+        int before = svc.loads();
+        assertThat(svc.find("p2")).isEqualTo(new Product("p2", "Product p2", 2));
+        assertThat(svc.findAll(List.of("p1", "p3")))
+                .containsExactly(Map.entry("p1", new Product("p1", "Product p1", 2)),
+                        Map.entry("p3", new Product("p3", "Product p3", 2)));
+        assertThat(svc.loads()).isEqualTo(before);
+    }
+
+    @Test
+    void unreadableValue_isReloadedAndOverwritten() {
+        srt.opsForHash().put(HASH_KEY, "bad", "not-json");
+
+        int before = svc.loads();
+        assertThat(svc.find("bad")).isEqualTo(new Product("bad", "Product bad", 1));
+        assertThat(svc.loads() - before).isEqualTo(1);
+        assertThat((String) srt.opsForHash().get(HASH_KEY, "bad")).startsWith("{");
+    }
+
+    public record Product(String id, String name, int version) {}
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean ProductService productService() { return new ProductService(); }
+    }
+
+    static class ProductService {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @MapCachePutAll(cacheName = "demo:product", ttlSeconds = 60)
+        public Map<String, Product> saveAll(Collection<String> ids) {
+            Map<String, Product> out = new LinkedHashMap<>();
+            for (String id : ids) out.put(id, new Product(id, "Product " + id, 2));
+            return out;
+        }
+
+        @MapCacheGet(cacheName = "demo:product", key = "#id", ttlSeconds = 60)
+        public Product find(String id) {
+            loads.incrementAndGet();
+            return new Product(id, "Product " + id, 1);
+        }
+
+        @MapCacheGetAll(cacheName = "demo:product", ttlSeconds = 60)
+        public Map<String, Product> findAll(Collection<String> ids) {
+            loads.incrementAndGet();
+            Map<String, Product> out = new LinkedHashMap<>();
+            for (String id : ids) out.put(id, new Product(id, "Product " + id, 1));
+            return out;
+        }
+
+        int loads() { return loads.get(); }
+    }
+}
@@ -0,0 +1,121 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.MapCacheGet;
+import com.zengcode.redisx.annotation.cache.MapCachePut;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=mft",
+        "redisx.cache.enabled=true",
+        // redis 7.2 ยังไม่มี HPEXPIRE → ทดสอบ fallback (AUTO ก็จะเลือกโหมดนี้เอง)
+        "redisx.cache.map.field-ttl=COMPANION"
+})
+@DirtiesContext
+class MapFieldTtlIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    private static final String HASH_KEY = "mft:demo:profile";
+
+    @Autowired ProfileService svc;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void fieldsExpireIndependently_andExpiredFieldIsDroppedOnRead() throws Exception {
+        svc.shortLived("a");   // TTL 1s
+        svc.longLived("b");    // TTL 60s
+
+        // put ทีหลังไม่ยืดอายุ field ที่เขียนไว้ก่อน; hash อยู่ได้นานเท่า field ที่อยู่นานสุด
+        assertThat(srt.getExpire(HASH_KEY, TimeUnit.SECONDS)).isBetween(50L, 60L);
+
+        Thread.sleep(1_200);
+
+        int before = svc.calls();
+        assertThat(svc.get("a")).isEqualTo("p-a");
+        assertThat(svc.calls() - before).isEqualTo(1);
+
+        assertThat(svc.get("b")).isEqualTo("p-b");
+        assertThat(svc.calls() - before).isEqualTo(1);
+    }
+
+    @Test
+    void expiredFieldIsRemovedFromHash_withItsExpiryMarker() throws Exception {
+        svc.shortLived("x");
+        svc.longLived("y");
+        assertThat(srt.opsForHash().size(HASH_KEY)).isGreaterThanOrEqualTo(4);
+
+        Thread.sleep(1_200);
+        svc.get("x"); // MISS → ลบ field เก่า แล้วเขียนใหม่ด้วย TTL ของ @MapCacheGet
+
+        assertThat(srt.opsForHash().get(HASH_KEY, "x")).isEqualTo("p-x");
+        assertThat(srt.opsForHash().get(HASH_KEY, "y")).isEqualTo("p-y");
+    }
+
+    @Test
+    void getTtl_appliesToFieldWrittenOnMiss() throws Exception {
+        int before = svc.calls();
+        svc.getShort("m");
+        svc.getShort("m");
+        assertThat(svc.calls() - before).isEqualTo(1);
+
+        Thread.sleep(1_200);
+        svc.getShort("m");
+        assertThat(svc.calls() - before).isEqualTo(2);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean ProfileService profileService() { return new ProfileService(); }
+    }
+
+    static class ProfileService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @MapCachePut(cacheName = "demo:profile", key = "#id", ttlSeconds = 1)
+        public String shortLived(String id) {
+            return "p-" + id;
+        }
+
+        @MapCachePut(cacheName = "demo:profile", key = "#id", ttlSeconds = 60)
+        public String longLived(String id) {
+            return "p-" + id;
+        }
+
+        @MapCacheGet(cacheName = "demo:profile", key = "#id", ttlSeconds = 60)
+        public String get(String id) {
+            counter.incrementAndGet();
+            return "p-" + id;
+        }
+
+        @MapCacheGet(cacheName = "demo:profile", key = "#id", ttlSeconds = 1)
+        public String getShort(String id) {
+            counter.incrementAndGet();
+            return "p-" + id;
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
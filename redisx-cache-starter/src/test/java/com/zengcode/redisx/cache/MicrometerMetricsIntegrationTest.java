@@ -0,0 +1,90 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.MicrometerCacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=mm",
+        "redisx.cache.enabled=true"
+})
+@DirtiesContext
+class MicrometerMetricsIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired MeteredService svc;
+    @Autowired MeterRegistry registry;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void cacheActivity_isPublishedToMeterRegistry_taggedByCacheName() {
+        assertThat(metrics).isInstanceOf(MicrometerCacheMetrics.class);
+
+        svc.find("a");          // MISS → load → SET
+        svc.find("a");          // HIT
+        svc.veto("b");          // MISS → VETO
+        svc.evict("a");
+
+        assertThat(count("redisx.cache.miss", "demo:mm")).isEqualTo(1);
+        assertThat(count("redisx.cache.hit", "demo:mm")).isEqualTo(1);
+        assertThat(count("redisx.cache.evict", "demo:mm")).isEqualTo(1);
+        assertThat(count("redisx.cache.veto", "demo:veto")).isEqualTo(1);
+
+        assertThat(registry.get("redisx.cache.read").tag("cache", "demo:mm").timer().count()).isEqualTo(2);
+        assertThat(registry.get("redisx.cache.load").tag("cache", "demo:mm").timer().count()).isEqualTo(1);
+        var size = registry.get("redisx.cache.value-size").tag("cache", "demo:mm").summary();
+        assertThat(size.count()).isEqualTo(1);
+        assertThat(size.totalAmount()).isGreaterThan(0);
+        assertThat(registry.find("redisx.cache.error").counters()).isEmpty();
+    }
+
+    private double count(String name, String cacheName) {
+        return registry.get(name).tag("cache", cacheName).counter().count();
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean MeterRegistry meterRegistry() { return new SimpleMeterRegistry(); }
+        @Bean MeteredService meteredService() { return new MeteredService(); }
+    }
+
+    static class MeteredService {
+        @CacheableX(cacheName = "demo:mm", key = "#id", ttlSeconds = 60)
+        public String find(String id) {
+            return "v-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:veto", key = "#id", ttlSeconds = 60, unless = "true")
+        public String veto(String id) {
+            return "x-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:mm", key = "#id")
+        public void evict(String id) {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.NearCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=nearcache",
+        "redisx.cache.enabled=true",
+        "redisx.cache.near.caches.[demo\\:user].max-entries=100"
+})
+@DirtiesContext
+class NearCacheIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired DemoService demo;
+    @Autowired StringRedisTemplate srt;
+    @Autowired NearCache near;
+
+    private static String k(String id) {
+        return "nearcache:demo:user:" + id;
+    }
+
+    @BeforeEach
+    void waitTracking() {
+        await(near::isActive);
+    }
+
+    @Test
+    void redisHit_populatesL1_andRemoteWrite_invalidatesIt() {
+        int before = demo.callCount();
+        demo.getUser("1"); // MISS → SET
+        // Redis HIT → ใส่ L1 (invalidation ของ SET เมื่อกี้อาจมาแทรกรอบแรก จึงรอจนกว่าจะติด)
+        await(() -> "user-1".equals(demo.getUser("1")) && near.region("demo:user").get(k("1")) != null);
+        assertThat(demo.callCount()).isEqualTo(before + 1);
+
+        // node อื่นเขียนค่าใหม่ตรง ๆ → server ส่ง invalidation มา → L1 ต้องไม่เสิร์ฟค่าเก่า
+        srt.opsForValue().set(k("1"), "\"user-changed\"");
+        await(() -> "user-changed".equals(demo.getUser("1")));
+        assertThat(demo.callCount()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void evict_clearsL1_immediately() {
+        int before = demo.callCount();
+        demo.getUser("2");
+        await(() -> "user-2".equals(demo.getUser("2")) && near.region("demo:user").get(k("2")) != null);
+
+        demo.updateUser("2");
+
+        assertThat(near.region("demo:user").get(k("2"))).isNull();
+        demo.getUser("2");
+        assertThat(demo.callCount()).isEqualTo(before + 2);
+    }
+
+    private static void await(BooleanSupplier cond) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cond.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+        }
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean DemoService demoService() { return new DemoService(); }
+    }
+
+    static class DemoService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:user", key = "#id", ttlSeconds = 60)
+        public String getUser(String id) {
+            counter.incrementAndGet();
+            return "user-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:user", key = "#id")
+        public void updateUser(String id) {
+        }
+
+        int callCount() { return counter.get(); }
+    }
+}
@@ -0,0 +1,135 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=rb",
+        "redisx.cache.enabled=true",
+        "redisx.cache.read-timeout-ms=1000"
+})
+@DirtiesContext
+class ReadBudgetIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired BudgetService svc;
+    @Autowired StringRedisTemplate srt;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void slowGet_overrunsBudget_proceedsToRealMethod() throws Exception {
+        svc.find("a");
+        int before = svc.calls();
+        assertThat(svc.find("a")).isEqualTo("v-a"); // Redis ปกติ → HIT ภายใน budget
+        assertThat(svc.calls()).isEqualTo(before);
+
+        // หยุด Redis ชั่วคราว: GET ค้างนานกว่า budget 50ms
+        pauseRedis(400);
+        long t0 = System.nanoTime();
+        CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> svc.find("a"));
+        // เมธอดจริงถูกเรียกตั้งแต่ก่อน Redis กลับมา (SET หลังจากนั้นรอ Redis ตามปกติ)
+        while (svc.calls() == before && System.nanoTime() - t0 < TimeUnit.MILLISECONDS.toNanos(300)) {
+            Thread.sleep(5);
+        }
+        assertThat(svc.calls()).isEqualTo(before + 1);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0)).isLessThan(300);
+        assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("v-a");
+
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        assertThat(m.count("redisx.cache.read-budget.overrun", "demo:budget")).isEqualTo(1);
+        assertThat(m.count("redisx.cache.read-budget.reads", "demo:budget")).isEqualTo(3);
+    }
+
+    @Test
+    void globalDefault_appliesWhenAnnotationDoesNotOverride() {
+        svc.global("g");
+        svc.unbounded("u");
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        assertThat(m.count("redisx.cache.read-budget.reads", "demo:global")).isEqualTo(1);
+        assertThat(m.count("redisx.cache.read-budget.reads", "demo:unbounded")).isZero();
+    }
+
+    @Test
+    void nonBlockingThread_fallsBackToPlainGet_withoutCountingError() {
+        svc.reactorSide("nb");
+        int before = svc.calls();
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        long reads = m.count("redisx.cache.read-budget.reads", "demo:nb");
+
+        // Schedulers.parallel() = thread non-blocking → block() ใช้ไม่ได้ ต้องอ่านด้วย GET ปกติ
+        String v = Mono.fromCallable(() -> svc.reactorSide("nb")).subscribeOn(Schedulers.parallel()).block();
+        assertThat(v).isEqualTo("v-nb");
+        assertThat(svc.calls()).isEqualTo(before);
+        assertThat(m.count("redisx.cache.error", "demo:nb")).isZero();
+        assertThat(m.count("redisx.cache.read-budget.reads", "demo:nb")).isEqualTo(reads);
+    }
+
+    private void pauseRedis(long ms) {
+        srt.execute((RedisConnection con) -> con.execute("CLIENT",
+                "PAUSE".getBytes(StandardCharsets.UTF_8), Long.toString(ms).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean BudgetService budgetService() { return new BudgetService(); }
+    }
+
+    static class BudgetService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:budget", key = "#id", ttlSeconds = 60, readTimeoutMs = 50)
+        public String find(String id) {
+            counter.incrementAndGet();
+            return "v-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:nb", key = "#id", ttlSeconds = 60, readTimeoutMs = 50)
+        public String reactorSide(String id) {
+            counter.incrementAndGet();
+            return "v-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:global", key = "#id", ttlSeconds = 60)
+        public String global(String id) {
+            return "g-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:unbounded", key = "#id", ttlSeconds = 60, readTimeoutMs = 0)
+        public String unbounded(String id) {
+            return "u-" + id;
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
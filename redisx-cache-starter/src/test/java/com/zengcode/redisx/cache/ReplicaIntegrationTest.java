@@ -0,0 +1,145 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.CacheReplicas;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * replica ของ hot key: key ที่กำหนด (keys) หรือที่ถูก promote (auto) ถูกเขียนซ้ำ 3 ชื่อคนละช่วง slot
+ * อ่านจากสำเนาที่สุ่มได้, replica ว่าง → เติมจาก key หลัก, evict ลบครบทุกตัว
+ */
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=rp",
+        "redisx.cache.enabled=true",
+        "redisx.cache.replicas.count=3",
+        "redisx.cache.replicas.caches.[demo\\:cfg].keys=global",
+        "redisx.cache.replicas.caches.[demo\\:auto].auto=true",
+        "redisx.cache.hot-keys.caches.[demo\\:auto].rate-per-second=20",
+        "redisx.cache.hot-keys.caches.[demo\\:auto].local-ttl-ms=0",
+        "redisx.cache.hot-keys.window-ms=500"
+})
+@DirtiesContext
+class ReplicaIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired ReplicaService svc;
+    @Autowired CacheReplicas replicas;
+    @Autowired CacheMetrics metrics;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void designatedKey_isWrittenToReplicasInSeparateSlotRanges_andReadAcrossThem() {
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        long replicaHits = m.count("redisx.cache.replica.hit", "demo:cfg");
+
+        String v = svc.config("global");
+        List<String> copies = replicas.replicaKeys("rp:demo:cfg:global");
+        assertThat(copies).hasSize(3);
+        for (int i = 0; i < copies.size(); i++) {
+            assertThat(srt.hasKey(copies.get(i))).isTrue();
+            assertThat(srt.getExpire(copies.get(i), TimeUnit.SECONDS)).isBetween(1L, 60L);
+            int slot = ClusterSlotHashUtil.calculateSlot(copies.get(i));
+            assertThat(slot).isBetween(i * 16384 / 3, (i + 1) * 16384 / 3 - 1);
+        }
+        // key ที่ไม่ได้กำหนด → ไม่มี replica
+        svc.config("other");
+        assertThat(replicas.replicaKeys("rp:demo:cfg:other")).noneMatch(srt::hasKey);
+
+        for (int i = 0; i < 100; i++) assertThat(svc.config("global")).isEqualTo(v);
+        assertThat(svc.calls()).isEqualTo(2);
+        assertThat(m.count("redisx.cache.replica.hit", "demo:cfg") - replicaHits).isGreaterThan(30);
+
+        // replica หาย → อ่านจาก key หลักแล้วเติมกลับ
+        srt.delete(copies);
+        for (int i = 0; i < 100; i++) assertThat(svc.config("global")).isEqualTo(v);
+        assertThat(m.count("redisx.cache.replica.backfill", "demo:cfg")).isGreaterThanOrEqualTo(3);
+        assertThat(copies).allMatch(srt::hasKey);
+        long primaryTtl = srt.getExpire("rp:demo:cfg:global", TimeUnit.MILLISECONDS);
+        assertThat(srt.getExpire(copies.get(0), TimeUnit.MILLISECONDS)).isLessThanOrEqualTo(primaryTtl + 50);
+
+        // evict ลบทุก replica
+        svc.evict("global");
+        assertThat(copies).noneMatch(srt::hasKey);
+        assertThat(svc.config("global")).isNotEqualTo(v);
+        assertThat(copies).allMatch(srt::hasKey);
+
+        // evict-all ลบ replica ของทั้งกลุ่มด้วย
+        svc.evictAll();
+        assertThat(copies).noneMatch(srt::hasKey);
+    }
+
+    @Test
+    void promotedHotKey_isSpreadAutomatically() {
+        svc.auto("a");
+        List<String> copies = replicas.replicaKeys("rp:demo:auto:a");
+        assertThat(copies).noneMatch(srt::hasKey);
+
+        for (int i = 0; i < 200; i++) svc.auto("a");
+        assertThat(copies).anyMatch(srt::hasKey);
+
+        svc.evictAuto("a");
+        assertThat(copies).noneMatch(srt::hasKey);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean ReplicaService replicaService() { return new ReplicaService(); }
+    }
+
+    static class ReplicaService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:cfg", key = "#id", ttlSeconds = 60)
+        public String config(String id) {
+            return "c-" + id + "-" + counter.incrementAndGet();
+        }
+
+        @CacheableX(cacheName = "demo:auto", key = "#id", ttlSeconds = 60)
+        public String auto(String id) {
+            return "a-" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:cfg", key = "#id")
+        public void evict(String id) {
+        }
+
+        @CacheEvictX(cacheName = "demo:cfg", allEntries = true)
+        public void evictAll() {
+        }
+
+        @CacheEvictX(cacheName = "demo:auto", key = "#id")
+        public void evictAuto(String id) {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
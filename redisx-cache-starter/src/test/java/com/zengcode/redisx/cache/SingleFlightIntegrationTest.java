@@ -0,0 +1,132 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheCircuitBreaker;
+import com.zengcode.redisx.autoconfiguration.cache.CacheLease;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=sf",
+        "redisx.cache.enabled=true",
+        "redisx.cache.single-flight.distributed=true",
+        "redisx.cache.circuit-breaker.open-ms=200"
+})
+@DirtiesContext
+class SingleFlightIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired SlowService slow;
+    @Autowired CacheMetrics metrics;
+    @Autowired CacheLease lease;
+    @Autowired CacheCircuitBreaker breaker;
+
+    @Test
+    void concurrentMisses_sameKey_loadOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return slow.load("42");
+                }));
+            }
+            start.countDown();
+            for (Future<String> f : results) {
+                assertThat(f.get()).isEqualTo("v-42");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // ทุก caller ได้ค่าเดียวกัน แต่เมธอดจริงถูกเรียกครั้งเดียว
+        assertThat(slow.callCount()).isEqualTo(1);
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        assertThat(m.count("redisx.cache.stampede.loads", "demo:slow")).isEqualTo(1);
+        assertThat(m.count("redisx.cache.stampede.coalesced", "demo:slow")).isPositive();
+        assertThat(m.count("redisx.cache.lease.acquired", "demo:slow")).isEqualTo(1);
+    }
+
+    @Test
+    void waitingForRemoteLease_stopsOnceBreakerOpens() throws Exception {
+        // node อื่นถือ lease ไว้และไม่เคยเขียนค่า → ปกติจะรอจนครบ max-wait-ms (3s)
+        String token = lease.tryAcquire("sf:demo:wait:9", 10_000);
+        assertThat(token).isNotNull();
+        try {
+            long t0 = System.nanoTime();
+            CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> slow.await("9"));
+            Thread.sleep(150);
+            while (breaker.state() == CacheCircuitBreaker.State.CLOSED) {
+                if (breaker.tryAcquire()) breaker.onError(System.nanoTime());
+            }
+
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("w-9");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0)).isLessThan(1_500);
+            assertThat(((SimpleCacheMetrics) metrics).count("redisx.cache.lease.fallback", "demo:wait")).isEqualTo(1);
+        } finally {
+            lease.release("sf:demo:wait:9", token);
+            // คืน breaker เป็น CLOSED ให้ test อื่นใน context เดียวกัน
+            while (!breaker.isClosed()) {
+                Thread.sleep(50);
+                if (breaker.tryAcquire()) breaker.onSuccess(System.nanoTime());
+            }
+        }
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean SlowService slowService() { return new SlowService(); }
+    }
+
+    static class SlowService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:slow", key = "#id", ttlSeconds = 60)
+        public String load(String id) throws InterruptedException {
+            counter.incrementAndGet();
+            Thread.sleep(300); // จำลอง backend ช้า ให้ caller อื่นเข้ามาระหว่างโหลด
+            return "v-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:wait", key = "#id", ttlSeconds = 60)
+        public String await(String id) {
+            return "w-" + id;
+        }
+
+        int callCount() { return counter.get(); }
+    }
+}
@@ -0,0 +1,52 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.SpelRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpelRegistryTest {
+
+    private final SpelRegistry registry = new SpelRegistry();
+
+    @Test
+    void invalidExpression_failsAtPostProcessing() {
+        assertThatThrownBy(() -> registry.postProcessAfterInitialization(new Broken(), "broken"))
+                .isInstanceOf(BeanInitializationException.class)
+                .hasMessageContaining("Broken.find");
+    }
+
+    @Test
+    void evaluatesNamedPositionalAndResultVariables() throws Exception {
+        registry.postProcessAfterInitialization(new Valid(), "valid");
+        Method m = Valid.class.getMethod("find", String.class, int.class);
+        var spel = registry.forMethod(m);
+
+        // เรียกซ้ำหลายรอบ (ให้ SpEL compiler ทำงานในโหมด MIXED) ผลต้องเหมือนเดิม
+        for (int i = 0; i < 5; i++) {
+            assertThat(spel.evalStr("#id + ':' + #p1", new Object[]{"u1", 7})).isEqualTo("u1:7");
+            assertThat(spel.evalBool("#result == null", new Object[]{"u1", 7}, null, false)).isTrue();
+            assertThat(spel.evalBool("#result.length() > 2", new Object[]{"u1", 7}, "abc", false)).isTrue();
+        }
+        assertThat(spel.evalBool("", new Object[]{"u1", 7}, null, true)).isTrue();
+    }
+
+    static class Broken {
+        @CacheableX(cacheName = "demo:broken", key = "#id +")
+        public String find(String id) {
+            return id;
+        }
+    }
+
+    static class Valid {
+        @CacheableX(cacheName = "demo:valid", key = "#id", unless = "#result == null")
+        public String find(String id, int page) {
+            return id;
+        }
+    }
+}
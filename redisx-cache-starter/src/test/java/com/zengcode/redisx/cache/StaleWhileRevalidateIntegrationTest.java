@@ -0,0 +1,79 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=swr",
+        "redisx.cache.enabled=true",
+        "redisx.cache.swr.caches.[demo\\:price].stale-seconds=30"
+})
+@DirtiesContext
+class StaleWhileRevalidateIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired PriceService prices;
+
+    @Test
+    void staleHit_returnsOldValueImmediately_andRefreshesOnceInBackground() throws Exception {
+        assertThat(prices.price("A")).isEqualTo("A-1"); // MISS → SET (soft 1s, hard 31s)
+
+        Thread.sleep(1_200); // เลย soft-TTL
+
+        // stale: ทุก call ได้ค่าเดิมทันที ไม่รอเมธอดจริง และ refresh ถูกสั่งแค่ครั้งเดียว
+        for (int i = 0; i < 10; i++) {
+            assertThat(prices.price("A")).isEqualTo("A-1");
+        }
+        await(() -> "A-2".equals(prices.price("A")));
+        assertThat(prices.callCount()).isEqualTo(2);
+    }
+
+    private static void await(BooleanSupplier cond) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cond.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+        }
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean PriceService priceService() { return new PriceService(); }
+    }
+
+    static class PriceService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:price", key = "#sku", ttlSeconds = 1)
+        public String price(String sku) {
+            int n = counter.incrementAndGet();
+            try { Thread.sleep(200); } catch (InterruptedException ignored) {} // backend ช้า → ถ้า refresh ไม่ dedupe จะโดนเรียกซ้ำ
+            return sku + "-" + n;
+        }
+
+        int callCount() { return counter.get(); }
+    }
+}
@@ -0,0 +1,115 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=tag",
+        "redisx.cache.enabled=true",
+        "redisx.cache.scan-count=2"
+})
+@DirtiesContext
+class TagInvalidationIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired TenantService tenants;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void evictByTag_unlinksExactlyTheTaggedKeys_acrossCaches() {
+        int before = tenants.calls();
+        tenants.user("t1", "a");
+        tenants.user("t1", "b");
+        tenants.user("t1", "c");
+        tenants.order("t1", "o1");
+        tenants.user("t2", "a");
+
+        // index: member = key เต็ม, score = เวลาหมดอายุ (อนาคต), set มี TTL
+        String index = "tag:__tag:tenant:t1";
+        assertThat(srt.opsForZSet().size(index)).isEqualTo(4);
+        Double score = srt.opsForZSet().score(index, "tag:demo:user:t1:a");
+        assertThat(score).isGreaterThan((double) System.currentTimeMillis());
+        assertThat(srt.getExpire(index)).isBetween(1L, 60L);
+
+        tenants.evictTenant("t1");
+
+        for (String k : List.of("tag:demo:user:t1:a", "tag:demo:user:t1:b", "tag:demo:user:t1:c", "tag:demo:order:t1:o1")) {
+            assertThat(srt.hasKey(k)).as(k).isFalse();
+        }
+        assertThat(srt.hasKey(index)).isFalse();
+        assertThat(srt.hasKey("tag:demo:user:t2:a")).isTrue();
+        assertThat(srt.opsForZSet().size("tag:__tag:tenant:t2")).isEqualTo(1);
+
+        tenants.user("t1", "a");
+        assertThat(tenants.calls() - before).isEqualTo(6);
+    }
+
+    @Test
+    void expiredMembersArePrunedOnNextRegister() throws Exception {
+        tenants.shortLived("t3", "x");
+        Thread.sleep(1_200);
+        tenants.user("t3", "y");
+
+        // x หมดอายุแล้ว → ถูกตัดออกจาก set ตอนลงทะเบียน y
+        assertThat(srt.opsForZSet().range("tag:__tag:tenant:t3", 0, -1))
+                .containsExactly("tag:demo:user:t3:y");
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean TenantService tenantService() { return new TenantService(); }
+    }
+
+    static class TenantService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:user", key = "#tenant + ':' + #id", ttlSeconds = 60, tags = "'tenant:' + #tenant")
+        public String user(String tenant, String id) {
+            counter.incrementAndGet();
+            return tenant + "/" + id;
+        }
+
+        @CacheableX(cacheName = "demo:order", key = "#tenant + ':' + #id", ttlSeconds = 60, tags = "'tenant:' + #tenant")
+        public String order(String tenant, String id) {
+            counter.incrementAndGet();
+            return "order-" + id;
+        }
+
+        @CacheableX(cacheName = "demo:user", key = "#tenant + ':' + #id", ttlSeconds = 1, tags = "'tenant:' + #tenant")
+        public String shortLived(String tenant, String id) {
+            counter.incrementAndGet();
+            return tenant + "/" + id;
+        }
+
+        @CacheEvictX(cacheName = "demo:user", tags = "'tenant:' + #tenant")
+        public void evictTenant(String tenant) {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,147 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.CacheProps;
+import com.zengcode.redisx.autoconfiguration.cache.CacheWarmUp;
+import com.zengcode.redisx.autoconfiguration.cache.CacheWarmUpHealthIndicator;
+import com.zengcode.redisx.autoconfiguration.cache.NearCache;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * warm-up: HIT ถูกบันทึก (sample-rate=1) → flush ลง log ใน Redis → L1 ว่าง (เหมือน pod ใหม่) → warm() โหลดกลับด้วย MGET
+ * flush-interval-ms ยาวไว้ → test สั่ง flush เอง
+ */
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=wu",
+        "redisx.cache.enabled=true",
+        "redisx.cache.near.caches.[demo\\:warm].max-entries=1000",
+        "redisx.cache.warm-up.caches.[demo\\:warm].sample-rate=1",
+        "redisx.cache.warm-up.batch-size=8",
+        "redisx.cache.warm-up.pipeline-depth=2",
+        "redisx.cache.warm-up.flush-interval-ms=600000"
+})
+@DirtiesContext
+class WarmUpIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired WarmService svc;
+    @Autowired CacheWarmUp warmUp;
+    @Autowired CacheWarmUpHealthIndicator health;
+    @Autowired NearCache near;
+    @Autowired CacheProps props;
+    @Autowired CacheMetrics metrics;
+    @Autowired StringRedisTemplate srt;
+
+    @Test
+    void startup_warmUpFinishes_andHealthReportsUp() throws Exception {
+        for (int i = 0; i < 500 && !finished(warmUp.progress().state()); i++) Thread.sleep(10);
+        CacheWarmUp.Progress p = warmUp.progress();
+        assertThat(p.state()).isEqualTo(CacheWarmUp.State.DONE);
+
+        Health h = health.health();
+        assertThat(h.getStatus()).isEqualTo(Status.UP);
+        assertThat(h.getDetails()).containsKeys("state", "loaded", "total", "elapsedMs", "budgetMs", "caches");
+    }
+
+    @Test
+    void recordedHits_areLoadedIntoL1_withPipelinedMget() {
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        seed(20);
+        assertThat(srt.opsForZSet().size("wu:__warmup:log:demo:warm")).isGreaterThanOrEqualTo(20);
+
+        near.invalidateRegion("demo:warm"); // L1 ว่างเหมือน pod ใหม่
+        CacheWarmUp.Progress p = warmUp.warm();
+        assertThat(p.state()).isEqualTo(CacheWarmUp.State.DONE);
+        assertThat(p.total()).isGreaterThanOrEqualTo(20);
+        assertThat(p.loaded()).isEqualTo(p.total());
+        assertThat(p.caches()).containsKey("demo:warm");
+
+        int calls = svc.calls();
+        long l1 = m.count("redisx.cache.l1.hit", "demo:warm");
+        long redisHits = m.count("redisx.cache.hit", "demo:warm");
+        for (long i = 1; i <= 20; i++) assertThat(svc.find(i)).isEqualTo(new Item(i, "item-" + i));
+        assertThat(m.count("redisx.cache.l1.hit", "demo:warm") - l1).isEqualTo(20);
+        assertThat(m.count("redisx.cache.hit", "demo:warm")).isEqualTo(redisHits);
+        assertThat(svc.calls()).isEqualTo(calls);
+
+        Health h = health.health();
+        assertThat(h.getStatus()).isEqualTo(Status.UP);
+        assertThat(h.getDetails()).containsEntry("loaded", p.loaded());
+    }
+
+    @Test
+    void exhaustedBudget_stopsLoading_andStillReportsUp() {
+        seed(5);
+        long budget = props.getWarmUp().getBudgetMs();
+        props.getWarmUp().setBudgetMs(0);
+        try {
+            near.invalidateRegion("demo:warm");
+            CacheWarmUp.Progress p = warmUp.warm();
+            assertThat(p.state()).isEqualTo(CacheWarmUp.State.TIMED_OUT);
+            assertThat(p.loaded()).isZero();
+            assertThat(p.total()).isGreaterThanOrEqualTo(5);
+            assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        } finally {
+            props.getWarmUp().setBudgetMs(budget);
+        }
+    }
+
+    /** MISS → SET แล้ว HIT (ถูกบันทึก) สำหรับ id 1..n แล้ว flush log */
+    private void seed(int n) {
+        for (long i = 1; i <= n; i++) {
+            svc.find(i);
+            svc.find(i);
+        }
+        warmUp.flush();
+    }
+
+    private static boolean finished(CacheWarmUp.State s) {
+        return s != CacheWarmUp.State.PENDING && s != CacheWarmUp.State.WARMING;
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean WarmService warmService() { return new WarmService(); }
+    }
+
+    record Item(long id, String name) {}
+
+    static class WarmService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:warm", key = "#id", ttlSeconds = 300)
+        public Item find(Long id) {
+            counter.incrementAndGet();
+            return new Item(id, "item-" + id);
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,105 @@
+package com.zengcode.redisx.cache;
+
+import com.zengcode.redisx.annotation.cache.CacheEvictX;
+import com.zengcode.redisx.annotation.cache.CacheableX;
+import com.zengcode.redisx.autoconfiguration.cache.CacheMetrics;
+import com.zengcode.redisx.autoconfiguration.cache.CacheWriteBehind;
+import com.zengcode.redisx.autoconfiguration.cache.SimpleCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "redisx.cache.prefix=wb",
+        "redisx.cache.enabled=true",
+        "redisx.cache.write-behind.flush-interval-ms=300",
+        "redisx.cache.write-behind.caches.[demo\\:stock].enabled=true"
+})
+@DirtiesContext
+class WriteBehindIntegrationTest {
+
+    @Container
+    @ServiceConnection // Spring Boot จะ bind spring.data.redis.* ให้อัตโนมัติ
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.2-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired StockService stock;
+    @Autowired StringRedisTemplate srt;
+    @Autowired CacheWriteBehind writeBehind;
+    @Autowired CacheMetrics metrics;
+
+    @Test
+    void missIsReturnedBeforeTheWrite_thenFlushedInBackground() throws Exception {
+        assertThat(stock.level("a")).isEqualTo(10);
+        // ยังไม่ถึงรอบ flush → ยังไม่มีใน Redis (SET ไม่ได้อยู่บน request path)
+        assertThat(srt.hasKey("wb:demo:stock:a")).isFalse();
+        assertThat(writeBehind.queueDepth()).isEqualTo(1);
+        assertThat(((SimpleCacheMetrics) metrics).gaugeValue("redisx.cache.write-behind.queue-depth", "*")).isEqualTo(1);
+
+        awaitKey("wb:demo:stock:a", true);
+        assertThat(srt.getExpire("wb:demo:stock:a")).isBetween(1L, 60L);
+        assertThat(stock.level("a")).isEqualTo(10);
+        assertThat(stock.calls()).isEqualTo(1);
+
+        SimpleCacheMetrics m = (SimpleCacheMetrics) metrics;
+        assertThat(m.count("redisx.cache.write-behind.enqueued", "demo:stock")).isEqualTo(1);
+        assertThat(m.count("redisx.cache.write-behind.dropped", "demo:stock")).isZero();
+    }
+
+    @Test
+    void evictBeforeFlush_discardsThePendingWrite() throws Exception {
+        stock.level("b");
+        stock.evict("b");
+        assertThat(writeBehind.queueDepth()).isZero();
+        assertThat(((SimpleCacheMetrics) metrics).gaugeValue("redisx.cache.write-behind.queue-depth", "*")).isEqualTo(0);
+
+        Thread.sleep(600);
+        assertThat(srt.hasKey("wb:demo:stock:b")).isFalse();
+    }
+
+    private void awaitKey(String key, boolean present) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (System.currentTimeMillis() < deadline && Boolean.TRUE.equals(srt.hasKey(key)) != present) {
+            Thread.sleep(20);
+        }
+        assertThat(srt.hasKey(key)).isEqualTo(present);
+    }
+
+    @SpringBootApplication
+    static class TestApp {
+        @Bean StockService stockService() { return new StockService(); }
+    }
+
+    static class StockService {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @CacheableX(cacheName = "demo:stock", key = "#sku", ttlSeconds = 60)
+        public Integer level(String sku) {
+            counter.incrementAndGet();
+            return 10;
+        }
+
+        @CacheEvictX(cacheName = "demo:stock", key = "#sku")
+        public void evict(String sku) {
+        }
+
+        int calls() { return counter.get(); }
+    }
+}
@@ -0,0 +1,30 @@
+package com.zengcode.redisx.pubsub;
+
+import com.zengcode.redisx.autoconfiguration.cache.SpelRegistry;
+import com.zengcode.redisx.autoconfiguration.pubsub.PublishXAspect;
+import com.zengcode.redisx.autoconfiguration.pubsub.RedisXPubSubStarterAutoConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * pub/sub ใช้ได้โดยไม่มี cache auto-config (ไม่มี bean SpelRegistry) — ไม่ต้องต่อ Redis: connection ถูกสร้างแบบ lazy
+ */
+class PubSubAutoConfigurationTest {
+
+    @Test
+    void publishXAspect_withoutCacheAutoConfiguration_fallsBackToOwnSpelRegistry() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class,
+                        JacksonAutoConfiguration.class, RedisXPubSubStarterAutoConfiguration.class))
+                .run(ctx -> {
+                    assertThat(ctx).hasNotFailed();
+                    assertThat(ctx).hasSingleBean(PublishXAspect.class);
+                    assertThat(ctx).doesNotHaveBean(SpelRegistry.class);
+                });
+    }
+}